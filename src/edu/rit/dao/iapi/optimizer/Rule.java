@@ -0,0 +1,18 @@
+package edu.rit.dao.iapi.optimizer;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+
+/**
+ * The Interface Rule. A rewrite of the execution plan that returns the same
+ * rows in less time.
+ */
+public interface Rule {
+
+	/**
+	 * Apply the rule to the plan.
+	 *
+	 * @param plan the plan
+	 * @return the new plan, it may reuse the operations of the input plan
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan);
+}
@@ -1,10 +1,18 @@
 package edu.rit.dao.iapi.relational;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
+import edu.rit.dao.impl.store.access.TupleDescriptor;
+
 /**
  * The Class BinaryOperation.
  */
 public abstract class BinaryOperation extends RelationalAlgebra{
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The left source. */
 	private RelationalAlgebra leftSource;
 	
@@ -66,5 +74,45 @@ public abstract class BinaryOperation extends RelationalAlgebra{
 	public void setRightSource(RelationalAlgebra rightSource) {
 		this.rightSource = rightSource;
 	}
-	
+
+	/**
+	 * Checks if the right source is streamed again for every row of the left
+	 * source.
+	 *
+	 * @return true, if the right source is rescanned
+	 */
+	public boolean isRightSourceRescanned() {
+		return false;
+	}
+
+	/**
+	 * Gets the right rows. Java code of the stream of rows of the right source
+	 * as values, the rows are mapped to the row class or the map keys of the
+	 * left source by position. Set operations return rows of the left source
+	 * class.
+	 *
+	 * @return the right rows
+	 */
+	protected String getRightRows() {
+		RelationalAlgebra left = getLeftSource();
+		RelationalAlgebra right = getRightSource();
+		if (right.getTuple() == left.getTuple()
+				&& (left.getTuple() != null || getFields(left).equals(getFields(right)))) {
+			return right.getRows();
+		}
+		return right.getReturnVar() + ".get().map(bean2 -> " + left.newRow(c -> {
+			int index = left.getColumns().indexOf(c);
+			return right.getValue("bean2", right.getColumns().get(index));
+		}) + ")";
+	}
+
+	/**
+	 * Gets the fields of the columns of the operation in order.
+	 *
+	 * @param ra the relational algebra operation
+	 * @return the fields
+	 */
+	private static List<String> getFields(RelationalAlgebra ra) {
+		return ra.getColumns().stream().map(TupleDescriptor::getField).collect(Collectors.toList());
+	}
 }
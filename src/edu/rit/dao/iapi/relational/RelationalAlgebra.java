@@ -1,19 +1,36 @@
 package edu.rit.dao.iapi.relational;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.ClassUtils;
 
 import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
 
 /**
  * The Class RelationalAlgebra.
  */
-public abstract class RelationalAlgebra {
+public abstract class RelationalAlgebra implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The return var. */
 	private String returnVar;
 	
 	/** The att order. */
 	private Map<Integer, ColumnDescriptor> attOrder;
+
+	/** The tuple. Generated class of the rows, rows are maps when it is null. */
+	private TupleDescriptor tuple;
+
+	/** The parallel. Whether the generated code runs on parallel streams. */
+	private boolean parallel;
 	
 	/**
 	 * Instantiates a new relational algebra.
@@ -45,6 +62,36 @@ public abstract class RelationalAlgebra {
 		return returnVar;
 	}
 
+	/**
+	 * Buffer. Java code that evaluates this operation once and collects its
+	 * rows into the buffer variable: the code of the operation is declared in a
+	 * block of its own, and its variable is declared again after the block to
+	 * stream the buffered rows, the operations declared afterwards read them.
+	 *
+	 * @param code the code of this operation
+	 * @return the string
+	 */
+	public String buffer(String code) {
+		String rows = getBufferVar();
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("List<").append(getRowType()).append("> ").append(rows).append(";\n{\n");
+		buffer.append(code).append(";\n");
+		buffer.append(rows).append(" = ").append(returnVar)
+				.append(".get().collect(java.util.stream.Collectors.toList());\n}\n");
+		buffer.append(getStreamType()).append(" ").append(returnVar).append(" = () -> ").append(rows)
+				.append(".stream()");
+		return buffer.toString();
+	}
+
+	/**
+	 * Gets the buffer var.
+	 *
+	 * @return the variable of the rows collected by {@link #buffer(String)}
+	 */
+	public String getBufferVar() {
+		return "rows" + returnVar;
+	}
+
 	/**
 	 * Gets the att order.
 	 *
@@ -62,4 +109,238 @@ public abstract class RelationalAlgebra {
 	public void setAttOrder(Map<Integer, ColumnDescriptor> attOrder) {
 		this.attOrder = attOrder;
 	}
+
+	/**
+	 * Gets the tuple.
+	 *
+	 * @return the tuple
+	 */
+	public TupleDescriptor getTuple() {
+		return tuple;
+	}
+
+	/**
+	 * Sets the tuple.
+	 *
+	 * @param tuple the tuple to set
+	 */
+	public void setTuple(TupleDescriptor tuple) {
+		this.tuple = tuple;
+	}
+
+	/**
+	 * Checks if the generated code runs on parallel streams.
+	 *
+	 * @return the parallel
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Sets the parallel.
+	 *
+	 * @param parallel the parallel to set
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * New set. Java code that creates a set of keys, the set is shared by the
+	 * threads of a parallel stream.
+	 *
+	 * @return the string
+	 */
+	protected String newSet() {
+		return parallel ? "java.util.concurrent.ConcurrentHashMap.newKeySet()" : "new java.util.HashSet<>()";
+	}
+
+	/**
+	 * Gets the row source. The operation whose rows are returned unchanged by
+	 * this operation, such as the source of a filter.
+	 *
+	 * @return the row source, null if this operation creates its own rows
+	 */
+	public RelationalAlgebra getRowSource() {
+		return null;
+	}
+
+	/**
+	 * Gets the order. The columns the rows are sorted on in ascending order,
+	 * the rows returned unchanged keep the order of their source.
+	 *
+	 * @return the columns, empty if the rows are not sorted
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		return getRowSource() != null ? getRowSource().getOrder() : new ArrayList<>();
+	}
+
+	/**
+	 * Gets the row type. Java type of the rows produced by this operation.
+	 *
+	 * @return the row type
+	 */
+	public String getRowType() {
+		if (getRowSource() != null) {
+			return getRowSource().getRowType();
+		}
+		return tuple == null ? "Map<String, Object>" : tuple.getClassName();
+	}
+
+	/**
+	 * Checks if the rows of this operation are the user DTOs, which are read
+	 * with their getters and never modified.
+	 *
+	 * @return true, if the rows are user DTOs
+	 */
+	public boolean isUserDTORows() {
+		return getRowSource() != null && getRowSource().isUserDTORows();
+	}
+
+	/**
+	 * Gets the rows. Java code of the stream of rows of this operation as
+	 * values (maps or row classes), user DTOs are copied lazily one by one.
+	 *
+	 * @return the rows
+	 */
+	public String getRows() {
+		String rows = returnVar + ".get()";
+		if (isUserDTORows()) {
+			rows += ".map(bean -> " + newRow(c -> getValue("bean", c)) + ")";
+		}
+		return rows;
+	}
+
+	/**
+	 * Gets the row key. Java code that builds a compact key with the values of
+	 * all the columns of a row, in column order. Rows of different operations
+	 * with the same values have equal keys. Keys of parallel streams are never
+	 * null, concurrent sets do not accept null.
+	 *
+	 * @param bean the bean variable
+	 * @return the row key
+	 */
+	public String getRowKey(String bean) {
+		List<ColumnDescriptor> columns = getColumns();
+		if (columns.size() == 1 && !parallel) {
+			return getValue(bean, columns.get(0));
+		}
+		StringBuilder key = new StringBuilder("java.util.Arrays.asList(");
+		for (int i = 0; i < columns.size(); i++) {
+			key.append(i > 0 ? ", " : "").append(getValue(bean, columns.get(i)));
+		}
+		return key.append(")").toString();
+	}
+
+	/**
+	 * Gets the columns of the rows in order.
+	 *
+	 * @return the columns
+	 */
+	public List<ColumnDescriptor> getColumns() {
+		return new ArrayList<>(new TreeMap<>(attOrder).values());
+	}
+
+	/**
+	 * Gets the stream type. Java type of the variable declared by perform.
+	 *
+	 * @return the stream type
+	 */
+	public String getStreamType() {
+		return "java.util.function.Supplier<java.util.stream.Stream<" + getRowType() + ">>";
+	}
+
+	/**
+	 * Gets the value. Java code that reads a column from a row produced by
+	 * this operation.
+	 *
+	 * @param bean the bean variable
+	 * @param column the column
+	 * @return the value
+	 */
+	public String getValue(String bean, ColumnDescriptor column) {
+		if (getRowSource() != null) {
+			return getRowSource().getValue(bean, column);
+		}
+		if (tuple == null) {
+			return bean + ".get(\"" + TupleDescriptor.getField(column) + "\")";
+		}
+		return bean + "." + TupleDescriptor.getField(column);
+	}
+
+	/**
+	 * Gets the value type. Java type of a column in the rows produced by this
+	 * operation.
+	 *
+	 * @param column the column
+	 * @return the value type
+	 */
+	public Class<?> getValueType(ColumnDescriptor column) {
+		if (getRowSource() != null) {
+			return getRowSource().getValueType(column);
+		}
+		return tuple == null ? Object.class : tuple.getType(column);
+	}
+
+	/**
+	 * Gets the column type. Java type of a column in the rows produced by this
+	 * operation, the values of map rows are the boxed values of the user DTO
+	 * properties they were read from.
+	 *
+	 * @param column the column
+	 * @return the column type, Object if unknown
+	 */
+	public Class<?> getColumnType(ColumnDescriptor column) {
+		Class<?> type = getValueType(column);
+		if (type == Object.class && column.getJavaType() != null) {
+			return ClassUtils.primitiveToWrapper(column.getJavaType());
+		}
+		return type;
+	}
+
+	/**
+	 * Gets the typed value. Java code that reads a column from a row produced
+	 * by this operation as its column type, the values of map rows are cast.
+	 *
+	 * @param bean the bean variable
+	 * @param column the column
+	 * @return the typed value
+	 */
+	public String getTypedValue(String bean, ColumnDescriptor column) {
+		String value = getValue(bean, column);
+		Class<?> type = getColumnType(column);
+		return getValueType(column) == type ? value : "((" + type.getName() + ") " + value + ")";
+	}
+
+	/**
+	 * New row. Java code (an expression or a block) that creates a row of
+	 * this operation.
+	 *
+	 * @param values the java code of the value of every column
+	 * @return the string
+	 */
+	public String newRow(Function<ColumnDescriptor, String> values) {
+		StringBuilder code = new StringBuilder();
+		if (tuple == null) {
+			code.append("{Map<String, Object> tmp = new java.util.HashMap<>();");
+			for (ColumnDescriptor c : attOrder.values()) {
+				code.append("tmp.put(\"").append(TupleDescriptor.getField(c)).append("\", ").append(values.apply(c))
+						.append(");");
+			}
+			code.append("return tmp; }");
+		} else {
+			// the class may be shared with other operations, its fields are
+			// matched with the columns of this operation by name
+			code.append("new ").append(tuple.getClassName()).append("(");
+			for (int i = 0; i < tuple.getColumns().size(); i++) {
+				String field = TupleDescriptor.getField(tuple.getColumns().get(i));
+				ColumnDescriptor column = attOrder.values().stream()
+						.filter(c -> TupleDescriptor.getField(c).equals(field)).findFirst().get();
+				code.append(i > 0 ? ", " : "").append(values.apply(column));
+			}
+			code.append(")");
+		}
+		return code.toString();
+	}
 }
@@ -4,6 +4,9 @@ package edu.rit.dao.iapi.relational;
  * The Class RelationAlgebraOperation.
  */
 public abstract class UnaryOperation extends RelationalAlgebra{
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 	
 	/** The source. */
 	private RelationalAlgebra source;
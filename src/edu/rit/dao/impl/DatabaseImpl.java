@@ -2,12 +2,16 @@ package edu.rit.dao.impl;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -24,19 +28,30 @@ import edu.rit.dao.iapi.relational.RelationalAlgebra;
 import edu.rit.dao.impl.parser.ExprLexer;
 import edu.rit.dao.impl.parser.ExprParser;
 import edu.rit.dao.impl.parser.PredicateListener;
+import edu.rit.dao.impl.relational.Aggregate;
 import edu.rit.dao.impl.relational.CartesianProduct;
 import edu.rit.dao.impl.relational.Difference;
+import edu.rit.dao.impl.relational.Distinct;
+import edu.rit.dao.impl.relational.Intersect;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Limit;
 import edu.rit.dao.impl.relational.Projection;
 import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.Sort;
 import edu.rit.dao.impl.relational.TableAccess;
 import edu.rit.dao.impl.relational.Union;
+import edu.rit.dao.impl.store.access.AggregateFunction;
 import edu.rit.dao.impl.store.access.ColumnDescriptor;
 import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Parameter;
 import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.dao.impl.store.access.SortKey;
 import edu.rit.utils.Utils;
 import ra.OneArgTerm;
 import ra.Term;
 import ra.TwoArgTerm;
+import ra.operators.AggregT;
+import ra.operators.aggregationextenders.AggregationExtenderTermRepresentation;
 
 /**
  * The Class DatabaseImpl.
@@ -66,12 +81,67 @@ public class DatabaseImpl implements Database {
 	/** The Constant DUPREM. */
 	public static final String DUPREM = "duprem";
 
+	/** The Constant DISTINCT. */
+	public static final String DISTINCT = "distinct";
+
 	/** The Constant UNION. */
 	public static final String UNION = "union";
 
 	/** The Constant DIFF. */
 	public static final String DIFF = "diffset";
 
+	/** The Constant INTERSECT. */
+	public static final String INTERSECT = "intersect";
+
+	/** The Constant EXCEPT. */
+	public static final String EXCEPT = "except";
+
+	/** The Constant SET_OPERATIONS. SQL keywords of the set operations. */
+	private static final List<String> SET_OPERATIONS = Arrays.asList(UNION, EXCEPT, INTERSECT, "minus");
+
+	/** The Constant GROUPBY. */
+	public static final String GROUPBY = "groupby";
+
+	/** The Constant AGGREGATE. */
+	public static final String AGGREGATE = "aggregate";
+
+	/** The Constant SORTASC. */
+	public static final String SORTASC = "sortasc";
+
+	/** The Constant SORTDESC. */
+	public static final String SORTDESC = "sortdesc";
+
+	/** The Constant SORT. */
+	public static final String SORT = "sort";
+
+	/** The Constant LIMIT. */
+	public static final String LIMIT = "limit";
+
+	/**
+	 * The Constant ROW_LIMIT. Row limit of a query, the groups are the limit
+	 * and offset of LIMIT n OFFSET m, then the offset and limit of OFFSET m
+	 * ROWS FETCH FIRST n ROWS ONLY.
+	 */
+	private static final String ROW_LIMIT = "(?:\\s+limit\\s+(\\d+)(?:\\s+offset\\s+(\\d+))?"
+			+ "|(?:\\s+offset\\s+(\\d+)(?:\\s+rows?)?)?(?:\\s+fetch\\s+(?:first|next)\\s+(\\d+)\\s+rows?\\s+only)?)";
+
+	/** The Constant ORDER_BY_CLAUSE. Top level ORDER BY clause, with its row limit. */
+	private static final Pattern ORDER_BY_CLAUSE = Pattern
+			.compile("(?is)order\\s+by\\s+(.+?)" + ROW_LIMIT + "\\s*;?\\s*");
+
+	/** The Constant ROW_LIMIT_CLAUSE. Top level row limit without ORDER BY. */
+	private static final Pattern ROW_LIMIT_CLAUSE = Pattern.compile("(?is)" + ROW_LIMIT + "\\s*;?\\s*");
+
+	/** The Constant SORT_ITEM. Column of the ORDER BY clause and its direction. */
+	private static final Pattern SORT_ITEM = Pattern.compile("(?is)(.+?)(?:\\s+(asc|desc))?");
+
+	/** The Constant AGGREGATE_ITEM. Aggregate of the ORDER BY clause. */
+	private static final Pattern AGGREGATE_ITEM = Pattern
+			.compile("(?is)(\\w+)\\s*\\(\\s*(distinct\\s+)?(?:\\w+\\s*\\.\\s*)?(\\w+)\\s*\\)");
+
+	/** The Constant JOIN. */
+	public static final String JOIN = "join";
+
 	/** The Constant CARTPROD. */
 	public static final String CARTPROD = "cartprod";
 
@@ -109,7 +179,75 @@ public class DatabaseImpl implements Database {
 	 * adipe.translate.ra.Schema)
 	 */
 	public RelationalAlgebra getExecutionPlan(String query, Schema schema) throws Exception {
+		// the placeholders are numbered over the whole query, before it is
+		// split
+		query = Parameter.mark(query);
+		// the RA library does not translate ORDER BY several columns nor row
+		// limits, the clauses are removed and translated over the plan
+		int index = lastKeyword(query, "order");
+		Matcher matcher = index < 0 ? null : ORDER_BY_CLAUSE.matcher(query.substring(index));
+		if (matcher != null && matcher.matches()) {
+			RelationalAlgebra root = getPlan(query.substring(0, index), schema);
+			if (root == null) {
+				return null;
+			}
+			long offset = getOffset(matcher, 2);
+			long limit = getLimit(matcher, 2);
+			// the offset rows are also kept by the sort, then skipped
+			root = sort(root, matcher.group(1), limit == Sort.NO_LIMIT ? Sort.NO_LIMIT : offset + limit);
+			return offset > 0 ? limit(root, offset, limit, true) : root;
+		}
+		index = -1;
+		for (String keyword : Arrays.asList(LIMIT, "offset", "fetch")) {
+			int start = lastKeyword(query, keyword);
+			if (start >= 0 && (index < 0 || start < index)
+					&& ROW_LIMIT_CLAUSE.matcher(" " + query.substring(start)).matches()) {
+				index = start;
+			}
+		}
+		if (index >= 0) {
+			RelationalAlgebra root = getPlan(query.substring(0, index), schema);
+			if (root == null) {
+				return null;
+			}
+			matcher = ROW_LIMIT_CLAUSE.matcher(" " + query.substring(index));
+			matcher.matches();
+			return limit(root, getOffset(matcher, 1), getLimit(matcher, 1), false);
+		}
+		return getPlan(query, schema);
+	}
+
+	/**
+	 * Gets the execution plan of a query without ORDER BY clause.
+	 *
+	 * @param query
+	 *            the query, placeholders already marked
+	 * @param schema
+	 *            the schema
+	 * @return the relational algebra
+	 * @throws Exception
+	 *             the exception
+	 */
+	private RelationalAlgebra getPlan(String query, Schema schema) throws Exception {
 		RelationalAlgebra root = null;
+		List<String> queries = splitQuery(query, INTERSECT);
+		if (queries.size() > 1) {
+			// INTERSECT is not translated by the RA library, every query is
+			// translated on its own and then intersected
+			for (String q : queries) {
+				RelationalAlgebra ra = getPlan(q, schema);
+				if (ra == null) {
+					return null;
+				}
+				if (root != null) {
+					ra = new Intersect(Utils.randomIdentifier(INTERSECT), root, ra);
+					// set operations return the columns of the left source
+					ra.setAttOrder(((Intersect) ra).getLeftSource().getAttOrder());
+				}
+				root = ra;
+			}
+			return root;
+		}
 		Term t = Queries.getRaOf(schema, query);
 		// System.out.println(Terms.indent(t));
 		if (t != null) {
@@ -123,6 +261,281 @@ public class DatabaseImpl implements Database {
 		return root;
 	}
 
+	/**
+	 * Sort. Sorts the rows of the plan by the columns of the ORDER BY clause.
+	 * The rows are sorted before the projection when a column is not returned
+	 * by the query, or when there is a limit, so that only the rows kept are
+	 * projected.
+	 *
+	 * @param root
+	 *            the root of the plan
+	 * @param items
+	 *            the columns of the ORDER BY clause
+	 * @param limit
+	 *            the row limit, Sort.NO_LIMIT if there is none
+	 * @return the relational algebra
+	 * @throws Exception
+	 *             the exception
+	 */
+	private RelationalAlgebra sort(RelationalAlgebra root, String items, long limit) throws Exception {
+		RelationalAlgebra target = root;
+		List<SortKey> keys = getSortKeys(root, items.split(","));
+		if (root instanceof Projection && (keys == null || limit != Sort.NO_LIMIT)) {
+			// the projected columns are columns of the source
+			target = ((Projection) root).getSource();
+			keys = keys != null ? keys : getSortKeys(target, items.split(","));
+		}
+		if (keys == null) {
+			throw new Exception("No such column in ORDER BY " + items.trim());
+		}
+		Sort sort = new Sort(Utils.randomIdentifier(SORT), keys, target);
+		sort.setLimit(limit);
+		sort.setAttOrder(target.getAttOrder());
+		if (target != root) {
+			((Projection) root).setSource(sort);
+			return root;
+		}
+		return sort;
+	}
+
+	/**
+	 * Limit. Skips the offset rows of the plan and returns at most limit rows.
+	 *
+	 * @param root
+	 *            the root of the plan
+	 * @param offset
+	 *            the offset
+	 * @param limit
+	 *            the limit, Sort.NO_LIMIT if there is none
+	 * @param ordered
+	 *            whether the first rows must be returned
+	 * @return the relational algebra
+	 */
+	private RelationalAlgebra limit(RelationalAlgebra root, long offset, long limit, boolean ordered) {
+		Limit ra = new Limit(Utils.randomIdentifier(LIMIT), offset, limit, root);
+		ra.setOrdered(ordered);
+		ra.setAttOrder(root.getAttOrder());
+		return ra;
+	}
+
+	/**
+	 * Gets the offset of a row limit.
+	 *
+	 * @param matcher
+	 *            the matcher of the clause
+	 * @param group
+	 *            the first group of the row limit
+	 * @return the offset, 0 if there is none
+	 */
+	private long getOffset(Matcher matcher, int group) {
+		String offset = matcher.group(group + 1) != null ? matcher.group(group + 1) : matcher.group(group + 2);
+		return offset != null ? Long.parseLong(offset) : 0;
+	}
+
+	/**
+	 * Gets the limit of a row limit.
+	 *
+	 * @param matcher
+	 *            the matcher of the clause
+	 * @param group
+	 *            the first group of the row limit
+	 * @return the limit, Sort.NO_LIMIT if there is none
+	 */
+	private long getLimit(Matcher matcher, int group) {
+		String limit = matcher.group(group) != null ? matcher.group(group) : matcher.group(group + 3);
+		return limit != null ? Long.parseLong(limit) : Sort.NO_LIMIT;
+	}
+
+	/**
+	 * Gets the sort keys. Every item is either the position of a column, an
+	 * aggregate, or the name of a column, qualified or not.
+	 *
+	 * @param ra
+	 *            the operation whose rows are sorted
+	 * @param items
+	 *            the items of the ORDER BY clause
+	 * @return the sort keys, null if a column is not returned by the operation
+	 * @throws Exception
+	 *             the exception
+	 */
+	private List<SortKey> getSortKeys(RelationalAlgebra ra, String[] items) throws Exception {
+		List<SortKey> keys = new ArrayList<>();
+		for (String item : items) {
+			Matcher matcher = SORT_ITEM.matcher(item.trim());
+			if (!matcher.matches()) {
+				throw new Exception("Invalid ORDER BY column " + item.trim());
+			}
+			String name = matcher.group(1).trim();
+			ColumnDescriptor column = null;
+			if (name.matches("\\d+")) {
+				column = ra.getAttOrder().get(Integer.parseInt(name));
+				if (column == null) {
+					throw new Exception("ORDER BY position out of range " + name);
+				}
+			} else {
+				column = getColumn(ra, name);
+			}
+			if (column == null) {
+				return null;
+			}
+			keys.add(new SortKey(column, "desc".equalsIgnoreCase(matcher.group(2))));
+		}
+		return keys;
+	}
+
+	/**
+	 * Gets the column of an ORDER BY item. Aggregates are matched by the name
+	 * of their result column, e.g. <code>max(salary)</code> by maxSalary.
+	 *
+	 * @param ra
+	 *            the operation whose rows are sorted
+	 * @param name
+	 *            the item
+	 * @return the column, null if it is not returned by the operation
+	 * @throws Exception
+	 *             if the name is ambiguous
+	 */
+	private ColumnDescriptor getColumn(RelationalAlgebra ra, String name) throws Exception {
+		String qualifier = null;
+		Matcher aggregate = AGGREGATE_ITEM.matcher(name);
+		if (aggregate.matches()) {
+			String function = aggregate.group(2) != null ? "countDistinct" : aggregate.group(1);
+			name = AggregateFunction.getName(AggregateFunction.valueOf(function))
+					+ Character.toUpperCase(aggregate.group(3).charAt(0)) + aggregate.group(3).substring(1);
+		} else if (name.contains(".")) {
+			qualifier = name.substring(0, name.indexOf('.')).trim();
+			name = name.substring(name.indexOf('.') + 1).trim();
+		}
+		List<ColumnDescriptor> columns = new ArrayList<>();
+		for (ColumnDescriptor c : new TreeMap<>(ra.getAttOrder()).values()) {
+			if (!columns.contains(c) && (name.equalsIgnoreCase(c.getName())
+					|| c.getAlias() != null && name.equalsIgnoreCase(c.getAlias()))) {
+				columns.add(c);
+			}
+		}
+		if (columns.size() > 1 && qualifier != null) {
+			String table = qualifier;
+			columns.removeIf(c -> !table.equalsIgnoreCase(c.getTableName()));
+		}
+		if (columns.size() > 1) {
+			throw new Exception("Ambiguous ORDER BY column " + name);
+		}
+		return columns.isEmpty() ? null : columns.get(0);
+	}
+
+	/**
+	 * Last keyword. Position of the last occurrence of the keyword outside
+	 * literals and brackets.
+	 *
+	 * @param query
+	 *            the query
+	 * @param keyword
+	 *            the keyword
+	 * @return the position, -1 if the keyword is not found
+	 */
+	private int lastKeyword(String query, String keyword) {
+		String lower = query.toLowerCase();
+		int depth = 0;
+		int index = -1;
+		boolean literal = false;
+		for (int i = 0; i < lower.length(); i++) {
+			char c = lower.charAt(i);
+			if (c == '\'') {
+				literal = !literal;
+			} else if (!literal && c == '(') {
+				depth++;
+			} else if (!literal && c == ')') {
+				depth--;
+			} else if (!literal && depth == 0 && isKeyword(lower, i, keyword)) {
+				index = i;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Split query. Splits the query by a set operation keyword found outside
+	 * literals and brackets. The query is not split when it also contains
+	 * other set operations, as their precedence could not be kept, or when
+	 * the set operation keeps the duplicates.
+	 *
+	 * @param query
+	 *            the query
+	 * @param keyword
+	 *            the set operation keyword
+	 * @return the queries
+	 */
+	private List<String> splitQuery(String query, String keyword) {
+		List<String> queries = new ArrayList<>();
+		String lower = query.toLowerCase();
+		int depth = 0;
+		int start = 0;
+		boolean literal = false;
+		for (int i = 0; i < lower.length(); i++) {
+			char c = lower.charAt(i);
+			if (c == '\'') {
+				literal = !literal;
+			} else if (!literal && c == '(') {
+				depth++;
+			} else if (!literal && c == ')') {
+				depth--;
+			} else if (!literal && depth == 0 && isKeyword(lower, i, keyword)) {
+				queries.add(unwrap(query.substring(start, i)));
+				start = i + keyword.length();
+			} else if (!literal && depth == 0) {
+				for (String operation : SET_OPERATIONS) {
+					if (isKeyword(lower, i, operation)) {
+						return Collections.singletonList(query);
+					}
+				}
+			}
+		}
+		queries.add(unwrap(query.substring(start)));
+		if (queries.stream().anyMatch(q -> q.toLowerCase().matches("(?s)all\\b.*"))) {
+			return Collections.singletonList(query);
+		}
+		return queries;
+	}
+
+	/**
+	 * Checks if the keyword starts at the position as a whole word.
+	 *
+	 * @param text
+	 *            the text in lower case
+	 * @param index
+	 *            the position
+	 * @param keyword
+	 *            the keyword
+	 * @return true, if it is the keyword
+	 */
+	private boolean isKeyword(String text, int index, String keyword) {
+		int end = index + keyword.length();
+		return text.startsWith(keyword, index) && (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1)))
+				&& (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+	}
+
+	/**
+	 * Unwrap. Removes the brackets that enclose a whole query.
+	 *
+	 * @param query
+	 *            the query
+	 * @return the query
+	 */
+	private String unwrap(String query) {
+		String q = query.trim();
+		while (q.startsWith("(") && q.endsWith(")")) {
+			int depth = 0;
+			for (int i = 0; i < q.length(); i++) {
+				depth += q.charAt(i) == '(' ? 1 : q.charAt(i) == ')' ? -1 : 0;
+				if (depth == 0 && i < q.length() - 1) {
+					return q;
+				}
+			}
+			q = q.substring(1, q.length() - 1).trim();
+		}
+		return q;
+	}
+
 	/**
 	 * Parses the.
 	 *
@@ -209,17 +622,34 @@ public class DatabaseImpl implements Database {
 			}
 			break;
 		case DUPREM:
-			ra = parseOperation(schema, getSource(term));
+			raSource = parseOperation(schema, getSource(term));
+			ra = new Distinct(Utils.randomIdentifier(DISTINCT), raSource);
+			ra.setAttOrder(raSource.getAttOrder());
+			break;
+		case GROUPBY:
+			raSource = parseOperation(schema, getSource(term));
+			ra = aggregate(term, raSource);
+			break;
+		case SORTASC:
+		case SORTDESC:
+			raSource = parseOperation(schema, getSource(term));
+			// the index is 1-based over the columns of the source
+			int sortIndex = (int) Utils.getField(term.getClass(), "sortOverIndex").get(term);
+			ra = new Sort(Utils.randomIdentifier(SORT), Collections.singletonList(
+					new SortKey(raSource.getAttOrder().get(sortIndex), SORTDESC.equals(type.toLowerCase()))), raSource);
+			ra.setAttOrder(raSource.getAttOrder());
 			break;
 		case UNION:
 			bo = binaryOperation(schema, term);
 			ra = new Union(Utils.randomIdentifier(UNION), bo.getLeftSource(), bo.getRightSource());
-			ra.setAttOrder(bo.getAttOrder());
+			// set operations return the columns of the left source
+			ra.setAttOrder(bo.getLeftSource().getAttOrder());
 			break;
 		case DIFF:
 			bo = binaryOperation(schema, term);
 			ra = new Difference(Utils.randomIdentifier(DIFF), bo.getLeftSource(), bo.getRightSource());
-			ra.setAttOrder(bo.getAttOrder());
+			// set operations return the columns of the left source
+			ra.setAttOrder(bo.getLeftSource().getAttOrder());
 			break;
 		case CARTPROD:
 			bo = binaryOperation(schema, term);
@@ -266,22 +696,17 @@ public class DatabaseImpl implements Database {
 					attsOrder.put(order, s);
 					order++;
 				}
-				// join operation is a cartesian product and a select
-				raSource = new CartesianProduct(Utils.randomIdentifier(CARTPROD), bo.getLeftSource(),
-						bo.getRightSource());
-				raSource.setAttOrder(attsOrder);
-				// in this case the predicate only contains the join clause that
-				// it is an expression like this #3=#5, we replace that
-				// expression for 0
-				ra = new Select(Utils.randomIdentifier(SELECT), qualifiers, "0", raSource);
-				ra.setAttOrder(raSource.getAttOrder());
+				// hash join over the matching fields
+				ra = new Join(Utils.randomIdentifier(JOIN), bo.getLeftSource(), bo.getRightSource(), qualifiers);
+				ra.setAttOrder(attsOrder);
 			} catch (IllegalArgumentException | IllegalAccessException e) {
 				e.printStackTrace();
 			}
 
 			break;
 		case GENJOIN:
-			// Implement it as a cartesian product with a select
+			// Implement it as a cartesian product with a select, the optimizer
+			// turns it into a join when possible
 			bo = binaryOperation(schema, term);
 			checkingDuplicateAttNames(bo);
 			raSource = new CartesianProduct(Utils.randomIdentifier(CARTPROD), bo.getLeftSource(), bo.getRightSource());
@@ -304,6 +729,89 @@ public class DatabaseImpl implements Database {
 		return ra;
 	}
 
+	/**
+	 * Aggregate. The rows are the group columns followed by the aggregates in
+	 * the order of the query, the same aggregate may appear several times,
+	 * e.g. when it is also used by the having clause.
+	 *
+	 * @param term
+	 *            the term
+	 * @param raSource
+	 *            the source
+	 * @return the relational algebra
+	 * @throws Exception
+	 *             the exception
+	 */
+	private RelationalAlgebra aggregate(Term term, RelationalAlgebra raSource) throws Exception {
+		int[] groupIndexes = (int[]) Utils.getField(term.getClass(), "groupIndexes").get(term);
+		List<ColumnDescriptor> groupColumns = new ArrayList<>();
+		if (groupIndexes != null) {
+			for (int index : groupIndexes) {
+				groupColumns.add(raSource.getAttOrder().get(index));
+			}
+		}
+		Aggregate aggregate = new Aggregate(Utils.randomIdentifier(AGGREGATE), groupColumns, raSource);
+		Map<Integer, ColumnDescriptor> attsOrder = new HashMap<>();
+		int order = 1;
+		for (ColumnDescriptor c : groupColumns) {
+			attsOrder.put(order++, c);
+		}
+		for (AggregationExtenderTermRepresentation extender : getExtenders(term)) {
+			// e.g. MaxExtenderRepresentation
+			int function = AggregateFunction
+					.valueOf(extender.getClass().getSimpleName().replace("ExtenderRepresentation", ""));
+			// the indexes are declared by the superclass of every function,
+			// counts may have several columns per function
+			Object indexes = Utils.getField(extender.getClass().getSuperclass(), "indexes").get(extender);
+			List<Integer> arguments = new ArrayList<>();
+			if (indexes instanceof int[]) {
+				Arrays.stream((int[]) indexes).forEach(arguments::add);
+			} else {
+				for (int[] columns : (int[][]) indexes) {
+					if (columns.length != 1) {
+						throw new Exception("Aggregates of several columns are not supported: " + extender);
+					}
+					arguments.add(columns[0]);
+				}
+			}
+			for (int index : arguments) {
+				attsOrder.put(order++, aggregate.addFunction(function, raSource.getAttOrder().get(index)).getColumn());
+			}
+		}
+		aggregate.setAttOrder(attsOrder);
+		return aggregate;
+	}
+
+	/**
+	 * Gets the aggregates of a group by term, in the order of the query.
+	 *
+	 * @param term
+	 *            the term
+	 * @return the aggregates
+	 * @throws Exception
+	 *             the exception, if the term is not a group by
+	 */
+	private static List<AggregationExtenderTermRepresentation> getExtenders(Term term) throws Exception {
+		if (!(term instanceof AggregT)) {
+			throw new Exception("Not a group by: " + term);
+		}
+		// AggregT has no accessor for its aggregates, the field is
+		// package-private
+		Object extenders = Utils.getField(AggregT.class, "extenderTerms").get(term);
+		if (!(extenders instanceof List)) {
+			throw new Exception("Aggregates not found: " + term);
+		}
+		for (Object extender : (List<?>) extenders) {
+			if (!(extender instanceof AggregationExtenderTermRepresentation)) {
+				throw new Exception("Aggregate not supported: " + extender);
+			}
+		}
+		// every element was checked above
+		@SuppressWarnings("unchecked")
+		List<AggregationExtenderTermRepresentation> checked = (List<AggregationExtenderTermRepresentation>) extenders;
+		return checked;
+	}
+
 	/**
 	 * Binary operation.
 	 *
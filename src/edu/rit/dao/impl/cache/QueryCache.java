@@ -0,0 +1,308 @@
+package edu.rit.dao.impl.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The Class QueryCache. Keeps the artifacts of the queries already translated,
+ * such as execution plans or compiled classes, so a query issued again is not
+ * translated from scratch. The entries are kept in memory up to a maximum
+ * number, the least recently used entry is evicted first. When a directory is
+ * given the entries are also written to disk, and an entry evicted from memory
+ * or written by a previous run is read back from there. Only the classes of
+ * the artifacts and the JDK values and collections are read from disk, any
+ * other class is rejected and the file is a cache miss.
+ *
+ * @param <V> the type of the artifacts
+ */
+public class QueryCache<V extends Serializable> {
+
+	/** The Constant EXTENSION. Extension of the files of the disk tier. */
+	private static final String EXTENSION = ".cache";
+
+	/**
+	 * The Constant PACKAGES. Packages of the serializable classes read from
+	 * disk, the packages of the JDK without their subpackages.
+	 */
+	private static final List<String> PACKAGES = Arrays.asList("edu.rit.dao.**", "java.lang.*", "java.util.*",
+			"java.math.*");
+
+	/** The entries. Kept in access order, the eldest is the least recently used. */
+	private Map<String, V> entries;
+
+	/** The directory. Disk tier, null if the entries are only kept in memory. */
+	private File directory;
+
+	/**
+	 * Instantiates a new query cache kept in memory.
+	 *
+	 * @param maxSize the maximum number of entries in memory
+	 */
+	public QueryCache(int maxSize) {
+		this(maxSize, null);
+	}
+
+	/**
+	 * Instantiates a new query cache with a disk tier.
+	 *
+	 * @param maxSize the maximum number of entries in memory
+	 * @param directory the directory of the disk tier, null to keep the
+	 *            entries in memory only
+	 */
+	public QueryCache(int maxSize, File directory) {
+		this.entries = new LinkedHashMap<String, V>(16, 0.75f, true) {
+
+			/** The Constant serialVersionUID. */
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+		this.directory = directory;
+		if (directory != null) {
+			directory.mkdirs();
+		}
+	}
+
+	/**
+	 * Gets the artifact of the key, the loader creates it when it is neither
+	 * in memory nor on disk.
+	 *
+	 * @param key the key
+	 * @param loader the loader
+	 * @return the artifact
+	 * @throws Exception the exception thrown by the loader
+	 */
+	public V get(String key, Callable<V> loader) throws Exception {
+		V value = get(key);
+		if (value == null) {
+			// the lock is not held while loading, translating a query is slow
+			value = loader.call();
+			if (value != null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the artifact of the key.
+	 *
+	 * @param key the key
+	 * @return the artifact, null if it is not cached
+	 */
+	public synchronized V get(String key) {
+		V value = entries.get(key);
+		if (value == null && directory != null) {
+			value = read(key);
+			if (value != null) {
+				entries.put(key, value);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Put the artifact of the key.
+	 *
+	 * @param key the key
+	 * @param value the artifact
+	 */
+	public synchronized void put(String key, V value) {
+		entries.put(key, value);
+		if (directory != null) {
+			write(key, value);
+		}
+	}
+
+	/**
+	 * Size.
+	 *
+	 * @return the number of entries in memory
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Clear the entries in memory and on disk.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		if (directory != null) {
+			File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Normalize. Queries that only differ in white space outside the literals
+	 * or in a final semicolon have the same normalized text.
+	 *
+	 * @param query the query
+	 * @return the normalized query
+	 */
+	public static String normalize(String query) {
+		StringBuilder normalized = new StringBuilder();
+		boolean literal = false;
+		boolean space = false;
+		for (char c : query.trim().toCharArray()) {
+			if (c == '\'') {
+				literal = !literal;
+			}
+			if (!literal && Character.isWhitespace(c)) {
+				space = true;
+				continue;
+			}
+			if (space && normalized.length() > 0) {
+				normalized.append(' ');
+			}
+			space = false;
+			normalized.append(c);
+		}
+		while (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) == ';') {
+			normalized.setLength(normalized.length() - 1);
+		}
+		return normalized.toString().trim();
+	}
+
+	/**
+	 * Read the artifact of the key from disk.
+	 *
+	 * @param key the key
+	 * @return the artifact, null if it is not on disk
+	 */
+	@SuppressWarnings("unchecked")
+	private V read(String key) {
+		File file = getFile(key);
+		if (!file.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new FilteredInputStream(new FileInputStream(file))) {
+			// different keys may have the same file name
+			return key.equals(in.readObject()) ? (V) in.readObject() : null;
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			// a file written by another version or with rejected classes is
+			// a cache miss, the artifact is translated again and overwritten
+			return null;
+		}
+	}
+
+	/**
+	 * Write the artifact of the key to disk.
+	 *
+	 * @param key the key
+	 * @param value the artifact
+	 */
+	private void write(String key, V value) {
+		File file = getFile(key);
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeObject(key);
+			out.writeObject(value);
+		} catch (IOException e) {
+			// the artifact is only kept in memory
+			file.delete();
+		}
+	}
+
+	/**
+	 * Checks if a class may be read from disk: the serializable classes of the
+	 * packages read from disk. The classes that are not serializable, such as
+	 * the DTO classes the plans refer to, are allowed since they are never
+	 * instantiated.
+	 *
+	 * @param c the class, or an array of it
+	 * @return true, if the class is allowed
+	 */
+	private static boolean isAllowed(Class<?> c) {
+		while (c.isArray()) {
+			c = c.getComponentType();
+		}
+		if (c.isPrimitive() || !Serializable.class.isAssignableFrom(c)) {
+			return true;
+		}
+		String name = c.getName();
+		for (String p : PACKAGES) {
+			String prefix = p.substring(0, p.indexOf('*'));
+			if (name.startsWith(prefix) && (p.endsWith("**") || name.indexOf('.', prefix.length()) < 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The Class FilteredInputStream. Object stream that rejects the classes
+	 * that are not allowed before any of their instances is read.
+	 */
+	private static class FilteredInputStream extends ObjectInputStream {
+
+		/**
+		 * Instantiates a new filtered input stream.
+		 *
+		 * @param in the stream of the file
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		FilteredInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.ObjectInputStream#resolveClass(java.io.ObjectStreamClass)
+		 */
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			Class<?> c = super.resolveClass(desc);
+			if (!isAllowed(c)) {
+				throw new InvalidClassException(desc.getName(), "class not allowed in the query cache");
+			}
+			return c;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.ObjectInputStream#resolveProxyClass(java.lang.String[])
+		 */
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			// the artifacts have no proxies
+			throw new InvalidClassException(Arrays.toString(interfaces), "proxy not allowed in the query cache");
+		}
+	}
+
+	/**
+	 * Gets the file of the key in the disk tier.
+	 *
+	 * @param key the key
+	 * @return the file
+	 */
+	private File getFile(String key) {
+		try {
+			StringBuilder name = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8))) {
+				name.append(String.format("%02x", b));
+			}
+			return new File(directory, name.append(EXTENSION).toString());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,752 @@
+package edu.rit.dao.impl.engine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.impl.relational.Aggregate;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Difference;
+import edu.rit.dao.impl.relational.Distinct;
+import edu.rit.dao.impl.relational.Intersect;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Limit;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.RangeJoin;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.Sort;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.relational.Union;
+import edu.rit.dao.impl.store.access.AggregateFunction;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Parameter;
+import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.dao.impl.store.access.SortKey;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
+
+/**
+ * The Class PlanInterpreter. Executes an execution plan in process, without
+ * generating code. Every operation is evaluated as the stream its generated
+ * code would return: table accesses return the user DTOs, filters, sorts,
+ * limits, set operations and duplicate elimination return the rows of their
+ * source, the other operations, aggregates included, return maps keyed by the
+ * field of every column.
+ */
+public class PlanInterpreter {
+
+	/** The parameters. Values bound to the placeholders of the query by name. */
+	private Map<String, Object> parameters;
+
+	/**
+	 * Instantiates a new plan interpreter for queries without placeholders.
+	 */
+	public PlanInterpreter() {
+		this(Collections.emptyMap());
+	}
+
+	/**
+	 * Instantiates a new plan interpreter.
+	 *
+	 * @param parameters the values bound to the placeholders by name
+	 */
+	public PlanInterpreter(Map<String, Object> parameters) {
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Evaluate the plan.
+	 *
+	 * @param plan the plan
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	public Stream<Object> evaluate(RelationalAlgebra plan, Map<String, Collection<?>> tables) {
+		if (plan instanceof TableAccess) {
+			return tableAccess((TableAccess) plan, tables);
+		} else if (plan instanceof Select) {
+			return select((Select) plan, tables);
+		} else if (plan instanceof Projection) {
+			return projection((Projection) plan, tables);
+		} else if (plan instanceof Distinct) {
+			return distinct((Distinct) plan, tables);
+		} else if (plan instanceof Join) {
+			return join((Join) plan, tables);
+		} else if (plan instanceof RangeJoin) {
+			return rangeJoin((RangeJoin) plan, tables);
+		} else if (plan instanceof CartesianProduct) {
+			return cartesianProduct((CartesianProduct) plan, tables);
+		} else if (plan instanceof Union) {
+			return union((Union) plan, tables);
+		} else if (plan instanceof Difference) {
+			return difference((Difference) plan, tables);
+		} else if (plan instanceof Intersect) {
+			return intersect((Intersect) plan, tables);
+		} else if (plan instanceof Aggregate) {
+			return aggregate((Aggregate) plan, tables);
+		} else if (plan instanceof Sort) {
+			return sort((Sort) plan, tables);
+		} else if (plan instanceof Limit) {
+			return limit((Limit) plan, tables);
+		}
+		throw new UnsupportedOperationException("No interpreter for " + plan.getClass().getSimpleName());
+	}
+
+	/**
+	 * Gets the reader. Reads a column from a row produced by the operation.
+	 *
+	 * @param ra the operation
+	 * @param column the column
+	 * @return the reader
+	 */
+	public Function<Object, Object> getReader(RelationalAlgebra ra, ColumnDescriptor column) {
+		if (ra.getRowSource() != null) {
+			return getReader(ra.getRowSource(), column);
+		}
+		if (ra instanceof TableAccess) {
+			Method getter = ((TableAccess) ra).getReadMethod(column);
+			return bean -> {
+				try {
+					return getter.invoke(bean);
+				} catch (IllegalAccessException | InvocationTargetException e) {
+					throw new IllegalStateException(e);
+				}
+			};
+		}
+		String field = TupleDescriptor.getField(column);
+		return bean -> ((Map<?, ?>) bean).get(field);
+	}
+
+	/**
+	 * Gets the row as a map keyed by the field of every column.
+	 *
+	 * @param ra the operation that produced the row
+	 * @return the function that converts the rows
+	 */
+	public Function<Object, Map<String, Object>> getMapper(RelationalAlgebra ra) {
+		return getMapper(ra.getColumns(), ra, ra.getColumns());
+	}
+
+	/**
+	 * Table access.
+	 *
+	 * @param table the table access
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> tableAccess(TableAccess table, Map<String, Collection<?>> tables) {
+		Collection<?> rows = tables.get(table.getTableName());
+		if (rows == null) {
+			throw new IllegalArgumentException("No rows for table " + table.getTableName());
+		}
+		// the user DTOs are never copied
+		return rows.stream().map(Object.class::cast);
+	}
+
+	/**
+	 * Select.
+	 *
+	 * @param select the select
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> select(Select select, Map<String, Collection<?>> tables) {
+		// the predicate is compiled once, not for every row
+		Predicate<Object> filter = new PredicateCompiler(select).compile();
+		return evaluate(select.getSource(), tables).filter(filter);
+	}
+
+	/**
+	 * Projection.
+	 *
+	 * @param projection the projection
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> projection(Projection projection, Map<String, Collection<?>> tables) {
+		// only the projected columns are read from the source rows
+		return evaluate(projection.getSource(), tables)
+				.map(getMapper(projection.getColumns(), projection.getSource(), projection.getColumns()));
+	}
+
+	/**
+	 * Distinct.
+	 *
+	 * @param distinct the distinct
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> distinct(Distinct distinct, Map<String, Collection<?>> tables) {
+		Function<Object, Object> key = getKey(distinct, distinct.getColumns());
+		if (distinct.isSorted()) {
+			// duplicates are adjacent, the new object is never equal to a key
+			Object[] last = { new Object() };
+			return evaluate(distinct.getSource(), tables).filter(bean -> {
+				Object k = key.apply(bean);
+				boolean first = !Objects.equals(last[0], k);
+				last[0] = k;
+				return first;
+			});
+		}
+		Set<Object> seen = new HashSet<>();
+		return evaluate(distinct.getSource(), tables).filter(bean -> seen.add(key.apply(bean)));
+	}
+
+	/**
+	 * Join. The right source is hashed on the join columns, the left source
+	 * probes the hash table.
+	 *
+	 * @param join the join
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> join(Join join, Map<String, Collection<?>> tables) {
+		List<ColumnDescriptor> leftColumns = new ArrayList<>();
+		List<ColumnDescriptor> rightColumns = new ArrayList<>();
+		for (Qualifier q : join.getQualifiers()) {
+			leftColumns.add(q.getColumnData());
+			rightColumns.add((ColumnDescriptor) q.getParameterValue());
+		}
+		Function<Object, Object> leftKey = getKey(join.getLeftSource(), leftColumns);
+		Function<Object, Object> rightKey = getKey(join.getRightSource(), rightColumns);
+		// rows with null values in the join columns never match
+		Map<Object, List<Object>> hash = evaluate(join.getRightSource(), tables)
+				.filter(bean -> !((List<?>) rightKey.apply(bean)).contains(null))
+				.collect(Collectors.groupingBy(rightKey));
+		Combiner combiner = new Combiner(join);
+		return evaluate(join.getLeftSource(), tables).flatMap(bean1 -> hash
+				.getOrDefault(leftKey.apply(bean1), Collections.emptyList()).stream()
+				.map(bean2 -> combiner.apply(bean1, bean2)));
+	}
+
+	/**
+	 * Range join. The right source is sorted on its join column, every left
+	 * row finds the range of its matches with a binary search per bound.
+	 *
+	 * @param join the join
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> rangeJoin(RangeJoin join, Map<String, Collection<?>> tables) {
+		Function<Object, Object> key = getReader(join.getRightSource(), join.getSortedColumn());
+		List<Object> right = evaluate(join.getRightSource(), tables)
+				.sorted((bean2, other) -> compare(key.apply(bean2), key.apply(other))).collect(Collectors.toList());
+		List<Object> keys = right.stream().map(key).collect(Collectors.toList());
+		List<Function<Object, Object>> values = new ArrayList<>();
+		join.getQualifiers().forEach(q -> values.add(getReader(join.getLeftSource(), q.getColumnData())));
+		Combiner combiner = new Combiner(join);
+		return evaluate(join.getLeftSource(), tables).flatMap(bean1 -> {
+			int from = 0;
+			int to = right.size();
+			for (int i = 0; i < values.size(); i++) {
+				Qualifier q = join.getQualifiers().get(i);
+				Object value = values.get(i).apply(bean1);
+				// first key not before the value, or after it
+				int lo = 0;
+				int hi = keys.size();
+				while (lo < hi) {
+					int mid = (lo + hi) >>> 1;
+					int comparison = compare(keys.get(mid), value);
+					if (comparison < 0 || (comparison == 0 && RangeJoin.isAfterEquals(q))) {
+						lo = mid + 1;
+					} else {
+						hi = mid;
+					}
+				}
+				if (RangeJoin.isLowerBound(q)) {
+					from = Math.max(from, lo);
+				} else {
+					to = Math.min(to, lo);
+				}
+			}
+			return from < to ? right.subList(from, to).stream().map(bean2 -> combiner.apply(bean1, bean2))
+					: Stream.empty();
+		});
+	}
+
+	/**
+	 * Cartesian product.
+	 *
+	 * @param product the product
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> cartesianProduct(CartesianProduct product, Map<String, Collection<?>> tables) {
+		List<Object> right = evaluate(product.getRightSource(), tables).collect(Collectors.toList());
+		Combiner combiner = new Combiner(product);
+		return evaluate(product.getLeftSource(), tables)
+				.flatMap(bean1 -> right.stream().map(bean2 -> combiner.apply(bean1, bean2)));
+	}
+
+	/**
+	 * Union. The right rows are mapped to the columns of the left source by
+	 * position.
+	 *
+	 * @param union the union
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> union(Union union, Map<String, Collection<?>> tables) {
+		RelationalAlgebra left = union.getLeftSource();
+		RelationalAlgebra right = union.getRightSource();
+		return Stream.concat(evaluate(left, tables).map(getMapper(left)),
+				evaluate(right, tables).map(getMapper(left.getColumns(), right, right.getColumns())));
+	}
+
+	/**
+	 * Difference. Hash anti join on all the columns.
+	 *
+	 * @param difference the difference
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> difference(Difference difference, Map<String, Collection<?>> tables) {
+		Set<Object> hash = getRightKeys(difference, tables);
+		Function<Object, Object> key = getKey(difference.getLeftSource(), difference.getLeftSource().getColumns());
+		return evaluate(difference.getLeftSource(), tables).filter(bean -> !hash.contains(key.apply(bean)));
+	}
+
+	/**
+	 * Intersect. Hash semi join on all the columns, every row is returned once.
+	 *
+	 * @param intersect the intersect
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> intersect(Intersect intersect, Map<String, Collection<?>> tables) {
+		Set<Object> hash = getRightKeys(intersect, tables);
+		Function<Object, Object> key = getKey(intersect.getLeftSource(), intersect.getLeftSource().getColumns());
+		Set<Object> seen = new HashSet<>();
+		return evaluate(intersect.getLeftSource(), tables).filter(bean -> {
+			Object k = key.apply(bean);
+			return hash.contains(k) && seen.add(k);
+		});
+	}
+
+	/**
+	 * Aggregate. The rows of the source are grouped by the values of the group
+	 * columns, without them there is a single group even if the source is
+	 * empty. The aggregates ignore the null values.
+	 *
+	 * @param aggregate the aggregate
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> aggregate(Aggregate aggregate, Map<String, Collection<?>> tables) {
+		Function<Object, Object> key = getKey(aggregate.getSource(), aggregate.getGroupColumns());
+		Map<Object, List<Object>> groups = new LinkedHashMap<>();
+		if (aggregate.getGroupColumns().isEmpty()) {
+			groups.put(Collections.emptyList(), new ArrayList<>());
+		}
+		evaluate(aggregate.getSource(), tables)
+				.forEach(bean -> groups.computeIfAbsent(key.apply(bean), k -> new ArrayList<>()).add(bean));
+		List<Function<Object, Object>> readers = new ArrayList<>();
+		aggregate.getFunctions().forEach(f -> readers.add(getReader(aggregate.getSource(), f.getArgument())));
+		return groups.entrySet().stream().map(group -> {
+			Map<String, Object> row = new HashMap<>();
+			List<?> values = (List<?>) group.getKey();
+			for (int i = 0; i < values.size(); i++) {
+				row.put(TupleDescriptor.getField(aggregate.getGroupColumns().get(i)), values.get(i));
+			}
+			for (int i = 0; i < readers.size(); i++) {
+				List<Object> arguments = group.getValue().stream().map(readers.get(i)).filter(Objects::nonNull)
+						.collect(Collectors.toList());
+				AggregateFunction f = aggregate.getFunctions().get(i);
+				row.put(f.getColumn().getName(), compute(f, arguments));
+			}
+			return row;
+		});
+	}
+
+	/**
+	 * Sort. Nulls are lower than any value, with a limit the top rows are
+	 * kept in a bounded heap.
+	 *
+	 * @param sort the sort
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> sort(Sort sort, Map<String, Collection<?>> tables) {
+		Comparator<Object> order = null;
+		for (SortKey k : sort.getKeys()) {
+			Function<Object, Object> value = getReader(sort.getSource(), k.getColumn());
+			Comparator<Object> key = (bean1, bean2) -> compare(value.apply(bean1), value.apply(bean2));
+			key = k.isDescending() ? key.reversed() : key;
+			order = order == null ? key : order.thenComparing(key);
+		}
+		Comparator<Object> comparator = order;
+		Stream<Object> rows = evaluate(sort.getSource(), tables);
+		if (sort.getLimit() == Sort.NO_LIMIT) {
+			return rows.sorted(comparator);
+		}
+		PriorityQueue<Object> heap = new PriorityQueue<>(comparator.reversed());
+		rows.forEach(bean -> {
+			heap.offer(bean);
+			if (heap.size() > sort.getLimit()) {
+				heap.poll();
+			}
+		});
+		return heap.stream().sorted(comparator);
+	}
+
+	/**
+	 * Limit.
+	 *
+	 * @param limit the limit
+	 * @param tables the rows of every table
+	 * @return the stream of rows
+	 */
+	private Stream<Object> limit(Limit limit, Map<String, Collection<?>> tables) {
+		Stream<Object> rows = evaluate(limit.getSource(), tables).skip(limit.getOffset());
+		return limit.getLimit() == Sort.NO_LIMIT ? rows : rows.limit(limit.getLimit());
+	}
+
+	/**
+	 * Compute an aggregate function, only counts are never null.
+	 *
+	 * @param f the function
+	 * @param values the values that are not null
+	 * @return the value
+	 */
+	private static Object compute(AggregateFunction f, List<Object> values) {
+		if (f.getFunction() == AggregateFunction.COUNT) {
+			return (long) values.size();
+		} else if (f.getFunction() == AggregateFunction.COUNT_DISTINCT) {
+			return (long) new HashSet<>(values).size();
+		} else if (values.isEmpty()) {
+			return null;
+		}
+		switch (f.getFunction()) {
+		case AggregateFunction.SUM:
+			if (f.getColumn().getJavaType() == Long.class) {
+				return values.stream().mapToLong(v -> ((Number) v).longValue()).sum();
+			}
+			return values.stream().mapToDouble(v -> ((Number) v).doubleValue()).sum();
+		case AggregateFunction.AVG:
+			return values.stream().mapToDouble(v -> ((Number) v).doubleValue()).average().getAsDouble();
+		case AggregateFunction.MIN:
+			return values.stream().min(PlanInterpreter::compare).get();
+		default:
+			return values.stream().max(PlanInterpreter::compare).get();
+		}
+	}
+
+	/**
+	 * Gets the keys of the rows of the right source of a set operation.
+	 *
+	 * @param bo the set operation
+	 * @param tables the rows of every table
+	 * @return the keys
+	 */
+	private Set<Object> getRightKeys(BinaryOperation bo, Map<String, Collection<?>> tables) {
+		Function<Object, Object> key = getKey(bo.getRightSource(), bo.getRightSource().getColumns());
+		return evaluate(bo.getRightSource(), tables).map(key).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Gets the key. The values of the columns of a row as a list, rows with
+	 * the same values have equal keys.
+	 *
+	 * @param ra the operation that produced the row
+	 * @param columns the columns
+	 * @return the function that builds the key
+	 */
+	private Function<Object, Object> getKey(RelationalAlgebra ra, List<ColumnDescriptor> columns) {
+		List<Function<Object, Object>> readers = new ArrayList<>();
+		columns.forEach(c -> readers.add(getReader(ra, c)));
+		return bean -> {
+			Object[] values = new Object[readers.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = readers.get(i).apply(bean);
+			}
+			return Arrays.asList(values);
+		};
+	}
+
+	/**
+	 * Gets the mapper. Builds a map keyed by the field of every column from a
+	 * row of the source operation, the columns are read from the row by
+	 * position.
+	 *
+	 * @param columns the columns of the map
+	 * @param source the operation that produced the row
+	 * @param sourceColumns the columns read from the row
+	 * @return the function that converts the rows
+	 */
+	private Function<Object, Map<String, Object>> getMapper(List<ColumnDescriptor> columns,
+			RelationalAlgebra source, List<ColumnDescriptor> sourceColumns) {
+		List<String> fields = new ArrayList<>();
+		List<Function<Object, Object>> readers = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			fields.add(TupleDescriptor.getField(columns.get(i)));
+			readers.add(getReader(source, sourceColumns.get(i)));
+		}
+		return bean -> {
+			Map<String, Object> row = new HashMap<>();
+			for (int i = 0; i < fields.size(); i++) {
+				row.put(fields.get(i), readers.get(i).apply(bean));
+			}
+			return row;
+		};
+	}
+
+	/**
+	 * The Class Combiner. Builds the rows of a join or a cartesian product
+	 * with the values of a row of each source.
+	 */
+	private class Combiner {
+
+		/** The fields. */
+		private List<String> fields = new ArrayList<>();
+
+		/** The left. Whether every column is read from the left row. */
+		private List<Boolean> left = new ArrayList<>();
+
+		/** The readers. */
+		private List<Function<Object, Object>> readers = new ArrayList<>();
+
+		/**
+		 * Instantiates a new combiner.
+		 *
+		 * @param bo the join or product
+		 */
+		Combiner(BinaryOperation bo) {
+			for (ColumnDescriptor c : bo.getAttOrder().values()) {
+				boolean fromLeft = bo.getLeftSource().getAttOrder().containsValue(c);
+				fields.add(TupleDescriptor.getField(c));
+				left.add(fromLeft);
+				readers.add(getReader(fromLeft ? bo.getLeftSource() : bo.getRightSource(), c));
+			}
+		}
+
+		/**
+		 * Apply.
+		 *
+		 * @param bean1 the left row
+		 * @param bean2 the right row
+		 * @return the new row
+		 */
+		Object apply(Object bean1, Object bean2) {
+			Map<String, Object> row = new HashMap<>();
+			for (int i = 0; i < fields.size(); i++) {
+				row.put(fields.get(i), readers.get(i).apply(left.get(i) ? bean1 : bean2));
+			}
+			return row;
+		}
+	}
+
+	/**
+	 * The Class PredicateCompiler. Turns the predicate of a select, the
+	 * indexes of its qualifiers combined with &amp;&amp;, || and !, into a
+	 * java predicate.
+	 */
+	private class PredicateCompiler {
+
+		/** The select. */
+		private Select select;
+
+		/** The predicate. */
+		private String predicate;
+
+		/** The position. */
+		private int position;
+
+		/**
+		 * Instantiates a new predicate compiler.
+		 *
+		 * @param select the select
+		 */
+		PredicateCompiler(Select select) {
+			this.select = select;
+			this.predicate = select.getPredicate().replaceAll("\\s", "");
+		}
+
+		/**
+		 * Compile.
+		 *
+		 * @return the predicate
+		 */
+		Predicate<Object> compile() {
+			Predicate<Object> p = or();
+			if (position < predicate.length()) {
+				throw new IllegalArgumentException("Unexpected predicate " + select.getPredicate());
+			}
+			return p;
+		}
+
+		/**
+		 * Or.
+		 *
+		 * @return the predicate
+		 */
+		private Predicate<Object> or() {
+			Predicate<Object> p = and();
+			while (predicate.startsWith("||", position)) {
+				position += 2;
+				p = p.or(and());
+			}
+			return p;
+		}
+
+		/**
+		 * And.
+		 *
+		 * @return the predicate
+		 */
+		private Predicate<Object> and() {
+			Predicate<Object> p = not();
+			while (predicate.startsWith("&&", position)) {
+				position += 2;
+				p = p.and(not());
+			}
+			return p;
+		}
+
+		/**
+		 * Not.
+		 *
+		 * @return the predicate
+		 */
+		private Predicate<Object> not() {
+			if (predicate.startsWith("!", position)) {
+				position++;
+				return not().negate();
+			}
+			if (predicate.startsWith("(", position)) {
+				position++;
+				Predicate<Object> p = or();
+				position++;
+				return p;
+			}
+			int start = position;
+			while (position < predicate.length() && Character.isDigit(predicate.charAt(position))) {
+				position++;
+			}
+			if (start == position) {
+				throw new IllegalArgumentException("Unexpected predicate " + select.getPredicate());
+			}
+			return getClause(select.getQualifiers().get(Integer.parseInt(predicate.substring(start, position))));
+		}
+
+		/**
+		 * Gets the clause. Evaluates the qualifier as its generated code does,
+		 * nulls are lower than any value.
+		 *
+		 * @param q the qualifier
+		 * @return the predicate
+		 */
+		private Predicate<Object> getClause(Qualifier q) {
+			Function<Object, Object> value = getReader(select.getSource(), q.getColumnData());
+			int operator = q.getOperator();
+			if (q.getParameterValue() == null) {
+				// comparing whether the attribute is null
+				return bean -> (value.apply(bean) == null) == (operator == Operator.EQUALS);
+			}
+			Function<Object, Object> parameter;
+			if (q.getParameterValue() instanceof ColumnDescriptor) {
+				// comparing two attributes
+				parameter = getReader(select.getSource(), (ColumnDescriptor) q.getParameterValue());
+			} else if (q.getParameterValue() instanceof Parameter) {
+				// comparing attribute against a bound value
+				String name = ((Parameter) q.getParameterValue()).getName();
+				if (!parameters.containsKey(name)) {
+					throw new IllegalArgumentException("No value bound to the placeholder :" + name);
+				}
+				Object bound = parameters.get(name);
+				parameter = bean -> bound;
+			} else {
+				// comparing attribute against a value
+				Object literal = getLiteral(q.getParameterValue().toString());
+				parameter = bean -> literal;
+			}
+			return bean -> matches(compare(value.apply(bean), parameter.apply(bean)), operator);
+		}
+	}
+
+	/**
+	 * Gets the literal. The value of a java literal of the predicate.
+	 *
+	 * @param text the text of the literal
+	 * @return the value
+	 */
+	private static Object getLiteral(String text) {
+		String literal = text.trim();
+		if (literal.length() > 1 && literal.startsWith("\"") && literal.endsWith("\"")) {
+			return literal.substring(1, literal.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+		}
+		if (literal.equals("true") || literal.equals("false")) {
+			return Boolean.valueOf(literal);
+		}
+		try {
+			if (literal.matches("-?\\d+")) {
+				long value = Long.parseLong(literal);
+				return value == (int) value ? Integer.valueOf((int) value) : Long.valueOf(value);
+			}
+			return Double.valueOf(literal);
+		} catch (NumberFormatException e) {
+			return literal;
+		}
+	}
+
+	/**
+	 * Compare. Numbers of different classes are compared by value.
+	 *
+	 * @param value the value
+	 * @param parameter the parameter
+	 * @return the result of the comparison
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compare(Object value, Object parameter) {
+		if (value instanceof Number && parameter instanceof Number && value.getClass() != parameter.getClass()) {
+			return new BigDecimal(value.toString()).compareTo(new BigDecimal(parameter.toString()));
+		}
+		return ObjectUtils.compare((Comparable) value, (Comparable) parameter);
+	}
+
+	/**
+	 * Matches.
+	 *
+	 * @param comparison the result of the comparison
+	 * @param operator the operator
+	 * @return true, if the comparison satisfies the operator
+	 */
+	private static boolean matches(int comparison, int operator) {
+		switch (operator) {
+		case Operator.EQUALS:
+			return comparison == 0;
+		case Operator.DISTINCT:
+			return comparison != 0;
+		case Operator.GRE:
+			return comparison > 0;
+		case Operator.GREQ:
+			return comparison >= 0;
+		case Operator.LESS:
+			return comparison < 0;
+		case Operator.LEQ:
+			return comparison <= 0;
+		default:
+			return false;
+		}
+	}
+}
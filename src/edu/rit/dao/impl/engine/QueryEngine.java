@@ -0,0 +1,289 @@
+package edu.rit.dao.impl.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import adipe.translate.ra.Schema;
+import edu.rit.dao.iapi.Database;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.cache.QueryCache;
+import edu.rit.dao.impl.optimizer.Optimizer;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.statistics.StatisticsCollector;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.dao.impl.store.access.UserDTO;
+import edu.rit.dao.impl.stream.Translator;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class QueryEngine. Runs SQL queries over collections of user DTOs at
+ * runtime: the execution plan of the query is optimized and interpreted
+ * directly, no code is generated or compiled. The tables are the collections
+ * by name, the DTO class of a table is given by name or, when it is not
+ * given, is the class of its first element.
+ */
+public class QueryEngine {
+
+	/** The Constant DEFAULT_CACHE_SIZE. Execution plans kept in memory. */
+	private static final int DEFAULT_CACHE_SIZE = 100;
+
+	/** The db. */
+	private Database db = new DatabaseImpl();
+
+	/** The plans. Optimized execution plans by query and tables. */
+	private QueryCache<RelationalAlgebra> plans;
+
+	/** The statistics. Statistics of the tables, the joins are ordered with them. */
+	private StatisticsCollector statistics = new StatisticsCollector();
+
+	/**
+	 * Instantiates a new query engine, the plans of the last queries are kept
+	 * in memory.
+	 */
+	public QueryEngine() {
+		this(new QueryCache<>(DEFAULT_CACHE_SIZE));
+	}
+
+	/**
+	 * Instantiates a new query engine.
+	 *
+	 * @param plans the cache of the execution plans
+	 */
+	public QueryEngine(QueryCache<RelationalAlgebra> plans) {
+		this.plans = plans;
+	}
+
+	/**
+	 * Execute the query.
+	 *
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @return the rows of the result as maps keyed by column name or alias
+	 * @throws Exception the exception
+	 */
+	public List<Map<String, Object>> execute(String sql, Map<String, Collection<?>> tables) throws Exception {
+		return execute(sql, tables, Collections.emptyMap());
+	}
+
+	/**
+	 * Execute the prepared query. The plan of the query is shared by all the
+	 * values of its placeholders.
+	 *
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param parameters the values of the placeholders by name, param1,
+	 *            param2... for the positional ones
+	 * @return the rows of the result as maps keyed by column name or alias
+	 * @throws Exception the exception
+	 */
+	public List<Map<String, Object>> execute(String sql, Map<String, Collection<?>> tables,
+			Map<String, Object> parameters) throws Exception {
+		return execute(sql, tables, Collections.emptyMap(), parameters);
+	}
+
+	/**
+	 * Execute the prepared query over tables that may be empty.
+	 *
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param dtoClasses the DTO class of every table, the class of its first
+	 *            element for the tables not given
+	 * @param parameters the values of the placeholders by name, param1,
+	 *            param2... for the positional ones
+	 * @return the rows of the result as maps keyed by column name or alias
+	 * @throws Exception the exception
+	 */
+	public List<Map<String, Object>> execute(String sql, Map<String, Collection<?>> tables,
+			Map<String, Class<?>> dtoClasses, Map<String, Object> parameters) throws Exception {
+		RelationalAlgebra plan = getExecutionPlan(sql, tables, dtoClasses);
+		PlanInterpreter interpreter = new PlanInterpreter(parameters);
+		return interpreter.evaluate(plan, tables).map(interpreter.getMapper(plan)).collect(Collectors.toList());
+	}
+
+	/**
+	 * Execute the query.
+	 *
+	 * @param <T> the generic type
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param returnType the class of the user DTOs returned, its properties are
+	 *            set by column name or alias
+	 * @return the rows of the result
+	 * @throws Exception the exception
+	 */
+	public <T> List<T> execute(String sql, Map<String, Collection<?>> tables, Class<T> returnType)
+			throws Exception {
+		return execute(sql, tables, Collections.emptyMap(), returnType);
+	}
+
+	/**
+	 * Execute the prepared query.
+	 *
+	 * @param <T> the generic type
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param parameters the values of the placeholders by name, param1,
+	 *            param2... for the positional ones
+	 * @param returnType the class of the user DTOs returned, its properties are
+	 *            set by column name or alias
+	 * @return the rows of the result
+	 * @throws Exception the exception
+	 */
+	public <T> List<T> execute(String sql, Map<String, Collection<?>> tables, Map<String, Object> parameters,
+			Class<T> returnType) throws Exception {
+		return execute(sql, tables, Collections.emptyMap(), parameters, returnType);
+	}
+
+	/**
+	 * Execute the prepared query over tables that may be empty.
+	 *
+	 * @param <T> the generic type
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param dtoClasses the DTO class of every table, the class of its first
+	 *            element for the tables not given
+	 * @param parameters the values of the placeholders by name, param1,
+	 *            param2... for the positional ones
+	 * @param returnType the class of the user DTOs returned, its properties are
+	 *            set by column name or alias
+	 * @return the rows of the result
+	 * @throws Exception the exception
+	 */
+	public <T> List<T> execute(String sql, Map<String, Collection<?>> tables, Map<String, Class<?>> dtoClasses,
+			Map<String, Object> parameters, Class<T> returnType) throws Exception {
+		RelationalAlgebra plan = getExecutionPlan(sql, tables, dtoClasses);
+		PlanInterpreter interpreter = new PlanInterpreter(parameters);
+		if (plan.isUserDTORows() && plan.getRowType().equals(returnType.getCanonicalName())) {
+			// the rows already are the user DTOs requested
+			return interpreter.evaluate(plan, tables).map(returnType::cast).collect(Collectors.toList());
+		}
+		Function<Map<String, Object>, T> toUserDTO = Utils.mapToObject(returnType);
+		return interpreter.evaluate(plan, tables).map(interpreter.getMapper(plan)).map(toUserDTO)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the statistics.
+	 *
+	 * @return the statistics of the tables the joins are ordered with
+	 */
+	public StatisticsCollector getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Gets the execution plan. The schema is built with the DTO class of every
+	 * table, as the translator does with the parameters of a method. The
+	 * plans are cached by normalized query, DTO classes, schema and order of
+	 * magnitude of the size of every table, they are never modified when they
+	 * are interpreted. The joins are ordered with the statistics of the
+	 * tables, read only when the plan is not cached.
+	 *
+	 * @param sql the query
+	 * @param tables the rows of every table
+	 * @param dtoClasses the DTO class of every table, the class of its first
+	 *            element for the tables not given
+	 * @return the optimized plan
+	 * @throws Exception the exception
+	 */
+	private RelationalAlgebra getExecutionPlan(String sql, Map<String, Collection<?>> tables,
+			Map<String, Class<?>> dtoClasses) throws Exception {
+		List<UserDTO> params = new ArrayList<>();
+		for (Map.Entry<String, Collection<?>> table : new TreeMap<>(tables).entrySet()) {
+			Object first = table.getValue().isEmpty() ? null : table.getValue().iterator().next();
+			Class<?> dtoClass = dtoClasses.get(table.getKey());
+			if (dtoClass == null && first == null) {
+				throw new IllegalArgumentException("The DTO class of the empty table " + table.getKey()
+						+ " is unknown, give the DTO classes of the tables");
+			}
+			if (dtoClass == null) {
+				dtoClass = first.getClass();
+			}
+			Object dto;
+			try {
+				// the schema is described by a DTO with default values
+				dto = dtoClass.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				if (first == null) {
+					throw new IllegalArgumentException("The DTO class " + dtoClass.getName() + " of the table "
+							+ table.getKey() + " has no default constructor", e);
+				}
+				dto = first;
+			}
+			params.add(new UserDTO(table.getKey(), dto));
+		}
+		Map<String, Map<String, String>> schemaDescriptor = Utils.schemaDescriptor(params);
+		StringBuilder key = new StringBuilder(QueryCache.normalize(sql));
+		for (UserDTO param : params) {
+			key.append("\n").append(param.getName()).append(" ").append(param.getDto().getClass().getName())
+					.append(new TreeMap<>(schemaDescriptor.get(param.getName())));
+			// the plan is reordered when a table grows or shrinks by a power of two
+			key.append(" ").append(64 - Long.numberOfLeadingZeros(tables.get(param.getName()).size()));
+		}
+		return plans.get(key.toString(), () -> {
+			Schema schema = db.createSchema(schemaDescriptor);
+			RelationalAlgebra plan = db.getExecutionPlan(sql, schema);
+			if (plan == null) {
+				throw new IllegalArgumentException("Error translating query :" + sql);
+			}
+			// only the columns of the joins and the selections are estimated
+			Map<String, Set<String>> columns = new HashMap<>();
+			collectColumns(plan, columns);
+			plan = new Optimizer(false,
+					name -> tables.containsKey(name)
+							? statistics.get(tables.get(name), columns.getOrDefault(name, Collections.emptySet()))
+							: null).optimize(plan);
+			Translator.assignTables(plan, params);
+			return plan;
+		});
+	}
+
+	/**
+	 * Collect the columns compared by the selections and the joins of a plan.
+	 *
+	 * @param plan the plan
+	 * @param columns the property names of the columns found by table name
+	 */
+	private static void collectColumns(RelationalAlgebra plan, Map<String, Set<String>> columns) {
+		List<Qualifier> qualifiers = plan instanceof Select ? ((Select) plan).getQualifiers()
+				: plan instanceof Join ? ((Join) plan).getQualifiers() : Collections.emptyList();
+		for (Qualifier q : qualifiers) {
+			addColumn(q.getColumnData(), columns);
+			if (q.getParameterValue() instanceof ColumnDescriptor) {
+				addColumn((ColumnDescriptor) q.getParameterValue(), columns);
+			}
+		}
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			collectColumns(((UnaryOperation) plan).getSource(), columns);
+		} else if (plan instanceof BinaryOperation) {
+			collectColumns(((BinaryOperation) plan).getLeftSource(), columns);
+			collectColumns(((BinaryOperation) plan).getRightSource(), columns);
+		}
+	}
+
+	/**
+	 * Adds a column to the columns of its table.
+	 *
+	 * @param column the column
+	 * @param columns the property names of the columns by table name
+	 */
+	private static void addColumn(ColumnDescriptor column, Map<String, Set<String>> columns) {
+		if (column != null && column.getTableName() != null) {
+			columns.computeIfAbsent(column.getTableName(), t -> new HashSet<>()).add(column.getName());
+		}
+	}
+}
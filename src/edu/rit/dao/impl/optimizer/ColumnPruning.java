@@ -0,0 +1,127 @@
+package edu.rit.dao.impl.optimizer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.relational.Aggregate;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Limit;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.RangeJoin;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.Sort;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Qualifier;
+
+/**
+ * The Class ColumnPruning. Computes from the top of the plan the columns
+ * required by every operation and removes the others, so the rows built by
+ * joins, products and projections only carry the columns read later.
+ * Distinct and the set operations compare whole rows, all the columns of
+ * their sources are required. Aggregates only read their group columns and
+ * arguments.
+ */
+public class ColumnPruning implements Rule {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		// the result keeps all its columns
+		prune(plan, plan.getColumns());
+		return plan;
+	}
+
+	/**
+	 * Prune the columns of the operation and its sources.
+	 *
+	 * @param ra the operation
+	 * @param required the columns required by the operations above
+	 */
+	private void prune(RelationalAlgebra ra, Collection<ColumnDescriptor> required) {
+		Set<ColumnDescriptor> needed = new HashSet<>(required);
+		if (ra instanceof Join || ra instanceof RangeJoin || ra instanceof CartesianProduct) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			List<Qualifier> qualifiers = ra instanceof Join ? ((Join) ra).getQualifiers()
+					: ra instanceof RangeJoin ? ((RangeJoin) ra).getQualifiers() : Collections.emptyList();
+			// the join columns are read from both sources
+			for (Qualifier q : qualifiers) {
+				needed.add(q.getColumnData());
+				needed.add((ColumnDescriptor) q.getParameterValue());
+			}
+			prune(bo.getLeftSource(), needed);
+			prune(bo.getRightSource(), needed);
+			ra.setAttOrder(narrow(ra.getAttOrder(), required));
+		} else if (ra instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			prune(bo.getLeftSource(), bo.getLeftSource().getColumns());
+			prune(bo.getRightSource(), bo.getRightSource().getColumns());
+		} else if (ra instanceof Select) {
+			// the columns of the predicate are read from the source
+			for (Qualifier q : ((Select) ra).getQualifiers()) {
+				needed.add(q.getColumnData());
+				if (q.getParameterValue() instanceof ColumnDescriptor) {
+					needed.add((ColumnDescriptor) q.getParameterValue());
+				}
+			}
+			prune(((Select) ra).getSource(), needed);
+			ra.setAttOrder(((Select) ra).getSource().getAttOrder());
+		} else if (ra instanceof Limit) {
+			// the rows are returned as they are
+			prune(((Limit) ra).getSource(), needed);
+			ra.setAttOrder(((Limit) ra).getSource().getAttOrder());
+		} else if (ra instanceof Sort) {
+			// the keys are read from the source
+			((Sort) ra).getKeys().forEach(k -> needed.add(k.getColumn()));
+			prune(((Sort) ra).getSource(), needed);
+			ra.setAttOrder(((Sort) ra).getSource().getAttOrder());
+		} else if (ra instanceof Projection) {
+			ra.setAttOrder(narrow(ra.getAttOrder(), required));
+			prune(((Projection) ra).getSource(), ra.getColumns());
+		} else if (ra instanceof Aggregate) {
+			// the group columns and the arguments are read from the source,
+			// every aggregate is computed
+			Aggregate aggregate = (Aggregate) ra;
+			Set<ColumnDescriptor> read = new HashSet<>(aggregate.getGroupColumns());
+			aggregate.getFunctions().forEach(f -> read.add(f.getArgument()));
+			prune(aggregate.getSource(), read);
+		} else if (ra instanceof TableAccess) {
+			ra.setAttOrder(narrow(ra.getAttOrder(), required));
+		} else if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) ra;
+			prune(uo.getSource(), uo.getSource().getColumns());
+		}
+	}
+
+	/**
+	 * Narrow. Returns a new map with the required columns only, the original
+	 * map may be shared with other operations.
+	 *
+	 * @param attOrder the att order
+	 * @param required the required columns
+	 * @return the new att order
+	 */
+	private Map<Integer, ColumnDescriptor> narrow(Map<Integer, ColumnDescriptor> attOrder,
+			Collection<ColumnDescriptor> required) {
+		Map<Integer, ColumnDescriptor> narrowed = new HashMap<>();
+		attOrder.forEach((k, v) -> {
+			if (required.contains(v)) {
+				narrowed.put(k, v);
+			}
+		});
+		return narrowed;
+	}
+}
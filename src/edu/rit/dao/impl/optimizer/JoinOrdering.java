@@ -0,0 +1,419 @@
+package edu.rit.dao.impl.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Difference;
+import edu.rit.dao.impl.relational.Intersect;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.RangeJoin;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.relational.Union;
+import edu.rit.dao.impl.statistics.ColumnStatistics;
+import edu.rit.dao.impl.statistics.TableStatistics;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Parameter;
+import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class JoinOrdering. Reorders the hash joins of the plan with the
+ * statistics of the tables. The inputs of consecutive joins and cartesian
+ * products are joined greedily, first the two connected inputs with the
+ * smallest estimated result and then, one at a time, the connected input that
+ * keeps the intermediate result smallest; the inputs no condition connects are
+ * joined last by cartesian products. The smaller input of every join is its
+ * right source, the one that is hashed. The joins are kept as they are when
+ * the statistics of a table are unknown.
+ */
+public class JoinOrdering implements Rule {
+
+	/** The Constant DEFAULT_SELECTIVITY. Fraction of rows kept by an unknown condition. */
+	private static final double DEFAULT_SELECTIVITY = 0.5;
+
+	/** The Constant EQUALITY_SELECTIVITY. Fraction of rows kept by an equality without statistics. */
+	private static final double EQUALITY_SELECTIVITY = 0.1;
+
+	/** The Constant RANGE_SELECTIVITY. Fraction of rows kept by an inequality without statistics. */
+	private static final double RANGE_SELECTIVITY = 1.0 / 3;
+
+	/** The statistics. Statistics of a table by name, null if unknown. */
+	private Function<String, TableStatistics> statistics;
+
+	/**
+	 * Instantiates a new join ordering.
+	 *
+	 * @param statistics the statistics of a table by name, null if unknown
+	 */
+	public JoinOrdering(Function<String, TableStatistics> statistics) {
+		this.statistics = statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		if (plan instanceof Join) {
+			return order((Join) plan);
+		}
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) plan;
+			uo.setSource(apply(uo.getSource()));
+		} else if (plan instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) plan;
+			bo.setLeftSource(apply(bo.getLeftSource()));
+			bo.setRightSource(apply(bo.getRightSource()));
+		}
+		return plan;
+	}
+
+	/**
+	 * Order the consecutive joins and cartesian products under a join.
+	 *
+	 * @param join the topmost join
+	 * @return the reordered joins, the same join if the statistics of an input
+	 *         are unknown
+	 */
+	private RelationalAlgebra order(Join join) {
+		List<RelationalAlgebra> inputs = new ArrayList<>();
+		List<Qualifier> qualifiers = new ArrayList<>();
+		collect(join, inputs, qualifiers);
+		Map<RelationalAlgebra, Double> rows = new HashMap<>();
+		for (RelationalAlgebra input : inputs) {
+			double estimate = estimate(input);
+			if (Double.isNaN(estimate)) {
+				return join;
+			}
+			rows.put(input, estimate);
+		}
+		// the first join: the pair with the smallest result
+		RelationalAlgebra first = null;
+		RelationalAlgebra second = null;
+		double best = Double.POSITIVE_INFINITY;
+		boolean connected = false;
+		for (int i = 0; i < inputs.size(); i++) {
+			for (int j = i + 1; j < inputs.size(); j++) {
+				boolean joined = isConnected(inputs.get(i), inputs.get(j), qualifiers);
+				double estimate = estimateJoin(inputs.get(i), inputs.get(j), rows, qualifiers);
+				// the cartesian products go last
+				if (joined && !connected || joined == connected && estimate < best) {
+					best = estimate;
+					connected = joined;
+					first = inputs.get(i);
+					second = inputs.get(j);
+				}
+			}
+		}
+		inputs.remove(first);
+		inputs.remove(second);
+		RelationalAlgebra ordered = join(first, second, rows, qualifiers);
+		rows.put(ordered, best);
+		while (!inputs.isEmpty()) {
+			// the next input: the one with the smallest result
+			RelationalAlgebra next = null;
+			best = Double.POSITIVE_INFINITY;
+			connected = false;
+			for (RelationalAlgebra input : inputs) {
+				boolean joined = isConnected(ordered, input, qualifiers);
+				double estimate = estimateJoin(ordered, input, rows, qualifiers);
+				if (joined && !connected || joined == connected && estimate < best) {
+					best = estimate;
+					connected = joined;
+					next = input;
+				}
+			}
+			inputs.remove(next);
+			ordered = join(ordered, next, rows, qualifiers);
+			rows.put(ordered, best);
+		}
+		// the operations above read the columns of the original join
+		ordered.setAttOrder(join.getAttOrder());
+		return ordered;
+	}
+
+	/**
+	 * Collect the inputs and the qualifiers of the consecutive joins and
+	 * cartesian products, the inputs are optimized in place.
+	 *
+	 * @param bo the join or cartesian product
+	 * @param inputs the inputs found
+	 * @param qualifiers the qualifiers found
+	 */
+	private void collect(BinaryOperation bo, List<RelationalAlgebra> inputs, List<Qualifier> qualifiers) {
+		if (bo instanceof Join) {
+			qualifiers.addAll(((Join) bo).getQualifiers());
+		}
+		if (bo.getLeftSource() instanceof Join || bo.getLeftSource() instanceof CartesianProduct) {
+			collect((BinaryOperation) bo.getLeftSource(), inputs, qualifiers);
+		} else {
+			bo.setLeftSource(apply(bo.getLeftSource()));
+			inputs.add(bo.getLeftSource());
+		}
+		if (bo.getRightSource() instanceof Join || bo.getRightSource() instanceof CartesianProduct) {
+			collect((BinaryOperation) bo.getRightSource(), inputs, qualifiers);
+		} else {
+			bo.setRightSource(apply(bo.getRightSource()));
+			inputs.add(bo.getRightSource());
+		}
+	}
+
+	/**
+	 * Join two inputs with the qualifiers between them, the qualifiers used are
+	 * removed from the list.
+	 *
+	 * @param a an input
+	 * @param b the other input
+	 * @param rows the estimated rows of every input
+	 * @param qualifiers the qualifiers not used yet
+	 * @return the join, a cartesian product if no qualifier connects the inputs
+	 */
+	private RelationalAlgebra join(RelationalAlgebra a, RelationalAlgebra b, Map<RelationalAlgebra, Double> rows,
+			List<Qualifier> qualifiers) {
+		// the smaller input is hashed
+		RelationalAlgebra left = rows.get(a) >= rows.get(b) ? a : b;
+		RelationalAlgebra right = left == a ? b : a;
+		List<Qualifier> joinQualifiers = new ArrayList<>();
+		for (Iterator<Qualifier> it = qualifiers.iterator(); it.hasNext();) {
+			Qualifier q = it.next();
+			ColumnDescriptor c1 = q.getColumnData();
+			ColumnDescriptor c2 = (ColumnDescriptor) q.getParameterValue();
+			Qualifier joinQualifier = new Qualifier();
+			joinQualifier.setOperator(Operator.EQUALS);
+			// the column data must belong to the left source
+			if (left.getAttOrder().containsValue(c1) && right.getAttOrder().containsValue(c2)) {
+				joinQualifier.setColumnData(c1);
+				joinQualifier.setParameterValue(c2);
+			} else if (left.getAttOrder().containsValue(c2) && right.getAttOrder().containsValue(c1)) {
+				joinQualifier.setColumnData(c2);
+				joinQualifier.setParameterValue(c1);
+			} else {
+				continue;
+			}
+			joinQualifiers.add(joinQualifier);
+			it.remove();
+		}
+		RelationalAlgebra join = joinQualifiers.isEmpty()
+				? new CartesianProduct(Utils.randomIdentifier(DatabaseImpl.CARTPROD), left, right)
+				: new Join(Utils.randomIdentifier(DatabaseImpl.JOIN), left, right, joinQualifiers);
+		// the rows carry all the columns of both inputs, the columns not read
+		// above are pruned later
+		Map<Integer, ColumnDescriptor> attOrder = new HashMap<>();
+		for (ColumnDescriptor c : left.getColumns()) {
+			attOrder.put(attOrder.size() + 1, c);
+		}
+		for (ColumnDescriptor c : right.getColumns()) {
+			attOrder.put(attOrder.size() + 1, c);
+		}
+		join.setAttOrder(attOrder);
+		return join;
+	}
+
+	/**
+	 * Checks if a qualifier not used yet connects two inputs.
+	 *
+	 * @param a an input
+	 * @param b the other input
+	 * @param qualifiers the qualifiers not used yet
+	 * @return true, if the inputs can be joined
+	 */
+	private boolean isConnected(RelationalAlgebra a, RelationalAlgebra b, List<Qualifier> qualifiers) {
+		for (Qualifier q : qualifiers) {
+			ColumnDescriptor c1 = q.getColumnData();
+			ColumnDescriptor c2 = (ColumnDescriptor) q.getParameterValue();
+			if (a.getAttOrder().containsValue(c1) && b.getAttOrder().containsValue(c2)
+					|| a.getAttOrder().containsValue(c2) && b.getAttOrder().containsValue(c1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Estimate the rows of the join of two inputs.
+	 *
+	 * @param a an input
+	 * @param b the other input
+	 * @param rows the estimated rows of every input
+	 * @param qualifiers the qualifiers not used yet
+	 * @return the estimated rows
+	 */
+	private double estimateJoin(RelationalAlgebra a, RelationalAlgebra b, Map<RelationalAlgebra, Double> rows,
+			List<Qualifier> qualifiers) {
+		double estimate = rows.get(a) * rows.get(b);
+		for (Qualifier q : qualifiers) {
+			ColumnDescriptor c1 = q.getColumnData();
+			ColumnDescriptor c2 = (ColumnDescriptor) q.getParameterValue();
+			if (a.getAttOrder().containsValue(c2) && b.getAttOrder().containsValue(c1)) {
+				c1 = c2;
+				c2 = q.getColumnData();
+			} else if (!a.getAttOrder().containsValue(c1) || !b.getAttOrder().containsValue(c2)) {
+				continue;
+			}
+			// every row matches the rows with its value on the other side
+			estimate /= getJoinDistinctCount(c1, rows.get(a), c2, rows.get(b));
+		}
+		return estimate;
+	}
+
+	/**
+	 * Estimate the rows returned by an operation.
+	 *
+	 * @param ra the operation
+	 * @return the estimated rows, NaN if the statistics of a table are unknown
+	 */
+	private double estimate(RelationalAlgebra ra) {
+		if (ra instanceof TableAccess) {
+			TableStatistics table = statistics.apply(((TableAccess) ra).getTableName());
+			return table == null ? Double.NaN : table.getRowCount();
+		} else if (ra instanceof Select) {
+			double rows = estimate(((Select) ra).getSource());
+			for (Select conjunct : ((Select) ra).splitConjuncts()) {
+				rows *= getSelectivity(conjunct, rows);
+			}
+			return rows;
+		} else if (ra instanceof Join) {
+			Join join = (Join) ra;
+			double left = estimate(join.getLeftSource());
+			double right = estimate(join.getRightSource());
+			double rows = left * right;
+			for (Qualifier q : join.getQualifiers()) {
+				rows /= getJoinDistinctCount(q.getColumnData(), left, (ColumnDescriptor) q.getParameterValue(), right);
+			}
+			return rows;
+		} else if (ra instanceof RangeJoin) {
+			RangeJoin join = (RangeJoin) ra;
+			return estimate(join.getLeftSource()) * estimate(join.getRightSource())
+					* Math.pow(RANGE_SELECTIVITY, join.getQualifiers().size());
+		} else if (ra instanceof CartesianProduct) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			return estimate(bo.getLeftSource()) * estimate(bo.getRightSource());
+		} else if (ra instanceof Union) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			return estimate(bo.getLeftSource()) + estimate(bo.getRightSource());
+		} else if (ra instanceof Intersect) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			return Math.min(estimate(bo.getLeftSource()), estimate(bo.getRightSource()));
+		} else if (ra instanceof Difference) {
+			return estimate(((BinaryOperation) ra).getLeftSource());
+		} else if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			return estimate(((UnaryOperation) ra).getSource());
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * Gets the selectivity. Fraction of the rows that satisfy a conjunct.
+	 *
+	 * @param conjunct the conjunct
+	 * @param rows the estimated rows of its source
+	 * @return the selectivity
+	 */
+	private double getSelectivity(Select conjunct, double rows) {
+		if (conjunct.getQualifiers().size() != 1 || !conjunct.getPredicate().trim().equals("0")) {
+			// disjunctions and negations
+			return DEFAULT_SELECTIVITY;
+		}
+		Qualifier q = conjunct.getQualifiers().get(0);
+		Object value = q.getParameterValue();
+		if (value == null || value instanceof ColumnDescriptor) {
+			// null checks and comparisons between columns
+			return q.getOperator() == Operator.DISTINCT ? 1 - EQUALITY_SELECTIVITY : EQUALITY_SELECTIVITY;
+		}
+		double distinct = getDistinctCount(q.getColumnData(), rows);
+		switch (q.getOperator()) {
+		case Operator.EQUALS:
+			return Double.isNaN(distinct) ? EQUALITY_SELECTIVITY : 1 / distinct;
+		case Operator.DISTINCT:
+			return Double.isNaN(distinct) ? 1 - EQUALITY_SELECTIVITY : 1 - 1 / distinct;
+		default:
+			return getRangeSelectivity(q);
+		}
+	}
+
+	/**
+	 * Gets the range selectivity. Fraction of the range between the min and
+	 * the max of a numeric column that satisfies an inequality with a literal.
+	 *
+	 * @param q the qualifier
+	 * @return the selectivity
+	 */
+	private double getRangeSelectivity(Qualifier q) {
+		ColumnStatistics column = getStatistics(q.getColumnData());
+		if (column == null || !(column.getMin() instanceof Number) || !(column.getMax() instanceof Number)
+				|| q.getParameterValue() instanceof Parameter) {
+			return RANGE_SELECTIVITY;
+		}
+		double min = ((Number) column.getMin()).doubleValue();
+		double max = ((Number) column.getMax()).doubleValue();
+		double value;
+		try {
+			value = Double.parseDouble(q.getParameterValue().toString().trim());
+		} catch (NumberFormatException e) {
+			return RANGE_SELECTIVITY;
+		}
+		if (max <= min) {
+			return RANGE_SELECTIVITY;
+		}
+		double below = Math.min(1, Math.max(0, (value - min) / (max - min)));
+		return q.getOperator() == Operator.LESS || q.getOperator() == Operator.LEQ ? below : 1 - below;
+	}
+
+	/**
+	 * Gets the join distinct count. Every row matches the rows with its value
+	 * on the other side, the join returns the product of the rows divided by
+	 * the distinct count of the column with the most values. When both are
+	 * unknown the column of the smaller input is assumed to be a key.
+	 *
+	 * @param c1 the column of an input
+	 * @param rows1 the estimated rows of that input
+	 * @param c2 the column of the other input
+	 * @param rows2 the estimated rows of the other input
+	 * @return the distinct count, at least 1
+	 */
+	private double getJoinDistinctCount(ColumnDescriptor c1, double rows1, ColumnDescriptor c2, double rows2) {
+		double distinct1 = getDistinctCount(c1, rows1);
+		double distinct2 = getDistinctCount(c2, rows2);
+		if (Double.isNaN(distinct1) && Double.isNaN(distinct2)) {
+			return Math.max(1, Math.min(rows1, rows2));
+		}
+		// Math.max returns NaN if any of them is NaN
+		return Double.isNaN(distinct1) ? distinct2 : Double.isNaN(distinct2) ? distinct1 : Math.max(distinct1, distinct2);
+	}
+
+	/**
+	 * Gets the distinct count of a column among the rows of an input.
+	 *
+	 * @param column the column
+	 * @param rows the estimated rows of the input
+	 * @return the distinct count, at least 1, NaN if unknown
+	 */
+	private double getDistinctCount(ColumnDescriptor column, double rows) {
+		ColumnStatistics statistics = getStatistics(column);
+		return statistics == null ? Double.NaN : Math.max(1, Math.min(statistics.getDistinctCount(), rows));
+	}
+
+	/**
+	 * Gets the statistics of a column.
+	 *
+	 * @param column the column
+	 * @return the statistics, null if unknown
+	 */
+	private ColumnStatistics getStatistics(ColumnDescriptor column) {
+		TableStatistics table = column.getTableName() == null ? null : statistics.apply(column.getTableName());
+		return table == null ? null : table.getColumn(column.getName());
+	}
+}
@@ -0,0 +1,83 @@
+package edu.rit.dao.impl.optimizer;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Limit;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.Sort;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class LimitPushdown. Moves every row limit down to the lowest operation
+ * that returns the same rows with it: below the projections, which map every
+ * row to one row, into the sort, which then keeps only the top rows, and onto
+ * the left source of a cartesian product, whose rows are the first of the
+ * product. Operations that may discard rows, such as selects and joins, stop
+ * the limit.
+ */
+public class LimitPushdown implements Rule {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		if (plan instanceof Limit) {
+			return pushDown((Limit) plan);
+		}
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) plan;
+			uo.setSource(apply(uo.getSource()));
+		} else if (plan instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) plan;
+			bo.setLeftSource(apply(bo.getLeftSource()));
+			bo.setRightSource(apply(bo.getRightSource()));
+		}
+		return plan;
+	}
+
+	/**
+	 * Push down the limit.
+	 *
+	 * @param limit the limit
+	 * @return the new root of the limit and its sources
+	 */
+	private RelationalAlgebra pushDown(Limit limit) {
+		RelationalAlgebra source = limit.getSource();
+		if (source instanceof Projection) {
+			// only the rows returned are projected
+			Projection projection = (Projection) source;
+			limit.setSource(projection.getSource());
+			limit.setAttOrder(projection.getSource().getAttOrder());
+			projection.setSource(pushDown(limit));
+			return projection;
+		}
+		if (limit.getRowsRead() == Sort.NO_LIMIT) {
+			return limit;
+		}
+		if (source instanceof Sort) {
+			// the sort keeps the rows skipped and the rows returned in its heap
+			Sort sort = (Sort) source;
+			sort.setLimit(sort.getLimit() == Sort.NO_LIMIT ? limit.getRowsRead()
+					: Math.min(sort.getLimit(), limit.getRowsRead()));
+			return limit.getOffset() > 0 ? limit : sort;
+		}
+		if (source instanceof CartesianProduct) {
+			// every row of the left source is in a row of the product, unless
+			// the right source is empty and the product has no rows
+			CartesianProduct product = (CartesianProduct) source;
+			RelationalAlgebra left = product.getLeftSource();
+			Limit leftLimit = new Limit(Utils.randomIdentifier(DatabaseImpl.LIMIT), 0, limit.getRowsRead(), left);
+			leftLimit.setAttOrder(left.getAttOrder());
+			// the rows skipped must be the same for both limits
+			leftLimit.setOrdered(limit.isOrdered() || limit.getOffset() > 0);
+			product.setLeftSource(pushDown(leftLimit));
+		}
+		return limit;
+	}
+}
@@ -0,0 +1,81 @@
+package edu.rit.dao.impl.optimizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.impl.statistics.TableStatistics;
+
+/**
+ * The Class Optimizer. Rewrites the execution plan built from the query
+ * before its stream code is generated, the rules are applied in order.
+ */
+public class Optimizer {
+
+	/** The rules. */
+	private List<Rule> rules = new ArrayList<>();
+
+	/**
+	 * Instantiates a new optimizer with the default rules.
+	 */
+	public Optimizer() {
+		this(false);
+	}
+
+	/**
+	 * Instantiates a new optimizer with the default rules.
+	 *
+	 * @param mergeJoins whether the joins are sort-merge joins instead of hash
+	 *            joins
+	 */
+	public Optimizer(boolean mergeJoins) {
+		this(mergeJoins, null);
+	}
+
+	/**
+	 * Instantiates a new optimizer with the default rules, the joins are
+	 * ordered with the statistics of the tables.
+	 *
+	 * @param mergeJoins whether the joins are sort-merge joins instead of hash
+	 *            joins
+	 * @param statistics the statistics of a table by name, null if unknown; the
+	 *            joins are kept in the order of the query without them
+	 */
+	public Optimizer(boolean mergeJoins, Function<String, TableStatistics> statistics) {
+		rules.add(new PredicatePushdown());
+		if (statistics != null) {
+			rules.add(new JoinOrdering(statistics));
+		}
+		if (mergeJoins) {
+			rules.add(new SortMergeJoins());
+		}
+		rules.add(new LimitPushdown());
+		rules.add(new ColumnPruning());
+		rules.add(new SharedScans());
+	}
+
+	/**
+	 * Optimize.
+	 *
+	 * @param plan the plan
+	 * @return the optimized plan
+	 */
+	public RelationalAlgebra optimize(RelationalAlgebra plan) {
+		RelationalAlgebra optimized = plan;
+		for (Rule rule : rules) {
+			optimized = rule.apply(optimized);
+		}
+		return optimized;
+	}
+
+	/**
+	 * Gets the rules.
+	 *
+	 * @return the rules
+	 */
+	public List<Rule> getRules() {
+		return rules;
+	}
+}
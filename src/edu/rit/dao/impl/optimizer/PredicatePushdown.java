@@ -0,0 +1,307 @@
+package edu.rit.dao.impl.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.relational.Aggregate;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Difference;
+import edu.rit.dao.impl.relational.Distinct;
+import edu.rit.dao.impl.relational.Intersect;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.RangeJoin;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class PredicatePushdown. Splits every select into its conjuncts and
+ * moves each conjunct down to the lowest operation that has all its columns,
+ * usually the table access, so the rows are discarded as soon as possible.
+ * Equalities between both sources of a cartesian product turn it into a hash
+ * join, inequalities without equalities into a range join.
+ */
+public class PredicatePushdown implements Rule {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		// sources first, their selects are already pushed down when the select
+		// over them is processed
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) plan;
+			uo.setSource(apply(uo.getSource()));
+		} else if (plan instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) plan;
+			bo.setLeftSource(apply(bo.getLeftSource()));
+			bo.setRightSource(apply(bo.getRightSource()));
+		}
+		if (plan instanceof Select) {
+			return pushDown((Select) plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * Push down the conjuncts of the select.
+	 *
+	 * @param select the select
+	 * @return the operation that replaces the select
+	 */
+	private RelationalAlgebra pushDown(Select select) {
+		RelationalAlgebra ra = select.getSource();
+		for (Select conjunct : select.splitConjuncts()) {
+			ra = place(conjunct, ra);
+		}
+		return joinProducts(ra);
+	}
+
+	/**
+	 * Join the products. The conjuncts placed over a cartesian product, at
+	 * any depth, are evaluated as the conditions of a join of its sources.
+	 *
+	 * @param ra the operation
+	 * @return the operation that replaces ra
+	 */
+	private RelationalAlgebra joinProducts(RelationalAlgebra ra) {
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) ra;
+			uo.setSource(joinProducts(uo.getSource()));
+		} else if (ra instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			bo.setLeftSource(joinProducts(bo.getLeftSource()));
+			bo.setRightSource(joinProducts(bo.getRightSource()));
+		}
+		if (ra instanceof Select && ((Select) ra).getSource() instanceof CartesianProduct) {
+			// equalities between both sources are evaluated as a hash join
+			return joinOnEqualities((Select) ra);
+		}
+		return ra;
+	}
+
+	/**
+	 * Place the conjunct on the operation: it is pushed into its sources when
+	 * possible, otherwise it is merged with the operation if this is a select,
+	 * or evaluated over it.
+	 *
+	 * @param conjunct the conjunct
+	 * @param ra the operation
+	 * @return the operation that replaces ra
+	 */
+	private RelationalAlgebra place(Select conjunct, RelationalAlgebra ra) {
+		RelationalAlgebra target = ra instanceof Select ? ((Select) ra).getSource() : ra;
+		if (push(conjunct, target)) {
+			return ra;
+		}
+		if (ra instanceof Select) {
+			return Select.and(Arrays.asList((Select) ra, conjunct), target);
+		}
+		conjunct.setSource(ra);
+		conjunct.setAttOrder(ra.getAttOrder());
+		return conjunct;
+	}
+
+	/**
+	 * Push the conjunct into a source of the operation.
+	 *
+	 * @param conjunct the conjunct
+	 * @param ra the operation
+	 * @return true, if the conjunct was pushed
+	 */
+	private boolean push(Select conjunct, RelationalAlgebra ra) {
+		if (ra instanceof Join || ra instanceof RangeJoin || ra instanceof CartesianProduct) {
+			// every conjunct of a single source is evaluated on it
+			BinaryOperation bo = (BinaryOperation) ra;
+			if (covers(bo.getLeftSource(), conjunct)) {
+				bo.setLeftSource(place(conjunct, bo.getLeftSource()));
+				return true;
+			}
+			if (covers(bo.getRightSource(), conjunct)) {
+				bo.setRightSource(place(conjunct, bo.getRightSource()));
+				return true;
+			}
+		} else if (ra instanceof Difference || ra instanceof Intersect) {
+			// both return rows of the left source, filtering them before is the same
+			BinaryOperation bo = (BinaryOperation) ra;
+			if (covers(bo.getLeftSource(), conjunct)) {
+				bo.setLeftSource(place(conjunct, bo.getLeftSource()));
+				return true;
+			}
+		} else if (ra instanceof Projection || ra instanceof Distinct || ra instanceof Select
+				|| ra instanceof Aggregate) {
+			// a conjunct over an aggregate only covers its source with the
+			// group columns, the groups it removes are removed whole
+			UnaryOperation uo = (UnaryOperation) ra;
+			if (covers(uo.getSource(), conjunct)) {
+				uo.setSource(place(conjunct, uo.getSource()));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the rows of the operation have all the columns used by
+	 * the conjunct.
+	 *
+	 * @param ra the operation
+	 * @param conjunct the conjunct
+	 * @return true, if successful
+	 */
+	private boolean covers(RelationalAlgebra ra, Select conjunct) {
+		for (Qualifier q : conjunct.getQualifiers()) {
+			if (!ra.getAttOrder().containsValue(q.getColumnData())) {
+				return false;
+			}
+			if (q.getParameterValue() instanceof ColumnDescriptor
+					&& !ra.getAttOrder().containsValue(q.getParameterValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Join on equalities. Replaces the cartesian product under the select by a
+	 * hash join when the predicate contains equalities between columns of both
+	 * sources, the remaining conjuncts are kept in a select over the join.
+	 *
+	 * @param select the select over the cartesian product
+	 * @return the relational algebra
+	 */
+	private RelationalAlgebra joinOnEqualities(Select select) {
+		BinaryOperation bo = (BinaryOperation) select.getSource();
+		List<Qualifier> joinQualifiers = new ArrayList<>();
+		List<Select> residual = new ArrayList<>();
+		for (Select conjunct : select.splitConjuncts()) {
+			if (conjunct.isEquiJoin(bo.getLeftSource(), bo.getRightSource())) {
+				Qualifier q = conjunct.getQualifiers().get(0);
+				Qualifier joinQualifier = new Qualifier();
+				joinQualifier.setOperator(Operator.EQUALS);
+				// the column data must belong to the left source
+				if (bo.getLeftSource().getAttOrder().containsValue(q.getColumnData())) {
+					joinQualifier.setColumnData(q.getColumnData());
+					joinQualifier.setParameterValue(q.getParameterValue());
+				} else {
+					joinQualifier.setColumnData((ColumnDescriptor) q.getParameterValue());
+					joinQualifier.setParameterValue(q.getColumnData());
+				}
+				joinQualifiers.add(joinQualifier);
+			} else {
+				residual.add(conjunct);
+			}
+		}
+		if (joinQualifiers.isEmpty()) {
+			return joinOnRanges(select);
+		}
+		RelationalAlgebra ra = new Join(Utils.randomIdentifier(DatabaseImpl.JOIN), bo.getLeftSource(), bo.getRightSource(),
+				joinQualifiers);
+		ra.setAttOrder(bo.getAttOrder());
+		if (!residual.isEmpty()) {
+			ra = Select.and(residual, ra);
+		}
+		return ra;
+	}
+
+	/**
+	 * Join on ranges. Replaces the cartesian product under the select by a
+	 * range join when the predicate compares columns of both sources with
+	 * inequalities. The sorted column is the one with the most bounds, the
+	 * source it belongs to becomes the right source of the join. The remaining
+	 * conjuncts are kept in a select over the join.
+	 *
+	 * @param select the select over the cartesian product
+	 * @return the relational algebra
+	 */
+	private RelationalAlgebra joinOnRanges(Select select) {
+		BinaryOperation bo = (BinaryOperation) select.getSource();
+		// the range conjuncts by the column that would be sorted, a column
+		// of the right source first so the sources are kept in order
+		Map<ColumnDescriptor, List<Select>> bounds = new LinkedHashMap<>();
+		List<Select> conjuncts = select.splitConjuncts();
+		for (Select conjunct : conjuncts) {
+			if (conjunct.isRangeJoin(bo.getLeftSource(), bo.getRightSource())) {
+				Qualifier q = conjunct.getQualifiers().get(0);
+				ColumnDescriptor right = (ColumnDescriptor) q.getParameterValue();
+				ColumnDescriptor left = q.getColumnData();
+				if (bo.getLeftSource().getAttOrder().containsValue(right)) {
+					right = q.getColumnData();
+					left = (ColumnDescriptor) q.getParameterValue();
+				}
+				bounds.computeIfAbsent(right, c -> new ArrayList<>()).add(conjunct);
+				bounds.computeIfAbsent(left, c -> new ArrayList<>()).add(conjunct);
+			}
+		}
+		ColumnDescriptor sorted = null;
+		for (Map.Entry<ColumnDescriptor, List<Select>> entry : bounds.entrySet()) {
+			if (sorted == null || entry.getValue().size() > bounds.get(sorted).size()) {
+				sorted = entry.getKey();
+			}
+		}
+		if (sorted == null) {
+			return select;
+		}
+		boolean swapped = bo.getLeftSource().getAttOrder().containsValue(sorted);
+		List<Qualifier> joinQualifiers = new ArrayList<>();
+		List<Select> residual = new ArrayList<>(conjuncts);
+		for (Select conjunct : bounds.get(sorted)) {
+			Qualifier q = conjunct.getQualifiers().get(0);
+			Qualifier joinQualifier = new Qualifier();
+			// the column data is the probing column, compared with the sorted one
+			if (q.getParameterValue() == sorted) {
+				joinQualifier.setColumnData(q.getColumnData());
+				joinQualifier.setOperator(q.getOperator());
+			} else {
+				joinQualifier.setColumnData((ColumnDescriptor) q.getParameterValue());
+				joinQualifier.setOperator(mirror(q.getOperator()));
+			}
+			joinQualifier.setParameterValue(sorted);
+			joinQualifiers.add(joinQualifier);
+			residual.remove(conjunct);
+		}
+		RelationalAlgebra ra = new RangeJoin(Utils.randomIdentifier(DatabaseImpl.JOIN),
+				swapped ? bo.getRightSource() : bo.getLeftSource(), swapped ? bo.getLeftSource() : bo.getRightSource(),
+				joinQualifiers);
+		ra.setAttOrder(bo.getAttOrder());
+		if (!residual.isEmpty()) {
+			ra = Select.and(residual, ra);
+		}
+		return ra;
+	}
+
+	/**
+	 * Mirror. The operator that gives the same result with its operands
+	 * swapped.
+	 *
+	 * @param operator the operator
+	 * @return the mirrored operator
+	 */
+	private static int mirror(int operator) {
+		switch (operator) {
+		case Operator.LESS:
+			return Operator.GRE;
+		case Operator.LEQ:
+			return Operator.GREQ;
+		case Operator.GRE:
+			return Operator.LESS;
+		case Operator.GREQ:
+			return Operator.LEQ;
+		default:
+			return operator;
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package edu.rit.dao.impl.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.relational.CartesianProduct;
+import edu.rit.dao.impl.relational.Distinct;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.RangeJoin;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.relational.Union;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class SharedScans. Avoids reading the same table several times for a
+ * single query. The branches of a duplicate eliminating union that filter the
+ * same table are merged into one scan with the predicates joined by OR, and
+ * identical subtrees (same table, same predicates, same columns) are replaced
+ * by a single operation with several consumers. The operations below joins and
+ * cartesian products are never replaced, these operations tell the columns of
+ * their sources apart by identity.
+ */
+public class SharedScans implements Rule {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		mergeUnions(plan);
+		return share(plan, false, new HashMap<>());
+	}
+
+	/**
+	 * Merge the union branches that scan the same table under every distinct
+	 * of the plan.
+	 *
+	 * @param ra the operation
+	 */
+	private void mergeUnions(RelationalAlgebra ra) {
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			mergeUnions(((UnaryOperation) ra).getSource());
+		} else if (ra instanceof BinaryOperation) {
+			mergeUnions(((BinaryOperation) ra).getLeftSource());
+			mergeUnions(((BinaryOperation) ra).getRightSource());
+		}
+		// only a union without duplicates is the disjunction of its branches,
+		// a row satisfying both predicates appears twice in a union all
+		if (ra instanceof Distinct && ((Distinct) ra).getSource() instanceof Union) {
+			Distinct distinct = (Distinct) ra;
+			List<RelationalAlgebra> branches = new ArrayList<>();
+			flatten(distinct.getSource(), branches);
+			Map<String, RelationalAlgebra> merged = new LinkedHashMap<>();
+			int unmergeable = 0;
+			for (RelationalAlgebra branch : branches) {
+				String key = getScanKey(branch);
+				if (key == null) {
+					// kept as it is
+					key = String.valueOf(unmergeable++);
+				}
+				merged.merge(key, branch, this::merge);
+			}
+			if (merged.size() < branches.size()) {
+				RelationalAlgebra union = null;
+				for (RelationalAlgebra branch : merged.values()) {
+					if (union == null) {
+						union = branch;
+					} else {
+						union = new Union(Utils.randomIdentifier(DatabaseImpl.UNION), union, branch);
+						union.setAttOrder(((Union) union).getLeftSource().getAttOrder());
+					}
+				}
+				distinct.setSource(union);
+				distinct.setAttOrder(union.getAttOrder());
+			}
+		}
+	}
+
+	/**
+	 * Flatten. Collects the branches of nested unions from left to right, the
+	 * duplicates of the nested unions are removed by the distinct above.
+	 *
+	 * @param ra the operation
+	 * @param branches the branches
+	 */
+	private void flatten(RelationalAlgebra ra, List<RelationalAlgebra> branches) {
+		if (ra instanceof Distinct) {
+			flatten(((Distinct) ra).getSource(), branches);
+		} else if (ra instanceof Union) {
+			flatten(((Union) ra).getLeftSource(), branches);
+			flatten(((Union) ra).getRightSource(), branches);
+		} else {
+			branches.add(ra);
+		}
+	}
+
+	/**
+	 * Gets the scan key. Branches with the same key filter the same table and
+	 * return the same columns.
+	 *
+	 * @param branch the branch
+	 * @return the key, null if the branch is not a filtered scan
+	 */
+	private String getScanKey(RelationalAlgebra branch) {
+		RelationalAlgebra ra = branch instanceof Projection ? ((Projection) branch).getSource() : branch;
+		ra = ra instanceof Select ? ((Select) ra).getSource() : ra;
+		if (!(ra instanceof TableAccess)) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder(((TableAccess) ra).getTableName());
+		if (branch instanceof Projection) {
+			for (ColumnDescriptor c : branch.getColumns()) {
+				key.append(";").append(c.getName()).append(" as ").append(TupleDescriptor.getField(c));
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Merge two branches with the same scan key into a single scan of the
+	 * table of the first one.
+	 *
+	 * @param first the first branch
+	 * @param second the second branch
+	 * @return the merged branch
+	 */
+	private RelationalAlgebra merge(RelationalAlgebra first, RelationalAlgebra second) {
+		RelationalAlgebra firstFilter = first instanceof Projection ? ((Projection) first).getSource() : first;
+		RelationalAlgebra secondFilter = second instanceof Projection ? ((Projection) second).getSource() : second;
+		TableAccess table = (TableAccess) (firstFilter instanceof Select ? ((Select) firstFilter).getSource()
+				: firstFilter);
+		TableAccess secondTable = (TableAccess) (secondFilter instanceof Select
+				? ((Select) secondFilter).getSource() : secondFilter);
+		// the columns were pruned for each branch, the scan needs both sets
+		Map<Integer, ColumnDescriptor> attOrder = new HashMap<>(table.getAttOrder());
+		secondTable.getAttOrder().forEach(attOrder::putIfAbsent);
+		table.setAttOrder(attOrder);
+		RelationalAlgebra filter = table;
+		if (firstFilter instanceof Select && secondFilter instanceof Select) {
+			Select firstSelect = (Select) firstFilter;
+			Select secondSelect = (Select) secondFilter;
+			List<Qualifier> qualifiers = new ArrayList<>();
+			for (Qualifier q : secondSelect.getQualifiers()) {
+				qualifiers.add(remap(q, secondTable.getAttOrder(), attOrder));
+			}
+			filter = Select.or(Arrays.asList(firstSelect,
+					new Select(secondSelect.getReturnVar(), qualifiers, secondSelect.getPredicate(), table)), table);
+		}
+		// a branch without filter returns every row of the table
+		if (first instanceof Projection) {
+			((Projection) first).setSource(filter);
+			return first;
+		}
+		return filter;
+	}
+
+	/**
+	 * Remap. Copies the qualifier replacing the columns of a table access by
+	 * the columns at the same position of another access to the same table.
+	 *
+	 * @param q the qualifier
+	 * @param from the columns of the original table access
+	 * @param to the columns of the new table access
+	 * @return the qualifier
+	 */
+	private Qualifier remap(Qualifier q, Map<Integer, ColumnDescriptor> from, Map<Integer, ColumnDescriptor> to) {
+		Qualifier copy = new Qualifier();
+		copy.setColumnData(remap(q.getColumnData(), from, to));
+		copy.setOperator(q.getOperator());
+		copy.setNegateOperation(q.getNegateOperation());
+		copy.setParameterValue(q.getParameterValue() instanceof ColumnDescriptor
+				? remap((ColumnDescriptor) q.getParameterValue(), from, to) : q.getParameterValue());
+		return copy;
+	}
+
+	/**
+	 * Remap.
+	 *
+	 * @param c the column
+	 * @param from the columns of the original table access
+	 * @param to the columns of the new table access
+	 * @return the column
+	 */
+	private ColumnDescriptor remap(ColumnDescriptor c, Map<Integer, ColumnDescriptor> from,
+			Map<Integer, ColumnDescriptor> to) {
+		for (Map.Entry<Integer, ColumnDescriptor> e : from.entrySet()) {
+			if (e.getValue() == c) {
+				return to.get(e.getKey());
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Share. Replaces every subtree by the first identical subtree found.
+	 *
+	 * @param ra the operation
+	 * @param joined whether the operation is below a join or product
+	 * @param subtrees the subtrees found by signature
+	 * @return the operation that replaces the subtree
+	 */
+	private RelationalAlgebra share(RelationalAlgebra ra, boolean joined, Map<String, RelationalAlgebra> subtrees) {
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			UnaryOperation uo = (UnaryOperation) ra;
+			uo.setSource(share(uo.getSource(), joined, subtrees));
+		} else if (ra instanceof BinaryOperation) {
+			BinaryOperation bo = (BinaryOperation) ra;
+			boolean join = joined || ra instanceof Join || ra instanceof RangeJoin || ra instanceof CartesianProduct;
+			bo.setLeftSource(share(bo.getLeftSource(), join, subtrees));
+			bo.setRightSource(share(bo.getRightSource(), join, subtrees));
+		}
+		String signature = getSignature(ra);
+		if (joined || signature == null) {
+			return ra;
+		}
+		RelationalAlgebra shared = subtrees.putIfAbsent(signature, ra);
+		if (shared == null) {
+			return ra;
+		}
+		if (ra instanceof TableAccess) {
+			// the rows of a table access are the user DTOs, the columns pruned
+			// for each consumer are read from the same rows
+			Map<Integer, ColumnDescriptor> attOrder = new HashMap<>(shared.getAttOrder());
+			ra.getAttOrder().forEach(attOrder::putIfAbsent);
+			shared.setAttOrder(attOrder);
+		}
+		return shared;
+	}
+
+	/**
+	 * Gets the signature. Identical subtrees have the same signature.
+	 *
+	 * @param ra the operation
+	 * @return the signature, null if the operation is never shared
+	 */
+	private String getSignature(RelationalAlgebra ra) {
+		if (ra instanceof TableAccess) {
+			return "table " + ((TableAccess) ra).getTableName();
+		}
+		String source = ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null
+				? getSignature(((UnaryOperation) ra).getSource()) : null;
+		if (source == null) {
+			return null;
+		}
+		StringBuilder signature = new StringBuilder();
+		if (ra instanceof Select) {
+			Select select = (Select) ra;
+			signature.append("select ").append(select.getPredicate());
+			for (Qualifier q : select.getQualifiers()) {
+				Object value = q.getParameterValue() instanceof ColumnDescriptor
+						? "column " + TupleDescriptor.getField((ColumnDescriptor) q.getParameterValue())
+						: q.getParameterValue();
+				signature.append(";").append(TupleDescriptor.getField(q.getColumnData())).append(" ")
+						.append(q.getOperator()).append(" ").append(value).append(" ")
+						.append(q.getNegateOperation());
+			}
+		} else if (ra instanceof Projection) {
+			signature.append("projection");
+		} else if (ra instanceof Distinct) {
+			signature.append("distinct");
+		} else {
+			return null;
+		}
+		// the columns returned by the operation
+		for (ColumnDescriptor c : ra.getColumns()) {
+			signature.append(";").append(c.getName()).append(" as ").append(TupleDescriptor.getField(c));
+		}
+		return signature.append("(").append(source).append(")").toString();
+	}
+}
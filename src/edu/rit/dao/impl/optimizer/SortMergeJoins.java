@@ -0,0 +1,43 @@
+package edu.rit.dao.impl.optimizer;
+
+import edu.rit.dao.iapi.optimizer.Rule;
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.MergeJoin;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class SortMergeJoins. Replaces the hash joins of the plan by sort-merge
+ * joins, which need no hash table and take advantage of sources already sorted
+ * on the join columns. The conditions left over the joins are kept as they
+ * are.
+ */
+public class SortMergeJoins implements Rule {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.iapi.optimizer.Rule#apply(edu.rit.dao.iapi.relational.RelationalAlgebra)
+	 */
+	public RelationalAlgebra apply(RelationalAlgebra plan) {
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			UnaryOperation unary = (UnaryOperation) plan;
+			unary.setSource(apply(unary.getSource()));
+		} else if (plan instanceof BinaryOperation) {
+			BinaryOperation binary = (BinaryOperation) plan;
+			binary.setLeftSource(apply(binary.getLeftSource()));
+			binary.setRightSource(apply(binary.getRightSource()));
+		}
+		if (plan instanceof Join && !(plan instanceof MergeJoin)) {
+			Join join = (Join) plan;
+			MergeJoin mergeJoin = new MergeJoin(Utils.randomIdentifier(DatabaseImpl.JOIN), join.getLeftSource(),
+					join.getRightSource(), join.getQualifiers());
+			mergeJoin.setAttOrder(join.getAttOrder());
+			return mergeJoin;
+		}
+		return plan;
+	}
+}
@@ -18,6 +18,7 @@ import edu.rit.dao.impl.parser.ExprParser.OpContext;
 import edu.rit.dao.impl.parser.ExprParser.PredicateContext;
 import edu.rit.dao.impl.store.access.ColumnDescriptor;
 import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Parameter;
 import edu.rit.dao.impl.store.access.Qualifier;
 
 /**
@@ -199,6 +200,9 @@ public class PredicateListener extends ExprBaseListener {
 				objs.add(attributesOrder.get(Integer.valueOf(aux)));
 			} else if (aux.equals(INDEX)) {
 				objs.add(null);
+			} else if (Parameter.fromLiteral(aux) != null) {
+				// placeholder of a prepared query
+				objs.add(Parameter.fromLiteral(aux));
 			} else {
 				objs.add(tree.getText());
 			}
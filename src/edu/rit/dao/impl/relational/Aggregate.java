@@ -0,0 +1,499 @@
+package edu.rit.dao.impl.relational;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.store.access.AggregateFunction;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
+
+/**
+ * The Class Aggregate. Groups the rows of the source by the values of the
+ * group columns and computes the aggregate functions of every group in a
+ * single pass, the rows are the group columns followed by the aggregates.
+ * Every group keeps its accumulators in primitive arrays, the values of the
+ * source are added without boxing them, and the distinct values in a typed
+ * array of sets. Without group columns there is a
+ * single accumulator and always one row, even if the source is empty.
+ */
+public class Aggregate extends UnaryOperation {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant LONGS. Index of the long accumulators in the array of a group. */
+	private static final int LONGS = 0;
+
+	/** The Constant DOUBLES. Index of the double accumulators in the array of a group. */
+	private static final int DOUBLES = 1;
+
+	/** The Constant OBJECTS. Index of the object accumulators in the array of a group. */
+	private static final int OBJECTS = 2;
+
+	/** The Constant SETS. Index of the sets of distinct values in the array of a group. */
+	private static final int SETS = 3;
+
+	/** The Constant KEY. Index of the values of the group columns in the array of a group. */
+	private static final int KEY = 4;
+
+	/** The group columns. */
+	private List<ColumnDescriptor> groupColumns;
+
+	/** The functions. */
+	private List<AggregateFunction> functions = new ArrayList<>();
+
+	/**
+	 * Instantiates a new aggregate without functions.
+	 *
+	 * @param name the name
+	 * @param groupColumns the group columns, empty for a scalar aggregate
+	 * @param source the source
+	 */
+	public Aggregate(String name, List<ColumnDescriptor> groupColumns, RelationalAlgebra source) {
+		super(name, source);
+		this.groupColumns = groupColumns;
+	}
+
+	/**
+	 * Adds a function. The column of the result is named after the function
+	 * and the argument, e.g. <code>maxSalary</code>, a function already added
+	 * with the same argument is returned instead of a new one.
+	 *
+	 * @param function the function
+	 * @param argument the argument
+	 * @return the aggregate function
+	 */
+	public AggregateFunction addFunction(int function, ColumnDescriptor argument) {
+		for (AggregateFunction f : functions) {
+			if (f.getFunction() == function && f.getArgument() == argument) {
+				return f;
+			}
+		}
+		Set<String> taken = new HashSet<>();
+		getSource().getAttOrder().values().forEach(c -> taken.add(TupleDescriptor.getField(c)));
+		functions.forEach(f -> taken.add(f.getColumn().getName()));
+		String name = AggregateFunction.getName(function) + StringUtils.capitalize(TupleDescriptor.getField(argument));
+		String unique = name;
+		for (int i = 2; taken.contains(unique); i++) {
+			unique = name + i;
+		}
+		ColumnDescriptor column = new ColumnDescriptor();
+		column.setName(unique);
+		AggregateFunction f = new AggregateFunction(function, argument, column);
+		functions.add(f);
+		return f;
+	}
+
+	/**
+	 * Assign types. Sets the java type of the column of every function from
+	 * the type of its argument: counts are longs, sums of integral values
+	 * Longs and the other sums and averages Doubles, the lowest and highest
+	 * values keep the type of the argument. Only counts are never null.
+	 */
+	public void assignTypes() {
+		for (AggregateFunction f : functions) {
+			Class<?> type = f.getArgument().getJavaType();
+			Class<?> result;
+			switch (f.getFunction()) {
+			case AggregateFunction.COUNT:
+			case AggregateFunction.COUNT_DISTINCT:
+				result = long.class;
+				break;
+			case AggregateFunction.SUM:
+			case AggregateFunction.AVG:
+				if (type != null && !ClassUtils.isAssignable(type, Number.class, true)) {
+					throw new IllegalArgumentException("Not a numeric column: " + f);
+				}
+				result = f.getFunction() == AggregateFunction.SUM && type != null && Select.isIntegral(type)
+						? Long.class : Double.class;
+				break;
+			default:
+				result = type == null ? null : ClassUtils.primitiveToWrapper(type);
+			}
+			f.getColumn().setJavaType(result);
+			f.getColumn().setNullable(result != long.class);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.UnaryOperation#perform()
+	 */
+	public String perform() {
+		List<Accumulator> accumulators = new ArrayList<>();
+		int[] slots = new int[4];
+		for (AggregateFunction f : functions) {
+			accumulators.add(new Accumulator(f, slots));
+		}
+		StringBuilder objects = new StringBuilder();
+		StringBuilder sets = new StringBuilder();
+		for (Accumulator a : accumulators) {
+			a.appendInit(a.array == SETS ? sets : objects);
+		}
+		StringBuilder init = new StringBuilder("new Object[]{new long[").append(slots[LONGS])
+				.append("], new double[").append(slots[DOUBLES]).append("], new Object[]{").append(objects)
+				.append("}, new java.util.Set<?>[]{").append(sets).append("}");
+		StringBuilder update = new StringBuilder();
+		StringBuilder merge = new StringBuilder();
+		update.append(arrays("acc", "", slots));
+		merge.append(arrays("acc", "", slots)).append(arrays("acc2", "2", slots));
+		// every argument is read once from the row
+		Set<ColumnDescriptor> arguments = new LinkedHashSet<>();
+		functions.forEach(f -> arguments.add(f.getArgument()));
+		List<ColumnDescriptor> argumentList = new ArrayList<>(arguments);
+		for (ColumnDescriptor c : argumentList) {
+			update.append(getSource().getColumnType(c).getName()).append(" v").append(argumentList.indexOf(c))
+					.append(" = ").append(getSource().getTypedValue("bean", c)).append(";");
+		}
+		for (Accumulator a : accumulators) {
+			a.appendUpdate(update, "v" + argumentList.indexOf(a.function.getArgument()));
+			a.appendMerge(merge);
+		}
+
+		StringBuilder streamCode = new StringBuilder();
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> ");
+		if (groupColumns.isEmpty()) {
+			// scalar aggregate: a single accumulator, one row even without rows
+			streamCode.append("java.util.stream.Stream.<Object[]>of(").append(getSource().getReturnVar())
+					.append(".get().collect(java.util.stream.Collector.of(() -> ").append(init).append(", null}");
+			streamCode.append(", (acc, bean) -> {").append(update).append("}");
+			streamCode.append(", (acc, acc2) -> {").append(merge).append("return acc; }");
+			streamCode.append(")))");
+		} else {
+			// hash aggregate: the accumulators of every group are kept with the
+			// values of its group columns, the map accepts a null key
+			streamCode.append(getSource().getReturnVar()).append(".get().collect(java.util.stream.Collector.of(");
+			streamCode.append("java.util.HashMap<Object, Object[]>::new, (groups, bean) -> {");
+			streamCode.append("Object[] acc = groups.computeIfAbsent(").append(getGroupKey("bean"))
+					.append(", key -> ").append(init).append(", key});");
+			streamCode.append(update).append("}");
+			streamCode.append(", (groups, groups2) -> { groups2.forEach((key, acc2) -> groups.merge(key, acc2, (acc, ");
+			streamCode.append("other) -> {").append(merge).append("return acc; })); return groups; }))");
+			streamCode.append(".values().stream()");
+		}
+		streamCode.append(".map(acc -> ").append(newRow(c -> getResult("acc", c, accumulators))).append(")");
+		return streamCode.toString();
+	}
+
+	/**
+	 * Gets the group key. Java code of the values of the group columns of a
+	 * row of the source, several columns are compared as lists.
+	 *
+	 * @param bean the bean variable
+	 * @return the group key
+	 */
+	private String getGroupKey(String bean) {
+		if (groupColumns.size() == 1) {
+			return getSource().getValue(bean, groupColumns.get(0));
+		}
+		StringBuilder key = new StringBuilder("java.util.Arrays.asList(");
+		for (int i = 0; i < groupColumns.size(); i++) {
+			key.append(i > 0 ? ", " : "").append(getSource().getValue(bean, groupColumns.get(i)));
+		}
+		return key.append(")").toString();
+	}
+
+	/**
+	 * Gets the result. Java code of the value of a column of the row of a
+	 * group.
+	 *
+	 * @param acc the accumulators variable
+	 * @param column the column
+	 * @param accumulators the accumulators
+	 * @return the value
+	 */
+	private String getResult(String acc, ColumnDescriptor column, List<Accumulator> accumulators) {
+		int group = groupColumns.indexOf(column);
+		if (group < 0) {
+			return accumulators.stream().filter(a -> a.function.getColumn() == column).findFirst().get()
+					.getResult(acc);
+		}
+		String value = acc + "[" + KEY + "]";
+		if (groupColumns.size() > 1) {
+			value = "((java.util.List<?>) " + value + ").get(" + group + ")";
+		}
+		// the fields of the rows are typed, the key is an object
+		Class<?> type = ClassUtils.primitiveToWrapper(getValueType(column));
+		return type == Object.class ? value : "((" + type.getName() + ") " + value + ")";
+	}
+
+	/**
+	 * Arrays. Java code that declares the arrays of accumulators of a group,
+	 * the empty ones are not declared.
+	 *
+	 * @param acc the variable of the group
+	 * @param suffix the suffix of the declared variables
+	 * @param slots the slots of every array
+	 * @return the string
+	 */
+	private static String arrays(String acc, String suffix, int[] slots) {
+		StringBuilder code = new StringBuilder();
+		if (slots[LONGS] > 0) {
+			code.append("long[] longs").append(suffix).append(" = (long[]) ").append(acc).append("[").append(LONGS)
+					.append("];");
+		}
+		if (slots[DOUBLES] > 0) {
+			code.append("double[] doubles").append(suffix).append(" = (double[]) ").append(acc).append("[")
+					.append(DOUBLES).append("];");
+		}
+		if (slots[OBJECTS] > 0) {
+			code.append("Object[] objects").append(suffix).append(" = (Object[]) ").append(acc).append("[")
+					.append(OBJECTS).append("];");
+		}
+		if (slots[SETS] > 0) {
+			// the sets are created as HashSet<Object>, the array type is erased
+			code.append("@SuppressWarnings(\"unchecked\") java.util.Set<Object>[] sets").append(suffix)
+					.append(" = (java.util.Set<Object>[]) ").append(acc).append("[").append(SETS).append("];");
+		}
+		return code.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
+	 */
+	public String toString() {
+		return "Aggregate\n\tbeanName: " + getReturnVar() + "\n\tgroupColumns: " + groupColumns + "\n\tfunctions: "
+				+ functions + "\n\tsource: " + getSource();
+	}
+
+	/**
+	 * Gets the group columns.
+	 *
+	 * @return the groupColumns
+	 */
+	public List<ColumnDescriptor> getGroupColumns() {
+		return groupColumns;
+	}
+
+	/**
+	 * Gets the functions.
+	 *
+	 * @return the functions
+	 */
+	public List<AggregateFunction> getFunctions() {
+		return functions;
+	}
+
+	/**
+	 * The Class Accumulator. Slots of a function in the accumulators of a
+	 * group and the java code that updates, merges and reads them. Numbers
+	 * are accumulated as longs when integral and as doubles otherwise, with
+	 * the count of values that are not null; distinct values are sets, and
+	 * the lowest and highest values that are not numbers are objects.
+	 */
+	private class Accumulator {
+
+		/** The function. */
+		private AggregateFunction function;
+
+		/** The array. LONGS, DOUBLES, OBJECTS or SETS. */
+		private int array;
+
+		/** The slot. Index of the value in its array. */
+		private int slot;
+
+		/** The count. Index of the count of values in the long array, -1 if not counted. */
+		private int count = -1;
+
+		/** The type. Java type of the argument in the rows of the source. */
+		private Class<?> type;
+
+		/**
+		 * Instantiates a new accumulator.
+		 *
+		 * @param function the function
+		 * @param slots the slots already taken in every array
+		 */
+		Accumulator(AggregateFunction function, int[] slots) {
+			this.function = function;
+			this.type = getSource().getColumnType(function.getArgument());
+			switch (function.getFunction()) {
+			case AggregateFunction.COUNT:
+				array = LONGS;
+				break;
+			case AggregateFunction.COUNT_DISTINCT:
+				array = SETS;
+				break;
+			default:
+				if (Select.isIntegral(type)) {
+					array = LONGS;
+				} else if (Select.isNumeric(type) || function.getFunction() == AggregateFunction.SUM
+						|| function.getFunction() == AggregateFunction.AVG) {
+					array = DOUBLES;
+				} else {
+					array = OBJECTS;
+				}
+				if (array != OBJECTS) {
+					count = slots[LONGS]++;
+				}
+			}
+			slot = slots[array]++;
+		}
+
+		/**
+		 * Appends the initial value of the object or set slot.
+		 *
+		 * @param init the code of the objects or sets of the accumulators
+		 */
+		void appendInit(StringBuilder init) {
+			if (array == OBJECTS || array == SETS) {
+				init.append(slot > 0 ? ", " : "").append(array == SETS ? "new java.util.HashSet<Object>()" : "null");
+			}
+		}
+
+		/**
+		 * Appends the java code that adds a value of the argument.
+		 *
+		 * @param code the code
+		 * @param value the variable of the value
+		 */
+		void appendUpdate(StringBuilder code, String value) {
+			// primitive values are never null
+			boolean nullable = !type.isPrimitive();
+			if (nullable) {
+				code.append("if (").append(value).append(" != null) {");
+			}
+			String number = value;
+			if (array == DOUBLES && !Select.isNumeric(type)) {
+				number = "((Number) " + value + ").doubleValue()";
+			}
+			String acc = array(array, "") + "[" + slot + "]";
+			switch (function.getFunction()) {
+			case AggregateFunction.COUNT:
+				code.append(acc).append("++;");
+				break;
+			case AggregateFunction.COUNT_DISTINCT:
+				code.append(acc).append(".add(").append(value).append(");");
+				break;
+			case AggregateFunction.SUM:
+			case AggregateFunction.AVG:
+				code.append(acc).append(" += ").append(number).append("; longs[").append(count).append("]++;");
+				break;
+			default:
+				if (array == OBJECTS) {
+					code.append("if (").append(acc).append(" == null || ").append(compare(value, acc)).append(" ")
+							.append(getComparison()).append(" 0) {").append(acc).append(" = ").append(value)
+							.append("; }");
+				} else {
+					code.append("if (longs[").append(count).append("]++ == 0 || ").append(number).append(" ")
+							.append(getComparison()).append(" ").append(acc).append(") {").append(acc).append(" = ")
+							.append(number).append("; }");
+				}
+			}
+			if (nullable) {
+				code.append("}");
+			}
+		}
+
+		/**
+		 * Appends the java code that merges the accumulators of the same group
+		 * computed by another thread.
+		 *
+		 * @param code the code
+		 */
+		void appendMerge(StringBuilder code) {
+			String acc = array(array, "") + "[" + slot + "]";
+			String other = array(array, "2") + "[" + slot + "]";
+			switch (function.getFunction()) {
+			case AggregateFunction.COUNT_DISTINCT:
+				code.append(acc).append(".addAll(").append(other).append(");");
+				break;
+			case AggregateFunction.MIN:
+			case AggregateFunction.MAX:
+				if (array == OBJECTS) {
+					code.append("if (").append(other).append(" != null && (").append(acc).append(" == null || ")
+							.append(compare(other, acc)).append(" ").append(getComparison()).append(" 0)) {").append(acc)
+							.append(" = ").append(other).append("; }");
+				} else {
+					code.append("if (longs2[").append(count).append("] > 0 && (longs[").append(count).append("] == 0 || ")
+							.append(other).append(" ").append(getComparison()).append(" ").append(acc).append(")) {")
+							.append(acc).append(" = ").append(other).append("; }");
+				}
+				break;
+			default:
+				code.append(acc).append(" += ").append(other).append(";");
+			}
+			if (count >= 0) {
+				code.append("longs[").append(count).append("] += longs2[").append(count).append("];");
+			}
+		}
+
+		/**
+		 * Gets the result. Java code of the value of the function for a group,
+		 * null without values that are not null, except for counts.
+		 *
+		 * @param acc the variable of the group
+		 * @return the result
+		 */
+		String getResult(String acc) {
+			String value = "((" + (array == LONGS ? "long" : array == DOUBLES ? "double"
+					: array == SETS ? "java.util.Set<?>" : "Object") + "[]) " + acc + "[" + array + "])[" + slot + "]";
+			Class<?> result = function.getColumn().getJavaType();
+			switch (function.getFunction()) {
+			case AggregateFunction.COUNT:
+				return value;
+			case AggregateFunction.COUNT_DISTINCT:
+				return "(long) " + value + ".size()";
+			default:
+				if (array == OBJECTS) {
+					return result == null ? value : "((" + result.getName() + ") " + value + ")";
+				}
+				String counted = "((long[]) " + acc + "[" + LONGS + "])[" + count + "]";
+				if (function.getFunction() == AggregateFunction.AVG) {
+					value = value + " / (double) " + counted;
+				} else if (result != null && result != Long.class && result != Double.class) {
+					// the lowest and highest values keep the type of the argument
+					value = "(" + ClassUtils.wrapperToPrimitive(result).getName() + ") " + value;
+				}
+				String boxed = result == null ? (array == LONGS ? "Long" : "Double") : result.getName();
+				return "(" + counted + " == 0 ? null : " + boxed + ".valueOf(" + value + "))";
+			}
+		}
+
+		/**
+		 * Compare. Java code that compares a value with the lowest or highest
+		 * value, as values of the type of the argument when it is comparable.
+		 *
+		 * @param value the value
+		 * @param acc the lowest or highest value, an object
+		 * @return the string
+		 */
+		private String compare(String value, String acc) {
+			if (Comparable.class.isAssignableFrom(type) && type != Comparable.class) {
+				String name = type.getCanonicalName();
+				return "((" + name + ") " + value + ").compareTo((" + name + ") " + acc + ")";
+			}
+			return "((Comparable) " + value + ").compareTo(" + acc + ")";
+		}
+
+		/**
+		 * Gets the comparison. Operator that tells a new lowest or highest
+		 * value.
+		 *
+		 * @return the comparison
+		 */
+		private String getComparison() {
+			return function.getFunction() == AggregateFunction.MIN ? "<" : ">";
+		}
+
+		/**
+		 * Array. Name of the variable of an array of accumulators.
+		 *
+		 * @param array the array
+		 * @param suffix the suffix of the variable
+		 * @return the name
+		 */
+		private String array(int array, String suffix) {
+			return (array == LONGS ? "longs" : array == DOUBLES ? "doubles" : array == SETS ? "sets" : "objects")
+					+ suffix;
+		}
+	}
+}
@@ -2,14 +2,15 @@ package edu.rit.dao.impl.relational;
 
 import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
-import edu.rit.dao.impl.store.access.ColumnDescriptor;
-import edu.rit.utils.Utils;
 
 /**
  * The Class CartesianProduct.
  */
 public class CartesianProduct extends BinaryOperation{
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	
 	/**
 	 * Instantiates a new cartesian product.
@@ -27,33 +28,49 @@ public class CartesianProduct extends BinaryOperation{
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
+		streamCode.append(getStreamType()).append(" ");
 		streamCode.append(getReturnVar()).append(" = () ->");
 		streamCode.append(getLeftSource().getReturnVar() + ".get().flatMap(bean1 -> ");
-		streamCode.append(getRightSource().getReturnVar() + ".get().map(bean2 -> {");
-		//renaming attributes from the left source
-		for (ColumnDescriptor c: getLeftSource().getAttOrder().values()) {
-			if (c.getAlias() != null) {
-				String newName = Utils.randomIdentifier(c.getName());
-				streamCode.append(" Object ").append(newName).append(" = bean1.get(\"").append(c.getName()).append("\");");
-				streamCode.append(" bean1.remove(\"").append(c.getName()).append("\");");
-				streamCode.append(" bean1.put(\"").append(c.getAlias()).append("\", ").append(newName).append(");");
-			}
-		}
-		//renaming attributes from the right source
-		for (ColumnDescriptor c: getRightSource().getAttOrder().values()) {
-			if (c.getAlias() != null) {
-				String newName = Utils.randomIdentifier(c.getName());
-				streamCode.append(" Object ").append(newName).append(" = bean2.get(\"").append(c.getName()).append("\");");
-				streamCode.append(" bean2.remove(\"").append(c.getName()).append("\");");
-				streamCode.append(" bean2.put(\"").append(c.getAlias()).append("\", ").append(newName).append(");");
-			}
-		}
-		//creating new map for merging both sources
-		streamCode.append("Map<String, Object> tmp = new java.util.HashMap<>(); tmp.putAll(bean1); tmp.putAll(bean2); return tmp; }))");
+		// the rows of the sources are not modified, the new row takes the values
+		// of both
+		streamCode.append(getRightSource().getReturnVar() + ".get().map(bean2 -> ");
+		streamCode.append(newRow(c -> getLeftSource().getAttOrder().containsValue(c)
+				? getLeftSource().getValue("bean1", c) : getRightSource().getValue("bean2", c)));
+		streamCode.append("))");
 		return streamCode.toString();
 	}
 	
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.BinaryOperation#isRightSourceRescanned()
+	 */
+	public boolean isRightSourceRescanned() {
+		// a left source limited to one row, e.g. by the limit pushed down,
+		// streams the right source once
+		long rows = getMaxRows(getLeftSource());
+		return rows == Sort.NO_LIMIT || rows > 1;
+	}
+
+	/**
+	 * Gets the max rows returned by a source.
+	 *
+	 * @param source the source
+	 * @return the max rows, Sort.NO_LIMIT if unknown
+	 */
+	private static long getMaxRows(RelationalAlgebra source) {
+		if (source instanceof Projection) {
+			return getMaxRows(((Projection) source).getSource());
+		}
+		if (source instanceof Limit) {
+			long limit = ((Limit) source).getLimit();
+			long rows = getMaxRows(((Limit) source).getSource());
+			return limit == Sort.NO_LIMIT || rows != Sort.NO_LIMIT && rows < limit ? rows : limit;
+		}
+		if (source instanceof Sort) {
+			return ((Sort) source).getLimit();
+		}
+		return Sort.NO_LIMIT;
+	}
+
 	/* (non-Javadoc)
 	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
 	 */
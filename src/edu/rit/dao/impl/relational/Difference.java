@@ -4,10 +4,14 @@ import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 
 /**
- * The Class Difference.
+ * The Class Difference. Hash anti join: the right source is hashed once and
+ * the left rows that are not found in it are returned.
  */
 public class Difference extends BinaryOperation {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new difference.
 	 *
@@ -29,16 +33,30 @@ public class Difference extends BinaryOperation {
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("List<Map<String,Object>> list").append(getRightSource().getReturnVar()).append(" = ")
-				.append(getRightSource().getReturnVar()).append(".get().collect(java.util.stream.Collectors.toList());");
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
+		String hashSet = "hash" + getReturnVar();
+		// build phase: the keys of the right rows are hashed only once
+		streamCode.append("java.util.Set<Object> ").append(hashSet).append(" = ")
+				.append(getRightSource().getReturnVar()).append(".get().map(bean2 -> ")
+				.append(getRightSource().getRowKey("bean2"))
+				.append(").collect(java.util.stream.Collectors.toSet());");
+		// probe phase: the left rows whose key is not in the set are returned
+		streamCode.append(getStreamType()).append(" ");
 		streamCode.append(getReturnVar()).append(" = () ->");
-		streamCode.append(getLeftSource().getReturnVar() + ".get().filter(bean -> !");
-		// TODO MJCG Create the list only once
-		streamCode.append("list" + getRightSource().getReturnVar() + ".contains(bean))");
+		streamCode.append(getLeftSource().getReturnVar()).append(".get().filter(bean -> !");
+		streamCode.append(hashSet).append(".contains(").append(getLeftSource().getRowKey("bean")).append("))");
 		return streamCode.toString();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// the difference returns the rows of the left source
+		return getLeftSource();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
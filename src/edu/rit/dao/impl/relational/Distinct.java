@@ -0,0 +1,75 @@
+package edu.rit.dao.impl.relational;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+
+/**
+ * The Class Distinct. Removes the duplicated rows of the source, rows are
+ * compared by a compact key with the values of their columns. The keys are
+ * hashed, unless the source is sorted by all its columns and sequential, e.g.
+ * the join columns of a merge join, then every row is only compared with the
+ * previous one.
+ */
+public class Distinct extends UnaryOperation {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Instantiates a new distinct.
+	 *
+	 * @param name the name
+	 * @param source the source
+	 */
+	public Distinct(String name, RelationalAlgebra source) {
+		super(name, source);
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.UnaryOperation#perform()
+	 */
+	public String perform() {
+		StringBuilder streamCode = new StringBuilder();
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> {");
+		if (isSorted() && !isParallel()) {
+			// duplicates are adjacent, the new object is never equal to a key
+			streamCode.append("Object[] last = {new Object()};");
+			streamCode.append("return ").append(getSource().getReturnVar()).append(".get().filter(bean -> {");
+			streamCode.append("Object key = ").append(getRowKey("bean")).append(";");
+			streamCode.append("boolean first = !java.util.Objects.equals(last[0], key); last[0] = key; return first; }); }");
+		} else {
+			// the keys seen are hashed on every call of the supplier
+			streamCode.append("java.util.Set<Object> seen = ").append(newSet()).append(";");
+			streamCode.append("return ").append(getSource().getReturnVar()).append(".get().filter(bean -> seen.add(")
+					.append(getRowKey("bean")).append(")); }");
+		}
+		return streamCode.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// duplicates are removed without modifying the rows
+		return getSource();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
+	 */
+	public String toString() {
+		return "Distinct\n\tbeanName: " + getReturnVar() + "\n\tsorted: " + isSorted() + "\n\tsource: " + getSource();
+	}
+
+	/**
+	 * Checks if the source is sorted by all its columns, the duplicated rows
+	 * are then adjacent.
+	 *
+	 * @return true, if the source is sorted
+	 */
+	public boolean isSorted() {
+		return getSource().getAttOrder() != null
+				&& getSource().getOrder().containsAll(getSource().getAttOrder().values());
+	}
+}
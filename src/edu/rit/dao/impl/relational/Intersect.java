@@ -4,10 +4,14 @@ import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 
 /**
- * The Class Intersect.
+ * The Class Intersect. Hash semi join with set semantics: the right source
+ * is hashed once and every left row found in it is returned once.
  */
 public class Intersect extends BinaryOperation {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new intersect.
 	 *
@@ -26,17 +30,38 @@ public class Intersect extends BinaryOperation {
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
-		streamCode.append(getReturnVar()).append(" = () ->");
-		streamCode.append(getLeftSource().getReturnVar() + ".get().filter(");
-		streamCode.append(getRightSource().getReturnVar() + "::contains)");
+		String hashSet = "hash" + getReturnVar();
+		String key = getLeftSource().getRowKey("bean");
+		// build phase: the keys of the right rows are hashed only once
+		streamCode.append("java.util.Set<Object> ").append(hashSet).append(" = ")
+				.append(getRightSource().getReturnVar()).append(".get().map(bean2 -> ")
+				.append(getRightSource().getRowKey("bean2"))
+				.append(").collect(java.util.stream.Collectors.toSet());");
+		// probe phase: the left rows whose key is in the set are returned once
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> {");
+		streamCode.append("java.util.Set<Object> seen = ").append(newSet()).append(";");
+		streamCode.append("return ").append(getLeftSource().getReturnVar()).append(".get().filter(bean -> ");
+		streamCode.append("{Object key = ").append(key).append("; return ").append(hashSet)
+				.append(".contains(key) && seen.add(key); }); }");
 		return streamCode.toString();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// the intersection returns the rows of the left source
+		return getLeftSource();
+	}
+
 	/* (non-Javadoc)
 	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
 	 */
 	public String toString() {
-		return "";
+		return "Intersect\nbeanName: " + getReturnVar() + "\nleftSource: " + getLeftSource() + "\nrightSource: "
+				+ getRightSource();
 	}
 }
@@ -4,20 +4,27 @@ import java.util.List;
 
 import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
 import edu.rit.dao.impl.store.access.Qualifier;
 
 /**
- * The Class Join. 
- * This class has been replace for a cartesian product and a select
+ * The Class Join. Hash join between two sources: the right source is hashed
+ * on the join columns only once, the left source is streamed and probes the
+ * hash table.
  */
 public class Join extends BinaryOperation {
-	
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
-	 * The qualifiers. Contain the fields used for joining the tuples
+	 * The qualifiers. Contain the fields used for joining the tuples, the
+	 * column data belongs to the left source and the parameter value is the
+	 * column of the right source
 	 **/
 	private List<Qualifier> qualifiers;
 
-	
+
 	/**
 	 * Instantiates a new join.
 	 *
@@ -33,25 +40,43 @@ public class Join extends BinaryOperation {
 
 	/*
 	 * (non-Javadoc)
-	 * 
+	 *
 	 * @see edu.rit.dao.iapi.relational.BinaryOperation#perform()
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
-		streamCode.append(getReturnVar()).append(" = () ->");
-		streamCode.append(getLeftSource().getReturnVar()).append(".get().flatMap(bean1 ->");
-		streamCode.append(getRightSource().getReturnVar());
-		if (qualifiers != null) {
-			for (Qualifier qualifier : qualifiers) {
-				streamCode.append(
-						".get().filter(bean2 -> java.util.Objects.equals(bean1.get(\"" + qualifier.getColumnData().getName()
-								+ "\"), bean2.get(\"" + qualifier.getParameterValue() + "\"))).map(bean2 -> {");
-				streamCode.append(
-						"Map<String, Object> tmp = new java.util.HashMap<String, Object>(); tmp.putAll(bean1); tmp.putAll(bean2); return tmp; })");
+		String hashTable = "hash" + getReturnVar();
+		// build phase: the right source is hashed once, rows with null values
+		// in the join columns never match
+		streamCode.append("java.util.Map<Object, List<").append(getRightSource().getRowType()).append(">> ")
+				.append(hashTable).append(" = ");
+		streamCode.append(getRightSource().getReturnVar()).append(".get()");
+		StringBuilder notNull = new StringBuilder();
+		for (Qualifier q : qualifiers) {
+			ColumnDescriptor c = (ColumnDescriptor) q.getParameterValue();
+			// primitive values are never null
+			if (c.isNullable()) {
+				notNull.append(notNull.length() > 0 ? " && " : "").append(getRightSource().getValue("bean2", c))
+						.append(" != null");
 			}
 		}
-		streamCode.append(")");
+		if (notNull.length() > 0) {
+			streamCode.append(".filter(bean2 -> ").append(notNull).append(")");
+		}
+		streamCode.append(".collect(java.util.stream.Collectors.")
+				.append(isParallel() ? "groupingByConcurrent" : "groupingBy").append("(bean2 -> ").append(getKey("bean2", false))
+				.append("));");
+		// probe phase: every row of the left source looks up its matches
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () ->");
+		streamCode.append(getLeftSource().getReturnVar()).append(".get().flatMap(bean1 -> ");
+		streamCode.append(hashTable).append(".getOrDefault(").append(getKey("bean1", true))
+				.append(", java.util.Collections.emptyList()).stream().map(bean2 -> ");
+		// the rows of the sources are not modified, the right rows are shared by
+		// every probe
+		streamCode.append(newRow(c -> getLeftSource().getAttOrder().containsValue(c)
+				? getLeftSource().getValue("bean1", c) : getRightSource().getValue("bean2", c)));
+		streamCode.append("))");
 		return streamCode.toString();
 	}
 
@@ -62,4 +87,39 @@ public class Join extends BinaryOperation {
 		return "Join\nbeanName: " + getReturnVar() + "\n\tcolumns: " + qualifiers + "\nleftSource: " + getLeftSource()
 		+ "\nrightSource: " + getRightSource();
 	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getOrder()
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		// the left source is streamed in order and probes the hash table
+		return getLeftSource().getOrder();
+	}
+
+	/**
+	 * Gets the qualifiers.
+	 *
+	 * @return the qualifiers
+	 */
+	public List<Qualifier> getQualifiers() {
+		return qualifiers;
+	}
+
+	/**
+	 * Gets the key. Java code that builds the hash key of a row, composite
+	 * keys are compared as lists.
+	 *
+	 * @param bean the bean variable
+	 * @param left whether the bean belongs to the left source
+	 * @return the key
+	 */
+	private String getKey(String bean, boolean left) {
+		StringBuilder key = new StringBuilder();
+		for (int i = 0; i < qualifiers.size(); i++) {
+			ColumnDescriptor c = left ? qualifiers.get(i).getColumnData()
+					: (ColumnDescriptor) qualifiers.get(i).getParameterValue();
+			key.append(i > 0 ? ", " : "").append((left ? getLeftSource() : getRightSource()).getValue(bean, c));
+		}
+		return qualifiers.size() > 1 ? "java.util.Arrays.asList(" + key + ")" : key.toString();
+	}
 }
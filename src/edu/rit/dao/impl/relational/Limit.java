@@ -0,0 +1,135 @@
+package edu.rit.dao.impl.relational;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+
+/**
+ * The Class Limit. Skips the first rows of the source and returns at most
+ * limit rows. The stream is short-circuited: once enough rows are returned no
+ * more rows are read from the source, nor from the sources of its joins.
+ */
+public class Limit extends UnaryOperation {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The offset. Rows skipped. */
+	private long offset;
+
+	/** The limit. Rows returned, Sort.NO_LIMIT to return all of them. */
+	private long limit;
+
+	/** The ordered. Whether the first rows must be returned, not any rows. */
+	private boolean ordered;
+
+	/**
+	 * Instantiates a new limit.
+	 *
+	 * @param name the name
+	 * @param offset the offset
+	 * @param limit the limit
+	 * @param source the source
+	 */
+	public Limit(String name, long offset, long limit, RelationalAlgebra source) {
+		super(name, source);
+		this.offset = offset;
+		this.limit = limit;
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.UnaryOperation#perform()
+	 */
+	public String perform() {
+		StringBuilder streamCode = new StringBuilder();
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> ");
+		streamCode.append(getSource().getReturnVar()).append(".get()");
+		if (isParallel() && !ordered && offset == 0) {
+			// without ORDER BY any rows are valid, the threads do not have to
+			// keep the first ones
+			streamCode.append(".unordered()");
+		}
+		if (offset > 0) {
+			streamCode.append(".skip(").append(offset).append("L)");
+		}
+		if (limit != Sort.NO_LIMIT) {
+			streamCode.append(".limit(").append(limit).append("L)");
+		}
+		return streamCode.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// the rows are returned without modifying them
+		return getSource();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getOrder()
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		// the unordered rows of a parallel stream are returned in any order
+		return isParallel() && !ordered && offset == 0 ? new ArrayList<>() : super.getOrder();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
+	 */
+	public String toString() {
+		return "Limit\n\tbeanName: " + getReturnVar() + "\n\toffset: " + offset + "\n\tlimit: " + limit
+				+ "\n\tordered: " + ordered + "\n\tsource: " + getSource();
+	}
+
+	/**
+	 * Gets the offset.
+	 *
+	 * @return the offset
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the limit.
+	 *
+	 * @return the limit, Sort.NO_LIMIT if all the rows after the offset are
+	 *         returned
+	 */
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Gets the rows read from the source, the offset and the limit.
+	 *
+	 * @return the rows, Sort.NO_LIMIT if all the rows are read
+	 */
+	public long getRowsRead() {
+		return limit == Sort.NO_LIMIT ? Sort.NO_LIMIT : offset + limit;
+	}
+
+	/**
+	 * Checks if the first rows must be returned.
+	 *
+	 * @return the ordered
+	 */
+	public boolean isOrdered() {
+		return ordered;
+	}
+
+	/**
+	 * Sets whether the first rows must be returned, e.g. when the query sorts
+	 * them, otherwise parallel streams may return any rows.
+	 *
+	 * @param ordered the ordered to set
+	 */
+	public void setOrdered(boolean ordered) {
+		this.ordered = ordered;
+	}
+}
@@ -0,0 +1,206 @@
+package edu.rit.dao.impl.relational;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Qualifier;
+
+/**
+ * The Class MergeJoin. Sort-merge join between two sources: both sources are
+ * sorted on the join columns and their streams are merged lazily, advancing
+ * the side with the lower key. No hash table is built, the memory used is the
+ * current run of right rows with equal keys, and the sort of a source is
+ * skipped when its rows are already ordered on the join columns, e.g. by an
+ * ORDER BY or by another merge join on the same key. The other conditions
+ * between both sources, such as ranges, are evaluated over the joined rows as
+ * with the hash join.
+ */
+public class MergeJoin extends Join {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Instantiates a new merge join.
+	 *
+	 * @param name the name
+	 * @param leftSource the left source
+	 * @param rightSource the right source
+	 * @param qualifiers the qualifiers, the column data belongs to the left
+	 *            source and the parameter value is the column of the right
+	 *            source
+	 */
+	public MergeJoin(String name, RelationalAlgebra leftSource, RelationalAlgebra rightSource,
+			List<Qualifier> qualifiers) {
+		super(name, leftSource, rightSource, qualifiers);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.impl.relational.Join#perform()
+	 */
+	public String perform() {
+		String left = "left" + getReturnVar();
+		String right = "right" + getReturnVar();
+		String compare = "compare" + getReturnVar();
+		String joined = "joined" + getReturnVar();
+		String leftRow = getLeftSource().getRowType();
+		String rightRow = getRightSource().getRowType();
+		StringBuilder streamCode = new StringBuilder();
+		streamCode.append("java.util.function.ToIntBiFunction<").append(leftRow).append(", ").append(rightRow)
+				.append("> ").append(compare).append(" = (bean1, bean2) -> ")
+				.append(getComparison(getLeftSource(), "bean1", true, getRightSource(), "bean2", false)).append(";");
+		// the rows of the sources are not modified, the right rows are shared by
+		// every left row of the run
+		streamCode.append("java.util.function.BiFunction<").append(leftRow).append(", ").append(rightRow)
+				.append(", ").append(getRowType()).append("> ").append(joined).append(" = (bean1, bean2) -> ")
+				.append(newRow(c -> getLeftSource().getAttOrder().containsValue(c)
+						? getLeftSource().getValue("bean1", c) : getRightSource().getValue("bean2", c)))
+				.append(";");
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> {");
+		streamCode.append("java.util.Iterator<").append(leftRow).append("> ").append(left).append(" = ")
+				.append(getSortedRows(getLeftSource(), "bean1", true)).append(";");
+		streamCode.append("java.util.Iterator<").append(rightRow).append("> ").append(right).append(" = ")
+				.append(getSortedRows(getRightSource(), "bean2", false)).append(";");
+		// merge phase: every left row is joined with the run of right rows of
+		// its key, the run is kept while the next left rows have the same key
+		streamCode.append("return java.util.stream.StreamSupport.stream(new java.util.Spliterators.AbstractSpliterator<")
+				.append(getRowType()).append(">(Long.MAX_VALUE, java.util.Spliterator.ORDERED) {");
+		streamCode.append(leftRow).append(" bean1 = ").append(next(left)).append(";");
+		streamCode.append(rightRow).append(" next2 = ").append(next(right)).append(";");
+		streamCode.append("List<").append(rightRow).append("> run = new java.util.ArrayList<>();");
+		streamCode.append("int index;");
+		streamCode.append("public boolean tryAdvance(java.util.function.Consumer<? super ").append(getRowType())
+				.append("> action) {");
+		streamCode.append("while (bean1 != null) {");
+		streamCode.append("if (!run.isEmpty()) {");
+		streamCode.append("int c = ").append(compare).append(".applyAsInt(bean1, run.get(0));");
+		streamCode.append("if (c == 0 && index < run.size()) { action.accept(").append(joined)
+				.append(".apply(bean1, run.get(index++))); return true; }");
+		streamCode.append("if (c <= 0) { bean1 = ").append(next(left)).append("; index = 0; continue; }");
+		streamCode.append("run.clear(); }");
+		// the right rows lower than the left row have no match
+		streamCode.append("while (next2 != null && ").append(compare).append(".applyAsInt(bean1, next2) > 0) { next2 = ")
+				.append(next(right)).append("; }");
+		streamCode.append("if (next2 == null) { return false; }");
+		streamCode.append("if (").append(compare).append(".applyAsInt(bean1, next2) < 0) { bean1 = ")
+				.append(next(left)).append("; continue; }");
+		streamCode.append("do { run.add(next2); next2 = ").append(next(right)).append("; } while (next2 != null && ")
+				.append(compare).append(".applyAsInt(bean1, next2) == 0);");
+		streamCode.append("} return false; } }, ").append(isParallel()).append(");}");
+		return streamCode.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getOrder()
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		// the left rows are merged in the order of the join columns
+		return getColumns(true);
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.impl.relational.Join#toString()
+	 */
+	public String toString() {
+		return "MergeJoin\nbeanName: " + getReturnVar() + "\n\tcolumns: " + getQualifiers() + "\nleftSource: "
+				+ getLeftSource() + "\nrightSource: " + getRightSource();
+	}
+
+	/**
+	 * Gets the sorted rows. Java code of the iterator over the rows of a
+	 * source without null join columns, sorted on the join columns unless the
+	 * source is already ordered on them.
+	 *
+	 * @param source the source
+	 * @param bean the bean variable
+	 * @param left whether the source is the left source
+	 * @return the sorted rows
+	 */
+	private String getSortedRows(RelationalAlgebra source, String bean, boolean left) {
+		StringBuilder rows = new StringBuilder(source.getReturnVar()).append(".get()");
+		StringBuilder notNull = new StringBuilder();
+		List<ColumnDescriptor> columns = getColumns(left);
+		for (ColumnDescriptor c : columns) {
+			// primitive values are never null
+			if (c.isNullable()) {
+				notNull.append(notNull.length() > 0 ? " && " : "").append(source.getValue(bean, c))
+						.append(" != null");
+			}
+		}
+		if (notNull.length() > 0) {
+			rows.append(".filter(").append(bean).append(" -> ").append(notNull).append(")");
+		}
+		List<ColumnDescriptor> order = source.getOrder();
+		if (order.size() < columns.size() || !order.subList(0, columns.size()).equals(columns)) {
+			rows.append(".sorted((").append(bean).append(", other) -> ")
+					.append(getComparison(source, bean, left, source, "other", left)).append(")");
+		}
+		return rows.append(".iterator()").toString();
+	}
+
+	/**
+	 * Next. Java code of the next row of an iterator.
+	 *
+	 * @param iterator the iterator variable
+	 * @return the next row, null at the end of the rows
+	 */
+	private static String next(String iterator) {
+		return iterator + ".hasNext() ? " + iterator + ".next() : null";
+	}
+
+	/**
+	 * Gets the comparison. Java code that compares the join columns of two
+	 * rows column by column, numbers are compared by value without boxing.
+	 *
+	 * @param source1 the source of the first row
+	 * @param bean1 the first bean variable
+	 * @param left1 whether the first row belongs to the left source
+	 * @param source2 the source of the second row
+	 * @param bean2 the second bean variable
+	 * @param left2 whether the second row belongs to the left source
+	 * @return the comparison, a block that returns an int
+	 */
+	private String getComparison(RelationalAlgebra source1, String bean1, boolean left1, RelationalAlgebra source2,
+			String bean2, boolean left2) {
+		List<ColumnDescriptor> columns1 = getColumns(left1);
+		List<ColumnDescriptor> columns2 = getColumns(left2);
+		StringBuilder comparison = new StringBuilder("{int c;");
+		for (int i = 0; i < columns1.size(); i++) {
+			Class<?> type1 = source1.getColumnType(columns1.get(i));
+			Class<?> type2 = source2.getColumnType(columns2.get(i));
+			String value1 = source1.getTypedValue(bean1, columns1.get(i));
+			String value2 = source2.getTypedValue(bean2, columns2.get(i));
+			comparison.append("if ((c = ");
+			if (Select.isIntegral(type1) && Select.isIntegral(type2)) {
+				comparison.append("Long.compare(").append(value1).append(", ").append(value2).append(")");
+			} else if (Select.isNumeric(type1) && Select.isNumeric(type2)) {
+				comparison.append("Double.compare(").append(value1).append(", ").append(value2).append(")");
+			} else {
+				comparison.append("org.apache.commons.lang3.ObjectUtils.compare((Comparable)")
+						.append(source1.getValue(bean1, columns1.get(i))).append(",(Comparable)")
+						.append(source2.getValue(bean2, columns2.get(i))).append(")");
+			}
+			comparison.append(") != 0) { return c; }");
+		}
+		return comparison.append("return 0;}").toString();
+	}
+
+	/**
+	 * Gets the join columns of a source.
+	 *
+	 * @param left whether the columns of the left source are returned
+	 * @return the columns
+	 */
+	private List<ColumnDescriptor> getColumns(boolean left) {
+		List<ColumnDescriptor> columns = new ArrayList<>();
+		for (Qualifier q : getQualifiers()) {
+			columns.add(left ? q.getColumnData() : (ColumnDescriptor) q.getParameterValue());
+		}
+		return columns;
+	}
+}
@@ -1,15 +1,20 @@
 package edu.rit.dao.impl.relational;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
 
 /**
  * The Class Projection.
  */
 public class Projection extends UnaryOperation {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The att names. */
 	private List<String> attNames;
 
@@ -33,21 +38,11 @@ public class Projection extends UnaryOperation {
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
+		streamCode.append(getStreamType()).append(" ");
 		streamCode.append(getReturnVar()).append(" = () ->");
 		streamCode.append(getSource().getReturnVar());
-		streamCode.append(".get().map(bean -> {");
-		streamCode.append("Map<String, Object> tmp = new java.util.HashMap<>();");
-		//streamCode.append("try {");
-		for (String columnName : attNames) {
-			streamCode.append("tmp.put(\"").append(columnName).append("\", bean.get(\"")
-					.append(columnName).append("\"));");
-		}
-		//streamCode.append("} catch (IllegalAccessException | java.lang.reflect.InvocationTargetException | NoSuchMethodException e) {");
-		//streamCode.append("System.err.println(e.getMessage());");
-		//streamCode.append("return null; }");
-		// if we do not return the next map, it gives us an error
-		streamCode.append("return tmp; })");
+		// only the projected columns are read from the source rows
+		streamCode.append(".get().map(bean -> ").append(newRow(c -> getSource().getValue("bean", c))).append(")");
 		return streamCode.toString();
 	}
 
@@ -59,6 +54,21 @@ public class Projection extends UnaryOperation {
 				+ "\n\tsource: " + getSource();
 	}
 
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getOrder()
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		// the order of the source up to the first column not projected
+		List<ColumnDescriptor> order = new ArrayList<>();
+		for (ColumnDescriptor c : getSource().getOrder()) {
+			if (!getAttOrder().containsValue(c)) {
+				break;
+			}
+			order.add(c);
+		}
+		return order;
+	}
+
 	/**
 	 * Gets the att names.
 	 *
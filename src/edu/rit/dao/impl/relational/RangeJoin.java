@@ -0,0 +1,237 @@
+package edu.rit.dao.impl.relational;
+
+import java.util.List;
+
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Qualifier;
+
+/**
+ * The Class RangeJoin. Join on inequalities between both sources, such as the
+ * band <code>a.start &lt;= b.ts and b.ts &lt; a.end</code>: the right source is
+ * sorted once on its join column, and every row of the left source finds the
+ * range of its matches with a binary search per bound instead of comparing
+ * itself with every right row. As in the selects, null is lower than any
+ * value.
+ */
+public class RangeJoin extends BinaryOperation {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The qualifiers. The bounds of the join: the column data belongs to the
+	 * left source, the parameter value is the sorted column of the right
+	 * source, the same for every qualifier, and the operator is one of &lt;,
+	 * &lt;=, &gt; and &gt;=.
+	 */
+	private List<Qualifier> qualifiers;
+
+	/**
+	 * Instantiates a new range join.
+	 *
+	 * @param name the name
+	 * @param leftSource the left source
+	 * @param rightSource the right source
+	 * @param qualifiers the qualifiers
+	 */
+	public RangeJoin(String name, RelationalAlgebra leftSource, RelationalAlgebra rightSource,
+			List<Qualifier> qualifiers) {
+		super(name, leftSource, rightSource);
+		this.qualifiers = qualifiers;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.rit.dao.iapi.relational.BinaryOperation#perform()
+	 */
+	public String perform() {
+		String right = "right" + getReturnVar();
+		String keys = "keys" + getReturnVar();
+		ColumnDescriptor column = getSortedColumn();
+		String keyType = getKeyType();
+		// null keys are sorted first, only the comparable keys may be null
+		String nulls = column.isNullable() && !keyType.equals("Comparable") ? "nulls" + getReturnVar() : "0";
+		StringBuilder streamCode = new StringBuilder();
+		// sort phase: the right source is sorted once on its join column
+		streamCode.append("List<").append(getRightSource().getRowType()).append("> ").append(right).append(" = ")
+				.append(getRightSource().getReturnVar()).append(".get().sorted((bean2, other) -> ")
+				.append(getComparison(keyType)).append(").collect(java.util.stream.Collectors.toList());");
+		if (!nulls.equals("0")) {
+			streamCode.append("int ").append(nulls).append(" = (int) ").append(right)
+					.append(".stream().filter(bean2 -> ").append(getRightSource().getValue("bean2", column))
+					.append(" == null).count();");
+		}
+		String rows = nulls.equals("0") ? right : right + ".subList(" + nulls + ", " + right + ".size())";
+		if (keyType.equals("Comparable")) {
+			streamCode.append("Comparable[] ").append(keys).append(" = ").append(rows)
+					.append(".stream().map(bean2 -> (Comparable) ").append(getRightSource().getValue("bean2", column))
+					.append(").toArray(Comparable[]::new);");
+		} else {
+			String mapTo = keyType.equals("long") ? "mapToLong" : "mapToDouble";
+			streamCode.append(keyType).append("[] ").append(keys).append(" = ").append(rows).append(".stream().")
+					.append(mapTo).append("(bean2 -> ").append(getRightSource().getTypedValue("bean2", column))
+					.append(").toArray();");
+		}
+		// probe phase: the bounds of every left row narrow the range of right
+		// rows it joins
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () ->");
+		streamCode.append(getLeftSource().getReturnVar()).append(".get().flatMap(bean1 -> {");
+		streamCode.append("int from = 0, to = ").append(right).append(".size();");
+		for (Qualifier q : qualifiers) {
+			streamCode.append(getBound(q, keyType, right, keys, nulls));
+		}
+		streamCode.append("return from < to ? ").append(right).append(".subList(from, to).stream().map(bean2 -> ");
+		// the rows of the sources are not modified, the right rows are shared by
+		// every left row
+		streamCode.append(newRow(c -> getLeftSource().getAttOrder().containsValue(c)
+				? getLeftSource().getValue("bean1", c) : getRightSource().getValue("bean2", c)));
+		streamCode.append(") : java.util.stream.Stream.<").append(getRowType()).append(">empty();})");
+		return streamCode.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
+	 */
+	public String toString() {
+		return "RangeJoin\nbeanName: " + getReturnVar() + "\n\tcolumns: " + qualifiers + "\nleftSource: "
+				+ getLeftSource() + "\nrightSource: " + getRightSource();
+	}
+
+	/**
+	 * Gets the qualifiers.
+	 *
+	 * @return the qualifiers
+	 */
+	public List<Qualifier> getQualifiers() {
+		return qualifiers;
+	}
+
+	/**
+	 * Gets the sorted column.
+	 *
+	 * @return the column of the right source the bounds are compared with
+	 */
+	public ColumnDescriptor getSortedColumn() {
+		return (ColumnDescriptor) qualifiers.get(0).getParameterValue();
+	}
+
+	/**
+	 * Checks if the qualifier is a lower bound of the sorted column.
+	 *
+	 * @param q the qualifier
+	 * @return true, if the sorted column is greater than the left column
+	 */
+	public static boolean isLowerBound(Qualifier q) {
+		return q.getOperator() == Operator.LESS || q.getOperator() == Operator.LEQ;
+	}
+
+	/**
+	 * Checks if the search for the bound skips the keys equal to the left
+	 * value.
+	 *
+	 * @param q the qualifier
+	 * @return true, if the bound starts after the keys equal to the left value
+	 */
+	public static boolean isAfterEquals(Qualifier q) {
+		// left < key starts after the equal keys, left >= key ends after them
+		return q.getOperator() == Operator.LESS || q.getOperator() == Operator.GREQ;
+	}
+
+	/**
+	 * Gets the key type. Java type of the sorted keys: long when the sorted
+	 * column and every left column are integers, double when they are all
+	 * numbers, Comparable otherwise.
+	 *
+	 * @return the key type
+	 */
+	private String getKeyType() {
+		Class<?> type = getRightSource().getColumnType(getSortedColumn());
+		boolean integral = Select.isIntegral(type);
+		boolean numeric = Select.isNumeric(type);
+		for (Qualifier q : qualifiers) {
+			Class<?> leftType = getLeftSource().getColumnType(q.getColumnData());
+			integral &= Select.isIntegral(leftType);
+			numeric &= Select.isNumeric(leftType);
+		}
+		return integral ? "long" : numeric ? "double" : "Comparable";
+	}
+
+	/**
+	 * Gets the comparison. Java code that compares the sorted column of two
+	 * right rows, null first.
+	 *
+	 * @param keyType the key type
+	 * @return the comparison
+	 */
+	private String getComparison(String keyType) {
+		ColumnDescriptor column = getSortedColumn();
+		String value1 = getRightSource().getValue("bean2", column);
+		String value2 = getRightSource().getValue("other", column);
+		String compare = "org.apache.commons.lang3.ObjectUtils.compare((Comparable)" + value1 + ",(Comparable)"
+				+ value2 + ")";
+		if (keyType.equals("Comparable")) {
+			return compare;
+		}
+		String primitive = (keyType.equals("long") ? "Long" : "Double") + ".compare("
+				+ getRightSource().getTypedValue("bean2", column) + ", " + getRightSource().getTypedValue("other", column)
+				+ ")";
+		if (!column.isNullable()) {
+			return primitive;
+		}
+		return "(" + value1 + " == null || " + value2 + " == null ? " + compare + " : " + primitive + ")";
+	}
+
+	/**
+	 * Gets the bound. Java code that narrows the range [from, to) of right
+	 * rows with the binary search of the left value among the sorted keys.
+	 *
+	 * @param q the qualifier
+	 * @param keyType the key type
+	 * @param right the sorted right rows
+	 * @param keys the sorted keys
+	 * @param nulls the number of null keys, sorted first
+	 * @return the bound
+	 */
+	private String getBound(Qualifier q, String keyType, String right, String keys, String nulls) {
+		boolean lower = isLowerBound(q);
+		String value = getLeftSource().getValue("bean1", q.getColumnData());
+		String comparison = isAfterEquals(q) ? " <= " : " < ";
+		StringBuilder bound = new StringBuilder("{");
+		if (keyType.equals("Comparable")) {
+			// ObjectUtils compares the null keys and values as the selects do
+			bound.append("Comparable x = (Comparable) ").append(value).append(";");
+			comparison = comparison.replace(" ", "");
+			bound.append("int lo = 0, hi = ").append(right).append(".size();");
+			bound.append("while (lo < hi) { int mid = (lo + hi) >>> 1; ");
+			bound.append("if (org.apache.commons.lang3.ObjectUtils.compare(").append(keys).append("[mid], x) ")
+					.append(comparison).append(" 0) { lo = mid + 1; } else { hi = mid; } }");
+		} else {
+			if (q.getColumnData().isNullable()) {
+				// null is lower than any key: it is above the null keys only
+				bound.append("if (").append(value).append(" == null) {");
+				if (lower) {
+					bound.append(isAfterEquals(q) ? "from = Math.max(from, " + nulls + ");" : "");
+				} else {
+					bound.append("to = Math.min(to, ").append(isAfterEquals(q) ? nulls : "0").append(");");
+				}
+				bound.append("} else {");
+			}
+			bound.append(keyType).append(" x = ").append(getLeftSource().getTypedValue("bean1", q.getColumnData()))
+					.append(";");
+			bound.append("int lo = ").append(nulls).append(", hi = ").append(right).append(".size();");
+			bound.append("while (lo < hi) { int mid = (lo + hi) >>> 1; ");
+			bound.append("if (").append(keys).append(nulls.equals("0") ? "[mid]" : "[mid - " + nulls + "]")
+					.append(comparison).append("x) { lo = mid + 1; } else { hi = mid; } }");
+		}
+		bound.append(lower ? "from = Math.max(from, lo);" : "to = Math.min(to, lo);");
+		if (!keyType.equals("Comparable") && q.getColumnData().isNullable()) {
+			bound.append("}");
+		}
+		return bound.append("}").toString();
+	}
+}
@@ -1,18 +1,40 @@
 package edu.rit.dao.impl.relational;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.ClassUtils;
 
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 import edu.rit.dao.iapi.relational.UnaryOperation;
 import edu.rit.dao.impl.store.access.ColumnDescriptor;
 import edu.rit.dao.impl.store.access.Operator;
+import edu.rit.dao.impl.store.access.Parameter;
 import edu.rit.dao.impl.store.access.Qualifier;
+import edu.rit.utils.Utils;
 
 /**
  * The Class Select.
  */
 public class Select extends UnaryOperation {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant QUALIFIER_INDEX. Qualifiers are referenced by their index in the predicate */
+	private static final Pattern QUALIFIER_INDEX = Pattern.compile("\\d+");
+
+	/** The Constant NUMERIC_LITERAL. */
+	private static final Pattern NUMERIC_LITERAL = Pattern.compile("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?");
+
+	/** The Constant AND. */
+	private static final String AND = " && ";
+
+	/** The Constant OR. */
+	private static final String OR = " || ";
+
 	/** The qualifiers. */
 	private List<Qualifier> qualifiers;
 
@@ -44,46 +66,138 @@ public class Select extends UnaryOperation {
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
+		streamCode.append(getStreamType()).append(" ");
 		streamCode.append(getReturnVar()).append(" = () ->");
 		streamCode.append(getSource().getReturnVar()).append(".get().filter(bean -> ");
-
-		int counter = 0;
-		for (Qualifier q : qualifiers) {
-
-			String attName = q.getColumnData().getAlias() != null ? q.getColumnData().getAlias()
-					: q.getColumnData().getName();
-			StringBuilder clause = new StringBuilder();
-			if (q.getParameterValue() != null) {
-				// ObjectUtils is safe null comparison
-				clause.append("org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get(\"").append(attName)
-						.append("\"),");
-				if (q.getParameterValue() instanceof ColumnDescriptor) {
-					String value = ((ColumnDescriptor) q.getParameterValue()).getAlias() != null
-							? ((ColumnDescriptor) q.getParameterValue()).getAlias()
-							: ((ColumnDescriptor) q.getParameterValue()).getName();
-					// comparing two attributes
-					clause.append("(Comparable)bean.get(\"").append(value).append("\"))");
-				} else {
-					// comparing attribute against a value
-					clause.append("(Comparable)").append(q.getParameterValue()).append(")");
-				}
-				clause.append(getOperatorForCompareTo(q.getOperator()));
-			} else {
-				// comparing whether the attribute is null
-				clause.append("bean.get(\"").append(attName).append("\")").append(getOperator(q.getOperator()))
-						.append("null");
-			}
-
-			predicate = predicate.replace(String.valueOf(counter), clause.toString());
-			counter++;
+		// replacing every qualifier index by its clause, the literal values
+		// inside the clauses must not be replaced again
+		Matcher matcher = QUALIFIER_INDEX.matcher(predicate);
+		StringBuffer filter = new StringBuffer();
+		while (matcher.find()) {
+			Qualifier q = qualifiers.get(Integer.parseInt(matcher.group()));
+			matcher.appendReplacement(filter, Matcher.quoteReplacement(getClause(q)));
 		}
-		streamCode.append(predicate.toString());
+		matcher.appendTail(filter);
+		streamCode.append(filter);
 		streamCode.append(")");
 
 		return streamCode.toString();
 	}
 
+	/**
+	 * Split conjuncts. Breaks the predicate into its top level AND terms,
+	 * every term is returned as a select over the same source.
+	 *
+	 * @return the list of conjuncts
+	 */
+	public List<Select> splitConjuncts() {
+		List<Select> conjuncts = new ArrayList<>();
+		for (String term : splitAnd(predicate)) {
+			List<Qualifier> termQualifiers = new ArrayList<>();
+			String termPredicate = renumber(term, qualifiers, termQualifiers, 0);
+			Select conjunct = new Select(Utils.randomIdentifier("select"), termQualifiers, termPredicate, getSource());
+			conjunct.setAttOrder(getAttOrder());
+			conjuncts.add(conjunct);
+		}
+		return conjuncts;
+	}
+
+	/**
+	 * And. Merges the predicates of the conjuncts into a single select over
+	 * the source.
+	 *
+	 * @param conjuncts
+	 *            the conjuncts
+	 * @param source
+	 *            the source
+	 * @return the select
+	 */
+	public static Select and(List<Select> conjuncts, RelationalAlgebra source) {
+		List<Qualifier> andQualifiers = new ArrayList<>();
+		String andPredicate = null;
+		for (Select conjunct : conjuncts) {
+			String term = renumber(conjunct.getPredicate(), conjunct.getQualifiers(), andQualifiers,
+					andQualifiers.size());
+			andPredicate = andPredicate == null ? term : "(" + andPredicate + AND + term + ")";
+		}
+		Select select = new Select(Utils.randomIdentifier("select"), andQualifiers, andPredicate, source);
+		select.setAttOrder(source.getAttOrder());
+		return select;
+	}
+
+	/**
+	 * Or. Merges the predicates of the disjuncts into a single select over
+	 * the source, a row passes if it satisfies any of them.
+	 *
+	 * @param disjuncts
+	 *            the disjuncts
+	 * @param source
+	 *            the source
+	 * @return the select
+	 */
+	public static Select or(List<Select> disjuncts, RelationalAlgebra source) {
+		List<Qualifier> orQualifiers = new ArrayList<>();
+		String orPredicate = null;
+		for (Select disjunct : disjuncts) {
+			String term = renumber(disjunct.getPredicate(), disjunct.getQualifiers(), orQualifiers,
+					orQualifiers.size());
+			orPredicate = orPredicate == null ? term : "(" + orPredicate + OR + term + ")";
+		}
+		Select select = new Select(Utils.randomIdentifier("select"), orQualifiers, orPredicate, source);
+		select.setAttOrder(source.getAttOrder());
+		return select;
+	}
+
+	/**
+	 * Checks if is equi join. The predicate is a single equality between a
+	 * column of the left source and a column of the right source.
+	 *
+	 * @param left
+	 *            the left source
+	 * @param right
+	 *            the right source
+	 * @return true, if is equi join
+	 */
+	public boolean isEquiJoin(RelationalAlgebra left, RelationalAlgebra right) {
+		if (qualifiers.size() != 1 || !predicate.trim().equals("0")) {
+			return false;
+		}
+		Qualifier q = qualifiers.get(0);
+		if (q.getOperator() != Operator.EQUALS || !(q.getParameterValue() instanceof ColumnDescriptor)) {
+			return false;
+		}
+		ColumnDescriptor c1 = q.getColumnData();
+		ColumnDescriptor c2 = (ColumnDescriptor) q.getParameterValue();
+		return (left.getAttOrder().containsValue(c1) && right.getAttOrder().containsValue(c2))
+				|| (left.getAttOrder().containsValue(c2) && right.getAttOrder().containsValue(c1));
+	}
+
+	/**
+	 * Checks if is range join. The predicate is a single comparison with &lt;,
+	 * &lt;=, &gt; or &gt;= between a column of each source.
+	 *
+	 * @param left
+	 *            the left source
+	 * @param right
+	 *            the right source
+	 * @return true, if is range join
+	 */
+	public boolean isRangeJoin(RelationalAlgebra left, RelationalAlgebra right) {
+		if (qualifiers.size() != 1 || !predicate.trim().equals("0")) {
+			return false;
+		}
+		Qualifier q = qualifiers.get(0);
+		int operator = q.getOperator();
+		if ((operator != Operator.LESS && operator != Operator.LEQ && operator != Operator.GRE
+				&& operator != Operator.GREQ) || !(q.getParameterValue() instanceof ColumnDescriptor)) {
+			return false;
+		}
+		ColumnDescriptor c1 = q.getColumnData();
+		ColumnDescriptor c2 = (ColumnDescriptor) q.getParameterValue();
+		return (left.getAttOrder().containsValue(c1) && right.getAttOrder().containsValue(c2))
+				|| (left.getAttOrder().containsValue(c2) && right.getAttOrder().containsValue(c1));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -93,6 +207,290 @@ public class Select extends UnaryOperation {
 		return "Select\nbeanName: " + getReturnVar() + "\n\tcolumns: " + qualifiers + "\nsource: " + getSource();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// filters return the rows of their source
+		return getSource();
+	}
+
+	/**
+	 * Gets the qualifiers.
+	 *
+	 * @return the qualifiers
+	 */
+	public List<Qualifier> getQualifiers() {
+		return qualifiers;
+	}
+
+	/**
+	 * Gets the predicate.
+	 *
+	 * @return the predicate
+	 */
+	public String getPredicate() {
+		return predicate;
+	}
+
+	/**
+	 * Gets the clause. Java code that evaluates the qualifier.
+	 *
+	 * @param q
+	 *            the qualifier
+	 * @return the clause
+	 */
+	private String getClause(Qualifier q) {
+		String value = getSource().getValue("bean", q.getColumnData());
+		StringBuilder clause = new StringBuilder();
+		String primitiveClause = getPrimitiveClause(q);
+		if (primitiveClause != null) {
+			// numbers are compared unboxed, ObjectUtils only compares nulls
+			clause.append(primitiveClause);
+		} else if (q.getParameterValue() != null) {
+			// ObjectUtils is safe null comparison
+			clause.append("org.apache.commons.lang3.ObjectUtils.compare((Comparable)").append(value).append(",");
+			if (q.getParameterValue() instanceof ColumnDescriptor) {
+				// comparing two attributes
+				clause.append("(Comparable)").append(getSource().getValue("bean", (ColumnDescriptor) q.getParameterValue()))
+						.append(")");
+			} else if (q.getParameterValue() instanceof Parameter) {
+				// comparing attribute against an argument of the method
+				clause.append("(Comparable)").append(((Parameter) q.getParameterValue()).getVariable()).append(")");
+			} else {
+				// comparing attribute against a value
+				clause.append("(Comparable)").append(q.getParameterValue()).append(")");
+			}
+			clause.append(getOperatorForCompareTo(q.getOperator()));
+		} else if (!q.getColumnData().isNullable()) {
+			// primitive attributes are never null
+			clause.append(q.getOperator() == Operator.DISTINCT);
+		} else {
+			// comparing whether the attribute is null
+			clause.append(value).append(getOperator(q.getOperator())).append("null");
+		}
+		return clause.toString();
+	}
+
+	/**
+	 * Gets the primitive clause. Java code that compares two numeric values
+	 * with the relational operators of their primitive types, so neither the
+	 * values nor a literal are boxed. A nullable value that is null is compared
+	 * with ObjectUtils as before, null is less than any number.
+	 *
+	 * @param q
+	 *            the qualifier
+	 * @return the clause, null if a value is not a number
+	 */
+	private String getPrimitiveClause(Qualifier q) {
+		String operator = getOperator(q.getOperator());
+		Object parameterValue = q.getParameterValue();
+		if (operator == null || parameterValue == null) {
+			return null;
+		}
+		ColumnDescriptor column = q.getColumnData();
+		Class<?> type = getSource().getColumnType(column);
+		if (!isNumeric(type)) {
+			return null;
+		}
+		String value = getSource().getValue("bean", column);
+		String typedValue = getSource().getTypedValue("bean", column);
+		String parameter;
+		String typedParameter;
+		Class<?> parameterType;
+		if (parameterValue instanceof ColumnDescriptor) {
+			parameterType = getSource().getColumnType((ColumnDescriptor) parameterValue);
+			parameter = getSource().getValue("bean", (ColumnDescriptor) parameterValue);
+			typedParameter = getSource().getTypedValue("bean", (ColumnDescriptor) parameterValue);
+		} else if (parameterValue instanceof Parameter) {
+			parameter = ((Parameter) parameterValue).getVariable();
+			typedParameter = parameter;
+			parameterType = ((Parameter) parameterValue).getType();
+		} else {
+			parameter = getNumericLiteral(parameterValue.toString().trim());
+			typedParameter = parameter;
+			// literals are never null
+			parameterType = double.class;
+			if (parameter == null) {
+				return null;
+			}
+		}
+		if (!isNumeric(parameterType)) {
+			return null;
+		}
+		StringBuilder nulls = new StringBuilder();
+		for (String nullable : new String[] { type.isPrimitive() ? null : value,
+				parameterType.isPrimitive() ? null : parameter }) {
+			if (nullable != null) {
+				nulls.append(nulls.length() > 0 ? " || " : "").append(nullable).append(" == null");
+			}
+		}
+		String comparison = unbox(typedValue, type) + " " + operator + " " + unbox(typedParameter, parameterType);
+		if (nulls.length() == 0) {
+			return comparison;
+		}
+		return "(" + nulls + " ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)" + value + ",(Comparable)"
+				+ parameter + ")" + getOperatorForCompareTo(q.getOperator()) + " : " + comparison + ")";
+	}
+
+	/**
+	 * Checks if is numeric.
+	 *
+	 * @param type
+	 *            the type
+	 * @return true, if the type is a primitive number or its wrapper
+	 */
+	static boolean isNumeric(Class<?> type) {
+		Class<?> primitive = ClassUtils.wrapperToPrimitive(type);
+		if (primitive == null) {
+			primitive = type;
+		}
+		return primitive == int.class || primitive == long.class || primitive == double.class
+				|| primitive == float.class || primitive == short.class || primitive == byte.class;
+	}
+
+	/**
+	 * Checks if is integral.
+	 *
+	 * @param type
+	 *            the type
+	 * @return true, if the type is a primitive integer or its wrapper
+	 */
+	static boolean isIntegral(Class<?> type) {
+		Class<?> primitive = type.isPrimitive() ? type : ClassUtils.wrapperToPrimitive(type);
+		return primitive == int.class || primitive == long.class || primitive == short.class
+				|| primitive == byte.class;
+	}
+
+	/**
+	 * Unbox. Java code of the primitive value, the wrappers are unboxed
+	 * explicitly so two of them are never compared by reference.
+	 *
+	 * @param value
+	 *            the java code of the value
+	 * @param type
+	 *            the type of the value
+	 * @return the java code of the primitive value
+	 */
+	private static String unbox(String value, Class<?> type) {
+		return type.isPrimitive() ? value : value + "." + ClassUtils.wrapperToPrimitive(type).getName() + "Value()";
+	}
+
+	/**
+	 * Gets the numeric literal. Integers too large for an int are long
+	 * literals.
+	 *
+	 * @param literal
+	 *            the literal of the predicate
+	 * @return the java literal, null if the literal is not a number
+	 */
+	private static String getNumericLiteral(String literal) {
+		if (!NUMERIC_LITERAL.matcher(literal).matches()) {
+			return null;
+		}
+		if (literal.contains(".") || literal.contains("e") || literal.contains("E")) {
+			return literal;
+		}
+		try {
+			Integer.parseInt(literal);
+			return literal;
+		} catch (NumberFormatException e) {
+			try {
+				Long.parseLong(literal);
+				return literal + "L";
+			} catch (NumberFormatException e1) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Split and. Returns the top level AND terms of the predicate, the
+	 * predicate listener always encloses an AND expression in brackets.
+	 *
+	 * @param predicate
+	 *            the predicate
+	 * @return the list
+	 */
+	private static List<String> splitAnd(String predicate) {
+		List<String> terms = new ArrayList<>();
+		String p = predicate.trim();
+		if (p.startsWith("(") && closingBracket(p, 0) == p.length() - 1) {
+			String inner = p.substring(1, p.length() - 1);
+			int depth = 0;
+			for (int i = 0; i < inner.length(); i++) {
+				char c = inner.charAt(i);
+				if (c == '(') {
+					depth++;
+				} else if (c == ')') {
+					depth--;
+				} else if (depth == 0 && inner.startsWith(AND, i)) {
+					terms.addAll(splitAnd(inner.substring(0, i)));
+					terms.addAll(splitAnd(inner.substring(i + AND.length())));
+					return terms;
+				}
+			}
+		}
+		terms.add(p);
+		return terms;
+	}
+
+	/**
+	 * Closing bracket.
+	 *
+	 * @param text
+	 *            the text
+	 * @param open
+	 *            the position of the opening bracket
+	 * @return the position of the matching closing bracket
+	 */
+	private static int closingBracket(String text, int open) {
+		int depth = 0;
+		for (int i = open; i < text.length(); i++) {
+			if (text.charAt(i) == '(') {
+				depth++;
+			} else if (text.charAt(i) == ')') {
+				depth--;
+				if (depth == 0) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Renumber. Moves the qualifiers referenced by the predicate into the
+	 * target list and updates their indexes in the predicate.
+	 *
+	 * @param predicate
+	 *            the predicate
+	 * @param source
+	 *            the source qualifiers
+	 * @param target
+	 *            the target qualifiers
+	 * @param offset
+	 *            the first index available in the target
+	 * @return the renumbered predicate
+	 */
+	private static String renumber(String predicate, List<Qualifier> source, List<Qualifier> target, int offset) {
+		Matcher matcher = QUALIFIER_INDEX.matcher(predicate);
+		StringBuffer renumbered = new StringBuffer();
+		while (matcher.find()) {
+			Qualifier q = source.get(Integer.parseInt(matcher.group()));
+			int index = target.lastIndexOf(q);
+			if (index < offset) {
+				target.add(q);
+				index = target.size() - 1;
+			}
+			matcher.appendReplacement(renumbered, String.valueOf(index));
+		}
+		matcher.appendTail(renumbered);
+		return renumbered.toString();
+	}
+
 	/**
 	 * Gets the operator for compare to.
 	 *
@@ -0,0 +1,179 @@
+package edu.rit.dao.impl.relational;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.SortKey;
+
+/**
+ * The Class Sort. Orders the rows of the source by the sort keys, compared
+ * with a comparator built once per key: primitive values are compared without
+ * boxing them, nulls are lower than any value. With a limit only the top rows
+ * are kept, in a bounded heap that holds at most limit rows at any time,
+ * instead of sorting the whole source.
+ */
+public class Sort extends UnaryOperation {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant NO_LIMIT. */
+	public static final long NO_LIMIT = -1;
+
+	/** The keys. */
+	private List<SortKey> keys;
+
+	/** The limit. Rows returned, NO_LIMIT to return all of them. */
+	private long limit = NO_LIMIT;
+
+	/**
+	 * Instantiates a new sort.
+	 *
+	 * @param name the name
+	 * @param keys the keys
+	 * @param source the source
+	 */
+	public Sort(String name, List<SortKey> keys, RelationalAlgebra source) {
+		super(name, source);
+		this.keys = keys;
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.UnaryOperation#perform()
+	 */
+	public String perform() {
+		StringBuilder streamCode = new StringBuilder();
+		String order = "order" + getReturnVar();
+		String row = getRowType();
+		streamCode.append("java.util.Comparator<").append(row).append("> ").append(order).append(" = ")
+				.append(getComparator()).append(";");
+		streamCode.append(getStreamType()).append(" ");
+		streamCode.append(getReturnVar()).append(" = () -> ");
+		streamCode.append(getSource().getReturnVar()).append(".get()");
+		if (limit == 0) {
+			streamCode.append(".limit(0)");
+		} else if (limit > 0) {
+			// top-N: the heap is ordered from the last row kept, which is
+			// replaced by every lower row
+			String offer = "if (heap.size() < " + limit + "L) { heap.offer(bean); } else if (" + order
+					+ ".compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }";
+			streamCode.append(".collect(java.util.stream.Collector.of(() -> new java.util.PriorityQueue<").append(row)
+					.append(">(").append(Math.min(limit, 1024) + 1).append(", ").append(order).append(".reversed())");
+			streamCode.append(", (heap, bean) -> {").append(offer).append("}");
+			streamCode.append(", (heap, heap2) -> { heap2.forEach(bean -> {").append(offer).append("}); return heap; }))");
+			streamCode.append(".stream().sorted(").append(order).append(")");
+		} else {
+			streamCode.append(".sorted(").append(order).append(")");
+		}
+		return streamCode.toString();
+	}
+
+	/**
+	 * Gets the comparator. Java code of the comparator of the rows, the keys
+	 * are compared in order.
+	 *
+	 * @return the comparator
+	 */
+	private String getComparator() {
+		StringBuilder comparator = new StringBuilder();
+		for (int i = 0; i < keys.size(); i++) {
+			String key = getComparator(keys.get(i));
+			comparator.append(i == 0 ? key : ".thenComparing(" + key + ")");
+		}
+		return comparator.toString();
+	}
+
+	/**
+	 * Gets the comparator of a key. Primitive values are compared as
+	 * primitives, comparable values in their natural order and other values
+	 * as comparables.
+	 *
+	 * @param key the key
+	 * @return the comparator
+	 */
+	private String getComparator(SortKey key) {
+		ColumnDescriptor c = key.getColumn();
+		String row = getRowType();
+		Class<?> type = getSource().getColumnType(c);
+		String value = getSource().getTypedValue("bean", c);
+		if (type.isPrimitive() && type != boolean.class) {
+			String comparing = type == long.class ? "comparingLong"
+					: type == double.class || type == float.class ? "comparingDouble" : "comparingInt";
+			return "java.util.Comparator.<" + row + ">" + comparing + "(bean -> " + value + ")"
+					+ (key.isDescending() ? ".reversed()" : "");
+		}
+		if (Comparable.class.isAssignableFrom(type) || type == boolean.class) {
+			String name = type == boolean.class ? Boolean.class.getName() : type.getName();
+			String order = key.isDescending()
+					? "java.util.Comparator.nullsLast(java.util.Comparator.<" + name + ">reverseOrder())"
+					: "java.util.Comparator.nullsFirst(java.util.Comparator.<" + name + ">naturalOrder())";
+			return "java.util.Comparator.comparing((" + row + " bean) -> " + value + ", " + order + ")";
+		}
+		// values of unknown type, nulls are lower than any value
+		String value1 = "(Comparable) " + getSource().getValue("bean1", c);
+		String value2 = "(Comparable) " + getSource().getValue("bean2", c);
+		return "((java.util.Comparator<" + row + ">) (bean1, bean2) -> org.apache.commons.lang3.ObjectUtils.compare("
+				+ (key.isDescending() ? value2 + ", " + value1 : value1 + ", " + value2) + "))";
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowSource()
+	 */
+	public RelationalAlgebra getRowSource() {
+		// the rows are reordered without modifying them
+		return getSource();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getOrder()
+	 */
+	public List<ColumnDescriptor> getOrder() {
+		// the ascending keys before the first descending one
+		List<ColumnDescriptor> order = new ArrayList<>();
+		for (SortKey key : keys) {
+			if (key.isDescending()) {
+				break;
+			}
+			order.add(key.getColumn());
+		}
+		return order;
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
+	 */
+	public String toString() {
+		return "Sort\n\tbeanName: " + getReturnVar() + "\n\tkeys: " + keys + "\n\tlimit: " + limit + "\n\tsource: "
+				+ getSource();
+	}
+
+	/**
+	 * Gets the keys.
+	 *
+	 * @return the keys
+	 */
+	public List<SortKey> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * Gets the limit.
+	 *
+	 * @return the limit, NO_LIMIT if all the rows are returned
+	 */
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Sets the limit. Only the top rows are kept.
+	 *
+	 * @param limit the limit to set
+	 */
+	public void setLimit(long limit) {
+		this.limit = limit;
+	}
+}
@@ -1,15 +1,27 @@
 package edu.rit.dao.impl.relational;
 
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
 
 /**
  * The Class TableAccess.
  */
 public class TableAccess extends UnaryOperation{
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 	
 	/** The table name. */
 	private String tableName;
+
+	/** The dto class. Class of the user DTOs stored in the table. */
+	private Class<?> dtoClass;
 	
 	/**
 	 * Instantiates a new table access.
@@ -28,12 +40,42 @@ public class TableAccess extends UnaryOperation{
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
-		streamCode.append(getReturnVar()).append(" = () -> ").append(tableName).append("ToMap(");
-		streamCode.append(tableName).append(").stream()");
+		streamCode.append(getStreamType()).append(" ");
+		// the user DTOs are streamed straight from the input collection, the
+		// columns are read with the getters only when they are needed
+		streamCode.append(getReturnVar()).append(" = () -> ").append(tableName)
+				.append(isParallel() ? ".parallelStream()" : ".stream()");
 		return streamCode.toString();
 	}
 	
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#isUserDTORows()
+	 */
+	public boolean isUserDTORows() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getRowType()
+	 */
+	public String getRowType() {
+		return dtoClass.getCanonicalName();
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getValue(java.lang.String, edu.rit.dao.impl.store.access.ColumnDescriptor)
+	 */
+	public String getValue(String bean, ColumnDescriptor column) {
+		return bean + "." + getReadMethod(column).getName() + "()";
+	}
+
+	/* (non-Javadoc)
+	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#getValueType(edu.rit.dao.impl.store.access.ColumnDescriptor)
+	 */
+	public Class<?> getValueType(ColumnDescriptor column) {
+		return getReadMethod(column).getReturnType();
+	}
+
 	/* (non-Javadoc)
 	 * @see edu.rit.dao.iapi.relational.RelationalAlgebra#toString()
 	 */
@@ -49,5 +91,42 @@ public class TableAccess extends UnaryOperation{
 	 */
 	public String getTableName() {
 		return tableName;
-	}	
+	}
+
+	/**
+	 * Gets the dto class.
+	 *
+	 * @return the dtoClass
+	 */
+	public Class<?> getDtoClass() {
+		return dtoClass;
+	}
+
+	/**
+	 * Sets the dto class.
+	 *
+	 * @param dtoClass the dtoClass to set
+	 */
+	public void setDtoClass(Class<?> dtoClass) {
+		this.dtoClass = dtoClass;
+	}
+
+	/**
+	 * Gets the read method of the DTO property mapped to the column.
+	 *
+	 * @param column the column
+	 * @return the read method
+	 */
+	public Method getReadMethod(ColumnDescriptor column) {
+		try {
+			for (PropertyDescriptor pd : Introspector.getBeanInfo(dtoClass, Object.class).getPropertyDescriptors()) {
+				if (pd.getName().equals(column.getName()) && pd.getReadMethod() != null) {
+					return pd.getReadMethod();
+				}
+			}
+		} catch (IntrospectionException e) {
+			System.err.println(e.getMessage());
+		}
+		throw new IllegalStateException("No read method for column " + column.getName() + " in " + dtoClass);
+	}
 }
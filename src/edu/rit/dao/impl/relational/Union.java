@@ -8,6 +8,9 @@ import edu.rit.dao.iapi.relational.RelationalAlgebra;
  */
 public class Union extends BinaryOperation {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new union.
 	 *
@@ -26,11 +29,11 @@ public class Union extends BinaryOperation {
 	 */
 	public String perform() {
 		StringBuilder streamCode = new StringBuilder();
-		streamCode.append("java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> ");
+		streamCode.append(getStreamType()).append(" ");
 		streamCode.append(getReturnVar()).append(" = () ->");
 		streamCode.append("java.util.stream.Stream.concat(");
-		streamCode.append(getLeftSource().getReturnVar() + ".get(), ");
-		streamCode.append(getRightSource().getReturnVar() + ".get())");
+		streamCode.append(getLeftSource().getRows() + ", ");
+		streamCode.append(getRightRows() + ")");
 		return streamCode.toString();
 	}
 
@@ -0,0 +1,135 @@
+package edu.rit.dao.impl.statistics;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * The Class ColumnStatistics. Number of values and nulls, range of the values
+ * and sketch of the distinct values of a column, updated with every value
+ * added.
+ */
+public class ColumnStatistics implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The row count. Values added, nulls included. */
+	private long rowCount;
+
+	/** The null count. */
+	private long nullCount;
+
+	/** The min. Lowest value, null if the values are not comparable. */
+	private Object min;
+
+	/** The max. Highest value, null if the values are not comparable. */
+	private Object max;
+
+	/** The sketch. Distinct values, nulls excluded. */
+	private HyperLogLog sketch;
+
+	/**
+	 * Instantiates a new column statistics without values.
+	 *
+	 * @param precision the precision of the sketch of the distinct values
+	 */
+	public ColumnStatistics(int precision) {
+		this.sketch = new HyperLogLog(precision);
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value the value
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void add(Object value) {
+		rowCount++;
+		if (value == null) {
+			nullCount++;
+			return;
+		}
+		sketch.add(value);
+		if (value instanceof Comparable) {
+			if (min == null || ObjectUtils.compare((Comparable) min, (Comparable) value) > 0) {
+				min = value;
+			}
+			if (max == null || ObjectUtils.compare((Comparable) max, (Comparable) value) < 0) {
+				max = value;
+			}
+		}
+	}
+
+	/**
+	 * Gets the row count.
+	 *
+	 * @return the number of values, nulls included
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Gets the null count.
+	 *
+	 * @return the null count
+	 */
+	public long getNullCount() {
+		return nullCount;
+	}
+
+	/**
+	 * Gets the null fraction.
+	 *
+	 * @return the fraction of the values that are null, 0 without values
+	 */
+	public double getNullFraction() {
+		return rowCount == 0 ? 0 : (double) nullCount / rowCount;
+	}
+
+	/**
+	 * Gets the distinct count. Estimated with the sketch, never more than the
+	 * values that are not null.
+	 *
+	 * @return the distinct count
+	 */
+	public long getDistinctCount() {
+		return Math.min(sketch.estimate(), rowCount - nullCount);
+	}
+
+	/**
+	 * Gets the min.
+	 *
+	 * @return the min
+	 */
+	public Object getMin() {
+		return min;
+	}
+
+	/**
+	 * Gets the max.
+	 *
+	 * @return the max
+	 */
+	public Object getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the sketch.
+	 *
+	 * @return the sketch of the distinct values
+	 */
+	public HyperLogLog getSketch() {
+		return sketch;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "distinct: " + getDistinctCount() + ", nulls: " + getNullFraction() + ", min: " + min + ", max: "
+				+ max;
+	}
+}
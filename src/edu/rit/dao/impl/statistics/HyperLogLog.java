@@ -0,0 +1,124 @@
+package edu.rit.dao.impl.statistics;
+
+import java.io.Serializable;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * The Class HyperLogLog. Sketch of the number of distinct values added to it,
+ * in a fixed amount of memory whatever the number of values: every value is
+ * hashed, the first bits of the hash choose a register and the register keeps
+ * the longest run of leading zeros seen in the other bits. With 2^precision
+ * registers the standard error of the estimate is about
+ * 1.04 / sqrt(2^precision), 1.6% for the default precision. Two sketches with
+ * the same precision are merged into the sketch of the union of their values.
+ */
+public class HyperLogLog implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant DEFAULT_PRECISION. 4096 registers of one byte. */
+	public static final int DEFAULT_PRECISION = 12;
+
+	/** The Constant HASH. Spreads the hash codes of the values over 64 bits. */
+	private static final HashFunction HASH = Hashing.murmur3_128();
+
+	/** The precision. Number of bits of the hash that choose the register. */
+	private int precision;
+
+	/** The registers. Longest run of leading zeros plus one of every register. */
+	private byte[] registers;
+
+	/**
+	 * Instantiates a new hyper log log with the default precision.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Instantiates a new hyper log log.
+	 *
+	 * @param precision the precision, between 4 and 16
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("The precision must be between 4 and 16: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds a value, equal values are counted once.
+	 *
+	 * @param value the value, not null
+	 */
+	public void add(Object value) {
+		long hash = HASH.hashInt(value.hashCode()).asLong();
+		int index = (int) (hash >>> (64 - precision));
+		// the bit set after the remaining bits bounds the run of zeros
+		long remaining = (hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+		if (registers[index] < rank) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Merge the values of another sketch into this one.
+	 *
+	 * @param other the other sketch
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("The sketches have different precisions: " + precision + ", "
+					+ other.precision);
+		}
+		for (int i = 0; i < registers.length; i++) {
+			registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+		}
+	}
+
+	/**
+	 * Estimate the number of distinct values added.
+	 *
+	 * @return the estimated distinct count
+	 */
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// few values: linear counting of the empty registers is more accurate
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Gets the precision.
+	 *
+	 * @return the precision
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "~" + estimate();
+	}
+}
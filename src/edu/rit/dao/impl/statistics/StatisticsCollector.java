@@ -0,0 +1,100 @@
+package edu.rit.dao.impl.statistics;
+
+import java.util.Collection;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.rit.utils.Utils;
+
+/**
+ * The Class StatisticsCollector. Statistics of collections of user DTOs,
+ * computed in a single pass over the rows and kept while the collection is
+ * referenced elsewhere. The collections are told apart by identity, not by
+ * equals: two lists with the same rows have statistics of their own. The
+ * statistics of a collection are computed again when its size changes, unless
+ * the rows added are given to {@link #update(Collection, Collection)}. The
+ * statistics may be limited to some columns, e.g. those the joins and
+ * selections of a query read; the other properties of the rows are not read
+ * until a query needs them.
+ */
+public class StatisticsCollector {
+
+	/** The statistics. Statistics by collection, weak keys compared by identity. */
+	private Cache<Collection<?>, TableStatistics> statistics = CacheBuilder.newBuilder().weakKeys().build();
+
+	/**
+	 * Gets the statistics of every column of a collection.
+	 *
+	 * @param rows the rows
+	 * @return the table statistics
+	 */
+	public TableStatistics get(Collection<?> rows) {
+		TableStatistics table = statistics.getIfPresent(rows);
+		if (table == null || table.getRowCount() != rows.size()) {
+			table = TableStatistics.of(rows);
+			statistics.put(rows, table);
+		} else if (table.getDtoClass() != null) {
+			// the statistics may have only some columns
+			table.addColumns(rows, Utils.propertyTypes(table.getDtoClass()).keySet());
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the statistics of some columns of a collection, the columns missing
+	 * are added to the statistics already computed.
+	 *
+	 * @param rows the rows
+	 * @param names the property names of the columns
+	 * @return the table statistics, with other columns if they were computed
+	 *         before
+	 */
+	public TableStatistics get(Collection<?> rows, Collection<String> names) {
+		TableStatistics table = statistics.getIfPresent(rows);
+		if (table == null || table.getRowCount() != rows.size()) {
+			table = TableStatistics.of(rows, names);
+			statistics.put(rows, table);
+		} else {
+			table.addColumns(rows, names);
+		}
+		return table;
+	}
+
+	/**
+	 * Update the statistics of a collection with the rows added to it, the
+	 * rows already there are not read again.
+	 *
+	 * @param rows the rows, the added ones included
+	 * @param added the rows added since the statistics were computed
+	 * @return the table statistics
+	 */
+	public TableStatistics update(Collection<?> rows, Collection<?> added) {
+		TableStatistics table = statistics.getIfPresent(rows);
+		if (table != null && table.getDtoClass() != null && table.getRowCount() + added.size() == rows.size()) {
+			table.addAll(added);
+			return table;
+		}
+		// the statistics are missing or do not match the rows
+		return get(rows);
+	}
+
+	/**
+	 * Invalidate the statistics of a collection, e.g. after its rows are
+	 * modified in place.
+	 *
+	 * @param rows the rows
+	 */
+	public void invalidate(Collection<?> rows) {
+		statistics.invalidate(rows);
+	}
+
+	/**
+	 * Size.
+	 *
+	 * @return the number of collections with statistics
+	 */
+	public long size() {
+		return statistics.size();
+	}
+}
@@ -0,0 +1,256 @@
+package edu.rit.dao.impl.statistics;
+
+import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import edu.rit.utils.Utils;
+
+/**
+ * The Class TableStatistics. Row count of a table and the statistics of its
+ * columns by property name, the optimizer estimates with them the rows
+ * returned by every operation. The columns are readable properties of the DTO
+ * class, all of them or only those read by the joins and selections of the
+ * queries; every row added updates them in a single pass. The statistics of a
+ * table may only have its row count, e.g. when it is registered by the user.
+ */
+public class TableStatistics implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The row count. */
+	private long rowCount;
+
+	/** The dto class. Class of the rows, null without column statistics. */
+	private Class<?> dtoClass;
+
+	/** The precision. Precision of the sketches of the distinct values. */
+	private int precision;
+
+	/** The properties. Properties of the columns, read again after deserialization. */
+	private transient List<PropertyDescriptor> properties;
+
+	/** The columns. Statistics of the columns by property name. */
+	private Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+
+	/**
+	 * Instantiates a new table statistics without column statistics.
+	 *
+	 * @param rowCount the row count
+	 */
+	public TableStatistics(long rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 * Instantiates a new table statistics without rows, the sketches of the
+	 * distinct values have the default precision.
+	 *
+	 * @param dtoClass the DTO class of the rows
+	 */
+	public TableStatistics(Class<?> dtoClass) {
+		this(dtoClass, HyperLogLog.DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Instantiates a new table statistics without rows.
+	 *
+	 * @param dtoClass the DTO class of the rows
+	 * @param precision the precision of the sketches of the distinct values
+	 */
+	public TableStatistics(Class<?> dtoClass, int precision) {
+		this.dtoClass = dtoClass;
+		this.precision = precision;
+		for (PropertyDescriptor pd : Utils.readableProperties(dtoClass)) {
+			columns.put(pd.getName(), new ColumnStatistics(precision));
+		}
+	}
+
+	/**
+	 * Instantiates a new table statistics of some columns without rows, the
+	 * sketches of the distinct values have the default precision.
+	 *
+	 * @param dtoClass the DTO class of the rows
+	 * @param names the property names of the columns, the names that are not
+	 *            readable properties are ignored
+	 */
+	public TableStatistics(Class<?> dtoClass, Collection<String> names) {
+		this.dtoClass = dtoClass;
+		this.precision = HyperLogLog.DEFAULT_PRECISION;
+		for (PropertyDescriptor pd : Utils.readableProperties(dtoClass)) {
+			if (names.contains(pd.getName())) {
+				columns.put(pd.getName(), new ColumnStatistics(precision));
+			}
+		}
+	}
+
+	/**
+	 * Of. Computes the statistics of every readable property of the user DTOs
+	 * of a collection, the DTO class is the class of its first element.
+	 *
+	 * @param rows the rows
+	 * @return the table statistics
+	 */
+	public static TableStatistics of(Collection<?> rows) {
+		if (rows.isEmpty()) {
+			return new TableStatistics(0);
+		}
+		TableStatistics statistics = new TableStatistics(rows.iterator().next().getClass());
+		statistics.addAll(rows);
+		return statistics;
+	}
+
+	/**
+	 * Of. Computes the statistics of some columns of the user DTOs of a
+	 * collection, the other properties are not read.
+	 *
+	 * @param rows the rows
+	 * @param names the property names of the columns
+	 * @return the table statistics
+	 */
+	public static TableStatistics of(Collection<?> rows, Collection<String> names) {
+		if (rows.isEmpty()) {
+			return new TableStatistics(0);
+		}
+		TableStatistics statistics = new TableStatistics(rows.iterator().next().getClass(), names);
+		statistics.addAll(rows);
+		return statistics;
+	}
+
+	/**
+	 * Adds a row, the statistics of every column are updated with its value.
+	 *
+	 * @param row the row
+	 */
+	public synchronized void add(Object row) {
+		rowCount++;
+		if (dtoClass == null) {
+			return;
+		}
+		for (PropertyDescriptor pd : getProperties()) {
+			columns.get(pd.getName()).add(read(pd, row));
+		}
+	}
+
+	/**
+	 * Read the value of a property.
+	 *
+	 * @param pd the property
+	 * @param row the row
+	 * @return the value
+	 */
+	private static Object read(PropertyDescriptor pd, Object row) {
+		try {
+			return pd.getReadMethod().invoke(row);
+		} catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Adds the rows.
+	 *
+	 * @param rows the rows
+	 */
+	public synchronized void addAll(Collection<?> rows) {
+		for (Object row : rows) {
+			add(row);
+		}
+	}
+
+	/**
+	 * Adds the statistics of columns not computed yet, only their properties
+	 * are read from the rows.
+	 *
+	 * @param rows the rows counted, the statistics of the new columns are
+	 *            computed from them
+	 * @param names the property names of the columns, the names already
+	 *            computed or that are not readable properties are ignored
+	 */
+	public synchronized void addColumns(Collection<?> rows, Collection<String> names) {
+		if (dtoClass == null) {
+			return;
+		}
+		List<PropertyDescriptor> added = new ArrayList<>();
+		for (PropertyDescriptor pd : Utils.readableProperties(dtoClass)) {
+			if (names.contains(pd.getName()) && !columns.containsKey(pd.getName())) {
+				added.add(pd);
+			}
+		}
+		if (added.isEmpty()) {
+			return;
+		}
+		for (PropertyDescriptor pd : added) {
+			ColumnStatistics column = new ColumnStatistics(precision);
+			for (Object row : rows) {
+				column.add(read(pd, row));
+			}
+			columns.put(pd.getName(), column);
+		}
+		properties = null;
+	}
+
+	/**
+	 * Gets the row count.
+	 *
+	 * @return the row count
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Gets the DTO class.
+	 *
+	 * @return the DTO class, null without column statistics
+	 */
+	public Class<?> getDtoClass() {
+		return dtoClass;
+	}
+
+	/**
+	 * Gets the statistics of a column.
+	 *
+	 * @param name the property name
+	 * @return the column statistics, null if unknown
+	 */
+	public ColumnStatistics getColumn(String name) {
+		return columns.get(name);
+	}
+
+	/**
+	 * Gets the columns.
+	 *
+	 * @return the statistics of the columns by property name
+	 */
+	public Map<String, ColumnStatistics> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the properties.
+	 *
+	 * @return the readable properties of the DTO class with statistics
+	 */
+	private List<PropertyDescriptor> getProperties() {
+		if (properties == null) {
+			properties = Utils.readableProperties(dtoClass).stream().filter(pd -> columns.containsKey(pd.getName()))
+					.collect(Collectors.toList());
+		}
+		return properties;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "rows: " + rowCount + ", columns: " + columns;
+	}
+}
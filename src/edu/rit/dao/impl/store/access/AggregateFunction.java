@@ -0,0 +1,115 @@
+package edu.rit.dao.impl.store.access;
+
+import java.io.Serializable;
+
+/**
+ * The Class AggregateFunction. An aggregate of a column of the rows of every
+ * group, e.g. <code>max(salary)</code>, and the column of its result.
+ */
+public class AggregateFunction implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant COUNT. Values that are not null. */
+	public static final int COUNT = 0;
+
+	/** The Constant COUNT_DISTINCT. Distinct values that are not null. */
+	public static final int COUNT_DISTINCT = 1;
+
+	/** The Constant SUM. */
+	public static final int SUM = 2;
+
+	/** The Constant AVG. */
+	public static final int AVG = 3;
+
+	/** The Constant MIN. */
+	public static final int MIN = 4;
+
+	/** The Constant MAX. */
+	public static final int MAX = 5;
+
+	/** The Constant NAMES. Names of the functions, prefixes of the result columns. */
+	private static final String[] NAMES = { "count", "countDistinct", "sum", "avg", "min", "max" };
+
+	/** The function. */
+	private int function;
+
+	/** The argument. Column of the source the function is computed on. */
+	private ColumnDescriptor argument;
+
+	/** The column. Column of the result. */
+	private ColumnDescriptor column;
+
+	/**
+	 * Instantiates a new aggregate function.
+	 *
+	 * @param function the function
+	 * @param argument the argument
+	 * @param column the column of the result
+	 */
+	public AggregateFunction(int function, ColumnDescriptor argument, ColumnDescriptor column) {
+		this.function = function;
+		this.argument = argument;
+		this.column = column;
+	}
+
+	/**
+	 * Gets the name of a function.
+	 *
+	 * @param function the function
+	 * @return the name
+	 */
+	public static String getName(int function) {
+		return NAMES[function];
+	}
+
+	/**
+	 * Value of. The function with the name given, case is ignored.
+	 *
+	 * @param name the name
+	 * @return the function
+	 */
+	public static int valueOf(String name) {
+		for (int i = 0; i < NAMES.length; i++) {
+			if (NAMES[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown aggregate function " + name);
+	}
+
+	/**
+	 * Gets the function.
+	 *
+	 * @return the function
+	 */
+	public int getFunction() {
+		return function;
+	}
+
+	/**
+	 * Gets the argument.
+	 *
+	 * @return the argument
+	 */
+	public ColumnDescriptor getArgument() {
+		return argument;
+	}
+
+	/**
+	 * Gets the column.
+	 *
+	 * @return the column of the result
+	 */
+	public ColumnDescriptor getColumn() {
+		return column;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return getName(function) + "(" + TupleDescriptor.getField(argument) + ") as " + column.getName();
+	}
+}
@@ -1,6 +1,10 @@
 package edu.rit.dao.impl.store.access;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import edu.rit.dao.impl.statistics.TableStatistics;
 
 /**
  * The Class ClassDescriptor.
@@ -13,6 +17,12 @@ public class ClassDescriptor {
 	/** The methods. */
 	List<MethodDescriptor> methods;
 
+	/** The typed rows. Whether the pipelines use generated row classes instead of maps. */
+	boolean typedRows;
+
+	/** The statistics. Row counts of the tables by name, the joins are ordered with them. */
+	Map<String, TableStatistics> statistics = new HashMap<>();
+
 	
 	/**
 	 * Gets the absolute name.
@@ -50,4 +60,40 @@ public class ClassDescriptor {
 	public void setMethods(List<MethodDescriptor> methods) {
 		this.methods = methods;
 	}
+
+	/**
+	 * Checks if the pipelines use typed rows.
+	 *
+	 * @return the typedRows
+	 */
+	public boolean isTypedRows() {
+		return typedRows;
+	}
+
+	/**
+	 * Sets the typed rows.
+	 *
+	 * @param typedRows the typedRows to set
+	 */
+	public void setTypedRows(boolean typedRows) {
+		this.typedRows = typedRows;
+	}
+
+	/**
+	 * Gets the statistics.
+	 *
+	 * @return the statistics of the tables by name
+	 */
+	public Map<String, TableStatistics> getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Sets the statistics.
+	 *
+	 * @param statistics the statistics to set
+	 */
+	public void setStatistics(Map<String, TableStatistics> statistics) {
+		this.statistics = statistics;
+	}
 }
@@ -1,9 +1,14 @@
 package edu.rit.dao.impl.store.access;
 
+import java.io.Serializable;
+
 /**
  * The Class ColumnDescriptor.
  */
-public class ColumnDescriptor {
+public class ColumnDescriptor implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The id. */
 	private int id;
@@ -17,14 +22,15 @@ public class ColumnDescriptor {
 	/** The alias. */
 	private String alias;
 	
-	/**
-	 *  The type.
-	 *
-	 * @return the string
+	/** The java type. Type of the DTO property of the column, null if unknown. */
+	private Class<?> javaType;
+
+	/** The nullable. False if the values are primitives, which are never null. */
+	private boolean nullable = true;
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
 	 */
-	//private DataType type;
-	
-	
 	public String toString() {
 		return "name: " + name + ", alias: " + alias;
 	}
@@ -101,20 +107,38 @@ public class ColumnDescriptor {
 	}
 	
 	/**
-	 * Gets the type.
+	 * Gets the java type.
+	 *
+	 * @return the java type, null if unknown
+	 */
+	public Class<?> getJavaType() {
+		return javaType;
+	}
+
+	/**
+	 * Sets the java type.
+	 *
+	 * @param javaType the java type to set
+	 */
+	public void setJavaType(Class<?> javaType) {
+		this.javaType = javaType;
+	}
+
+	/**
+	 * Checks if is nullable.
 	 *
-	 * @return the type
+	 * @return true, if the values may be null
 	 */
-//	public DataType getType() {
-//		return type;
-//	}
-//	
-//	/**
-//	 * Sets the type.
-//	 *
-//	 * @param type the new type
-//	 */
-//	public void setType(DataType type) {
-//		this.type = type;
-//	}
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	/**
+	 * Sets the nullable.
+	 *
+	 * @param nullable the nullable to set
+	 */
+	public void setNullable(boolean nullable) {
+		this.nullable = nullable;
+	}
 }
@@ -19,6 +19,15 @@ public class MethodDescriptor {
 	/** The query. */
 	String query;
 
+	/** The parallel. Whether the pipeline runs on parallel streams. */
+	boolean parallel;
+
+	/** The merge join. Whether the joins are sort-merge joins. */
+	boolean mergeJoin;
+
+	/** The typed rows. Whether the pipeline uses generated row classes. */
+	boolean typedRows;
+
 	/**
 	 * Gets the method name.
 	 *
@@ -90,5 +99,59 @@ public class MethodDescriptor {
 	public void setQuery(String query) {
 		this.query = query;
 	}
+
+	/**
+	 * Checks if the pipeline runs on parallel streams.
+	 *
+	 * @return the parallel
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Sets the parallel.
+	 *
+	 * @param parallel the parallel to set
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Checks if the joins are sort-merge joins.
+	 *
+	 * @return the merge join
+	 */
+	public boolean isMergeJoin() {
+		return mergeJoin;
+	}
+
+	/**
+	 * Sets the merge join.
+	 *
+	 * @param mergeJoin the merge join to set
+	 */
+	public void setMergeJoin(boolean mergeJoin) {
+		this.mergeJoin = mergeJoin;
+	}
+
+	/**
+	 * Checks if the pipeline uses typed rows.
+	 *
+	 * @return the typed rows
+	 */
+	public boolean isTypedRows() {
+		return typedRows;
+	}
+
+	/**
+	 * Sets the typed rows.
+	 *
+	 * @param typedRows the typed rows to set
+	 */
+	public void setTypedRows(boolean typedRows) {
+		this.typedRows = typedRows;
+	}
 	
 }
@@ -23,7 +23,7 @@ public class Operator {
 	public static final int GREQ = 2;
 
 	/** The Constant GREQ_CHAR. */
-	public static final String GREQ_CHAR = "=>";
+	public static final String GREQ_CHAR = ">=";
 
 	/** The Constant LESS. */
 	public static final int LESS = 3;
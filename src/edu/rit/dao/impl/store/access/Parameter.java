@@ -0,0 +1,183 @@
+package edu.rit.dao.impl.store.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.SourceVersion;
+
+/**
+ * The Class Parameter. A placeholder of a prepared query, its value is bound
+ * when the query is executed instead of being written in the generated code.
+ * Placeholders are either positional, <code>?</code>, named param1, param2...
+ * in order of appearance, or named, <code>:name</code>. The SQL parser does not
+ * know placeholders, so they are replaced by string literals that the predicate
+ * listener turns back into parameters.
+ */
+public class Parameter implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The Constant MARK. Prefix of the literals that stand for a placeholder. */
+	private static final String MARK = "?:";
+
+	/** The Constant POSITIONAL. Prefix of the names of positional placeholders. */
+	private static final String POSITIONAL = "param";
+
+	/**
+	 * The Constant VARIABLE. Prefix of the arguments of the generated methods,
+	 * so they never clash with the variables of the generated code.
+	 */
+	private static final String VARIABLE = "$p_";
+
+	/** The name. */
+	private String name;
+
+	/** The type. */
+	private Class<?> type = Object.class;
+
+	/**
+	 * Instantiates a new parameter.
+	 *
+	 * @param name the name
+	 */
+	public Parameter(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Mark. Replaces the placeholders outside the literals of the query by
+	 * marked string literals.
+	 *
+	 * @param query the query
+	 * @return the query without placeholders
+	 */
+	public static String mark(String query) {
+		return scan(query, new ArrayList<>());
+	}
+
+	/**
+	 * Gets the names of the placeholders of the query, in order of first
+	 * appearance.
+	 *
+	 * @param query the query
+	 * @return the names
+	 */
+	public static List<String> getNames(String query) {
+		List<String> names = new ArrayList<>();
+		scan(query, names);
+		return names;
+	}
+
+	/**
+	 * From literal.
+	 *
+	 * @param literal the text of a literal of the predicate
+	 * @return the parameter, null if the literal is not a marked placeholder
+	 */
+	public static Parameter fromLiteral(String literal) {
+		String text = literal.trim();
+		if (text.length() > MARK.length() + 2 && (text.startsWith("\"") || text.startsWith("'"))
+				&& text.startsWith(MARK, 1)) {
+			return new Parameter(text.substring(MARK.length() + 1, text.length() - 1));
+		}
+		return null;
+	}
+
+	/**
+	 * Scan. Replaces every placeholder and adds its name to the list.
+	 *
+	 * @param query the query
+	 * @param names the names found
+	 * @return the query without placeholders
+	 * @throws IllegalArgumentException if a name is not a valid Java name, or
+	 *             a named placeholder has the name of a positional one
+	 */
+	private static String scan(String query, List<String> names) {
+		StringBuilder marked = new StringBuilder();
+		boolean literal = false;
+		int positional = 0;
+		List<String> named = new ArrayList<>();
+		for (int i = 0; i < query.length(); i++) {
+			char c = query.charAt(i);
+			String name = null;
+			if (c == '\'') {
+				literal = !literal;
+			} else if (!literal && c == '?') {
+				name = POSITIONAL + ++positional;
+			} else if (!literal && c == ':' && i + 1 < query.length()
+					&& Character.isJavaIdentifierStart(query.charAt(i + 1))) {
+				int end = i + 1;
+				while (end < query.length() && Character.isJavaIdentifierPart(query.charAt(end))) {
+					end++;
+				}
+				name = query.substring(i + 1, end);
+				if (!SourceVersion.isName(name)) {
+					throw new IllegalArgumentException("Invalid placeholder name :" + name);
+				}
+				named.add(name);
+				i = end - 1;
+			}
+			if (name == null) {
+				marked.append(c);
+			} else {
+				marked.append("'").append(MARK).append(name).append("'");
+				if (!names.contains(name)) {
+					names.add(name);
+				}
+			}
+		}
+		for (int i = 1; i <= positional; i++) {
+			if (named.contains(POSITIONAL + i)) {
+				throw new IllegalArgumentException(
+						"The placeholder :" + POSITIONAL + i + " has the name of a positional placeholder");
+			}
+		}
+		return marked.toString();
+	}
+
+	/**
+	 * Gets the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the variable. Name of the argument of the generated method that
+	 * binds the placeholder.
+	 *
+	 * @return the variable
+	 */
+	public String getVariable() {
+		return VARIABLE + name;
+	}
+
+	/**
+	 * Gets the type.
+	 *
+	 * @return the type of the values bound, Object if unknown
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Sets the type.
+	 *
+	 * @param type the type to set
+	 */
+	public void setType(Class<?> type) {
+		this.type = type;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return ":" + name;
+	}
+}
@@ -1,9 +1,14 @@
 package edu.rit.dao.impl.store.access;
 
+import java.io.Serializable;
+
 /**
  * The Class Qualifier.
  */
-public class Qualifier {
+public class Qualifier implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The column data. */
 	private ColumnDescriptor columnData;
@@ -0,0 +1,56 @@
+package edu.rit.dao.impl.store.access;
+
+import java.io.Serializable;
+
+/**
+ * The Class SortKey. A column of an ORDER BY clause and its direction. Nulls
+ * are lower than any value, as in the comparisons of the predicates: they come
+ * first in ascending order and last in descending order.
+ */
+public class SortKey implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The column. */
+	private ColumnDescriptor column;
+
+	/** The descending. */
+	private boolean descending;
+
+	/**
+	 * Instantiates a new sort key.
+	 *
+	 * @param column the column
+	 * @param descending whether the order is descending
+	 */
+	public SortKey(ColumnDescriptor column, boolean descending) {
+		this.column = column;
+		this.descending = descending;
+	}
+
+	/**
+	 * Gets the column.
+	 *
+	 * @return the column
+	 */
+	public ColumnDescriptor getColumn() {
+		return column;
+	}
+
+	/**
+	 * Checks if the order is descending.
+	 *
+	 * @return the descending
+	 */
+	public boolean isDescending() {
+		return descending;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return TupleDescriptor.getField(column) + (descending ? " desc" : " asc");
+	}
+}
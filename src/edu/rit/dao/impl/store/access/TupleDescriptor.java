@@ -0,0 +1,133 @@
+package edu.rit.dao.impl.store.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Class TupleDescriptor. Describes the class generated for the rows
+ * produced by a relational algebra operation: one typed field per column.
+ */
+public class TupleDescriptor implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The class name. */
+	private String className;
+
+	/** The columns. */
+	private List<ColumnDescriptor> columns;
+
+	/** The types. */
+	private List<Class<?>> types;
+
+	/**
+	 * Instantiates a new tuple descriptor.
+	 *
+	 * @param className the class name
+	 */
+	public TupleDescriptor(String className) {
+		this.className = className;
+		this.columns = new ArrayList<>();
+		this.types = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the column. Columns with the same field name than a previous
+	 * column are ignored.
+	 *
+	 * @param column the column
+	 * @param type the java type of the column
+	 */
+	public void addColumn(ColumnDescriptor column, Class<?> type) {
+		if (indexOf(getField(column)) < 0) {
+			columns.add(column);
+			types.add(type);
+		}
+	}
+
+	/**
+	 * Gets the field. The name of the field that stores the column.
+	 *
+	 * @param column the column
+	 * @return the field
+	 */
+	public static String getField(ColumnDescriptor column) {
+		return column.getAlias() != null ? column.getAlias() : column.getName();
+	}
+
+	/**
+	 * Gets the type of the field that stores the column.
+	 *
+	 * @param column the column
+	 * @return the type
+	 */
+	public Class<?> getType(ColumnDescriptor column) {
+		int index = indexOf(getField(column));
+		return index < 0 ? Object.class : types.get(index);
+	}
+
+	/**
+	 * Gets the signature. Tuples with the same signature share the generated
+	 * class.
+	 *
+	 * @return the signature
+	 */
+	public String getSignature() {
+		StringBuilder signature = new StringBuilder();
+		for (int i = 0; i < columns.size(); i++) {
+			signature.append(getField(columns.get(i))).append(":").append(types.get(i).getName()).append(";");
+		}
+		return signature.toString();
+	}
+
+	/**
+	 * Index of.
+	 *
+	 * @param field the field
+	 * @return the index of the field, -1 if it does not exist
+	 */
+	private int indexOf(String field) {
+		for (int i = 0; i < columns.size(); i++) {
+			if (getField(columns.get(i)).equals(field)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the class name.
+	 *
+	 * @return the className
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * Gets the columns.
+	 *
+	 * @return the columns
+	 */
+	public List<ColumnDescriptor> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the types.
+	 *
+	 * @return the types
+	 */
+	public List<Class<?>> getTypes() {
+		return types;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return className + " " + getSignature();
+	}
+}
@@ -2,18 +2,24 @@ package edu.rit.dao.impl.stream;
 
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import javax.lang.model.element.Modifier;
 
+import org.apache.commons.lang3.ClassUtils;
+
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -21,6 +27,9 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.Parameter;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
 import edu.rit.dao.impl.store.access.UserDTO;
 
 /**
@@ -28,6 +37,15 @@ import edu.rit.dao.impl.store.access.UserDTO;
  */
 public class CodeGenerator {
 
+	/** The Constant FORK_JOIN_POOL. Field of the pool that runs the parallel pipelines. */
+	private static final String FORK_JOIN_POOL = "forkJoinPool";
+
+	/** The Constant SET_FORK_JOIN_POOL. */
+	private static final String SET_FORK_JOIN_POOL = "setForkJoinPool";
+
+	/** The compiler. */
+	private InMemoryCompiler compiler = new InMemoryCompiler();
+
 	/**
 	 * Creates the method.
 	 *
@@ -38,6 +56,24 @@ public class CodeGenerator {
 	 * @return the method spec
 	 */
 	public MethodSpec createMethod(String name, List<String> stmts, List<UserDTO> params, Object returnParam) {
+		return createMethod(name, stmts, params, Collections.emptyList(), returnParam, false);
+	}
+
+	/**
+	 * Creates the method of a prepared query, the values of its placeholders
+	 * are arguments of the method after the collections.
+	 *
+	 * @param name the name
+	 * @param stmts the stmts
+	 * @param params the params
+	 * @param parameters the placeholders of the query
+	 * @param returnParam the return param
+	 * @param parallel whether the pipeline runs on parallel streams, in the
+	 *            fork join pool of the class
+	 * @return the method spec
+	 */
+	public MethodSpec createMethod(String name, List<String> stmts, List<UserDTO> params, List<Parameter> parameters,
+			Object returnParam, boolean parallel) {
 		// creating parameter List<Map<String,Object>
 		TypeName object = ClassName.get(Object.class);
 		TypeName string = ClassName.get(String.class);
@@ -59,14 +95,40 @@ public class CodeGenerator {
 					.build();
 			mb.addParameter(parameterSpec);
 		}
+		for (Parameter parameter : parameters) {
+			mb.addParameter(ParameterSpec.builder(parameter.getType(), parameter.getVariable(), Modifier.FINAL).build());
+		}
+		if (parallel) {
+			// parallel streams use the pool of the thread that runs their
+			// terminal operations
+			mb.addCode("return $N.submit(() -> {\n$>", FORK_JOIN_POOL);
+		}
 		//inserting the stream operations into the method
 		for (String stmt : stmts) {
-			mb.addStatement(stmt);
+			// the arguments of the placeholders start with $, the statements
+			// are not formats
+			mb.addStatement("$L", stmt);
+		}
+		if (parallel) {
+			mb.addCode("$<}).join();\n");
 		}
 		MethodSpec m = mb.build();
 		return m;
 	}
 
+	/**
+	 * Sets the fork join pool. Method of the classes with parallel pipelines,
+	 * the common pool is used until it is called.
+	 *
+	 * @return the method spec
+	 */
+	public MethodSpec setForkJoinPool() {
+		return MethodSpec.methodBuilder(SET_FORK_JOIN_POOL).addModifiers(Modifier.PUBLIC)
+				.addParameter(ForkJoinPool.class, FORK_JOIN_POOL).addStatement("this.$N = $N", FORK_JOIN_POOL,
+						FORK_JOIN_POOL)
+				.build();
+	}
+
 	/**
 	 * User DTO to map.
 	 *
@@ -143,7 +205,8 @@ public class CodeGenerator {
 			mb.addParameter(parameterSpec);
 			// adding the statements into the method
 			mb.addStatement("List<" + dtoName + "> userData = new java.util.ArrayList<>()");
-			mb.addStatement(simpleName + ".forEach(m -> { " + dtoName + " bean = new " + dtoName + "()");
+			// the rows of a parallel stream are added one at a time
+			mb.addStatement(simpleName + ".forEachOrdered(m -> { " + dtoName + " bean = new " + dtoName + "()");
 			String stmts = mapToDTO(bean);
 			mb.addStatement(stmts + " userData.add(bean); }); return userData");
 			// building the method
@@ -163,12 +226,139 @@ public class CodeGenerator {
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
 	public void createClass(String packageName, String name, List<MethodSpec> methods) throws IOException {
+		createClass(packageName, name, methods, Collections.emptyList());
+	}
+
+	/**
+	 * Creates the class with nested types, such as the row classes of the
+	 * typed pipelines.
+	 *
+	 * @param packageName the package name
+	 * @param name the name
+	 * @param methods the methods
+	 * @param types the nested types
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void createClass(String packageName, String name, List<MethodSpec> methods, List<TypeSpec> types)
+			throws IOException {
+		createJavaFile(packageName, name, methods, types).writeTo(new File("./src"));
+	}
+
+	/**
+	 * Compile class. Compiles the class in memory, no source or class file is
+	 * written.
+	 *
+	 * @param packageName the package name
+	 * @param name the name
+	 * @param methods the methods
+	 * @param types the nested types
+	 * @return the compiled class
+	 */
+	public CompiledClass compileClass(String packageName, String name, List<MethodSpec> methods,
+			List<TypeSpec> types) {
+		return compiler.compile(createJavaFile(packageName, name, methods, types));
+	}
+
+	/**
+	 * Creates the java file.
+	 *
+	 * @param packageName the package name
+	 * @param name the name
+	 * @param methods the methods
+	 * @param types the nested types
+	 * @return the java file
+	 */
+	private JavaFile createJavaFile(String packageName, String name, List<MethodSpec> methods, List<TypeSpec> types) {
 		TypeSpec.Builder streamClass = TypeSpec.classBuilder(name).addModifiers(Modifier.PUBLIC);
 		for (MethodSpec m : methods) {
+			if (m.name.equals(SET_FORK_JOIN_POOL)) {
+				// the pool is declared with its setter
+				streamClass.addField(FieldSpec.builder(ForkJoinPool.class, FORK_JOIN_POOL, Modifier.PRIVATE)
+						.initializer("$T.commonPool()", ForkJoinPool.class).build());
+			}
 			streamClass.addMethod(m);
 		}
-		JavaFile javaFile = JavaFile.builder(packageName, streamClass.build()).skipJavaLangImports(true).build();
-		javaFile.writeTo(new File("./src"));
+		streamClass.addTypes(types);
+		return JavaFile.builder(packageName, streamClass.build()).skipJavaLangImports(true).build();
+	}
+
+	/**
+	 * Creates the tuple. Row class with a final field per column, equals and
+	 * hashCode compare the fields so rows can be used in hash based sets and
+	 * maps.
+	 *
+	 * @param tuple the tuple
+	 * @return the type spec
+	 */
+	public TypeSpec createTuple(TupleDescriptor tuple) {
+		ClassName tupleName = ClassName.bestGuess(tuple.getClassName());
+		TypeSpec.Builder tb = TypeSpec.classBuilder(tuple.getClassName()).addModifiers(Modifier.PRIVATE,
+				Modifier.STATIC, Modifier.FINAL);
+		MethodSpec.Builder constructor = MethodSpec.constructorBuilder();
+		MethodSpec.Builder hashCode = MethodSpec.methodBuilder("hashCode").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).returns(int.class).addStatement("int h = 1");
+		StringBuilder equals = new StringBuilder();
+		for (int i = 0; i < tuple.getColumns().size(); i++) {
+			String field = TupleDescriptor.getField(tuple.getColumns().get(i));
+			TypeName type = TypeName.get(tuple.getTypes().get(i));
+			tb.addField(type, field, Modifier.FINAL);
+			constructor.addParameter(type, field).addStatement("this.$N = $N", field, field);
+			equals.append(i > 0 ? " && " : "");
+			if (!type.isPrimitive()) {
+				equals.append("java.util.Objects.equals(" + field + ", other." + field + ")");
+				hashCode.addStatement("h = 31 * h + java.util.Objects.hashCode($N)", field);
+			} else {
+				if (type.equals(TypeName.FLOAT) || type.equals(TypeName.DOUBLE)) {
+					equals.append(type.box() + ".compare(" + field + ", other." + field + ") == 0");
+				} else {
+					equals.append(field + " == other." + field);
+				}
+				hashCode.addStatement("h = 31 * h + $T.hashCode($N)", type.box(), field);
+			}
+		}
+		MethodSpec.Builder equalsMethod = MethodSpec.methodBuilder("equals").addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC).returns(boolean.class).addParameter(Object.class, "obj")
+				.addStatement("if (this == obj) return true")
+				.addStatement("if (!(obj instanceof $T)) return false", tupleName)
+				.addStatement("$T other = ($T) obj", tupleName, tupleName)
+				.addStatement("return " + (equals.length() > 0 ? equals : "true"));
+		return tb.addMethod(constructor.build()).addMethod(equalsMethod.build())
+				.addMethod(hashCode.addStatement("return h").build()).build();
+	}
+
+	/**
+	 * Tuple to user DTO. Statement that converts a stream of typed rows into
+	 * the list of user DTOs returned by the method, every writable property
+	 * takes the value of the field with the same name.
+	 *
+	 * @param dtoName the dto name
+	 * @param tuple the tuple
+	 * @param stream the java code of the stream of rows
+	 * @return the statement
+	 */
+	public String tupleToUserDTO(String dtoName, TupleDescriptor tuple, String stream) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("return ").append(stream).append(".map(bean -> { ").append(dtoName).append(" dto = new ")
+				.append(dtoName).append("();");
+		try {
+			Class<?> c = Class.forName(dtoName);
+			for (PropertyDescriptor pd : Introspector.getBeanInfo(c, Object.class).getPropertyDescriptors()) {
+				if (pd.getWriteMethod() == null) {
+					continue;
+				}
+				for (ColumnDescriptor column : tuple.getColumns()) {
+					if (TupleDescriptor.getField(column).equals(pd.getName())
+							&& ClassUtils.isAssignable(tuple.getType(column), pd.getPropertyType(), true)) {
+						sb.append(" dto.").append(pd.getWriteMethod().getName()).append("(bean.")
+								.append(pd.getName()).append(");");
+					}
+				}
+			}
+		} catch (ClassNotFoundException | IntrospectionException e) {
+			e.printStackTrace();
+		}
+		sb.append(" return dto; }).collect(java.util.stream.Collectors.toList())");
+		return sb.toString();
 	}
 
 	/**
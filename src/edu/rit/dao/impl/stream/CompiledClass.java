@@ -0,0 +1,60 @@
+package edu.rit.dao.impl.stream;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * The Class CompiledClass. The class files of a generated class and its
+ * nested classes, the class is defined by a new GeneratedClassLoader the
+ * first time it is used.
+ */
+public class CompiledClass implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The class name. */
+	private String className;
+
+	/** The class files. Class files by class name. */
+	private HashMap<String, byte[]> classFiles;
+
+	/** The loaded class. */
+	private transient Class<?> loadedClass;
+
+	/**
+	 * Instantiates a new compiled class.
+	 *
+	 * @param className the class name
+	 * @param classFiles the class files by class name
+	 */
+	public CompiledClass(String className, HashMap<String, byte[]> classFiles) {
+		this.className = className;
+		this.classFiles = classFiles;
+	}
+
+	/**
+	 * Gets the loaded class.
+	 *
+	 * @return the class
+	 * @throws ClassNotFoundException the class not found exception
+	 */
+	public synchronized Class<?> getLoadedClass() throws ClassNotFoundException {
+		if (loadedClass == null) {
+			ClassLoader parent = Thread.currentThread().getContextClassLoader();
+			GeneratedClassLoader loader = new GeneratedClassLoader(
+					parent != null ? parent : CompiledClass.class.getClassLoader(), classFiles);
+			loadedClass = loader.loadClass(className);
+		}
+		return loadedClass;
+	}
+
+	/**
+	 * Gets the class name.
+	 *
+	 * @return the class name
+	 */
+	public String getClassName() {
+		return className;
+	}
+}
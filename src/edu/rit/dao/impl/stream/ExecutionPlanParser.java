@@ -1,11 +1,15 @@
 package edu.rit.dao.impl.stream;
 
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
 import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.relational.TableAccess;
 
 /**
  * The Class ExecutionPlanParser.
@@ -50,17 +54,26 @@ public class ExecutionPlanParser {
 		 * From class.
 		 *
 		 * @param cls
-		 *            the cls
+		 *            the cls, or a subclass of it
 		 * @return the classes
 		 */
 		public static Classes fromClass(Class<?> cls) {
-			Classes c = Holder.map.get(cls);
-			return c != null ? c : UNKNWON;
+			// operations may extend other operations, e.g. the merge join
+			for (Class<?> k = cls; k != null; k = k.getSuperclass()) {
+				Classes c = Holder.map.get(k);
+				if (c != null) {
+					return c;
+				}
+			}
+			return UNKNWON;
 		}
 	}
 
 	/**
-	 * Parser.
+	 * Parser. Adds the statements of the plan in execution order, the sources
+	 * of an operation are declared before it. Operations shared by several
+	 * consumers are declared only once, and their rows are buffered so they
+	 * are evaluated only once as well.
 	 *
 	 * @param plan
 	 *            the plan
@@ -68,17 +81,37 @@ public class ExecutionPlanParser {
 	 *            the stmts
 	 */
 	public void parser(RelationalAlgebra plan, List<String> stmts) {
+		Map<RelationalAlgebra, Integer> consumers = new IdentityHashMap<>();
+		countConsumers(plan, consumers);
+		parser(plan, stmts, consumers, Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+
+	/**
+	 * Parser.
+	 *
+	 * @param plan
+	 *            the plan
+	 * @param stmts
+	 *            the stmts
+	 * @param consumers
+	 *            the number of streams opened on every operation
+	 * @param parsed
+	 *            the operations already declared
+	 */
+	private void parser(RelationalAlgebra plan, List<String> stmts, Map<RelationalAlgebra, Integer> consumers,
+			Set<RelationalAlgebra> parsed) {
+		if (!parsed.add(plan)) {
+			// a common subexpression, its variable already exists
+			return;
+		}
 		Class<? extends RelationalAlgebra> c = plan.getClass();
 		Class<?> superClass = c.getSuperclass();
-		//adding to the list the java source code with the stream operations
-		//associated with this relational algebra operation
-		stmts.add(plan.perform());
 		switch (Classes.fromClass(superClass)) {
 		case UnaryClass:
 			//parsing the source relational algebra operation
 			UnaryOperation unaryOP = (UnaryOperation) plan;
 			if (unaryOP.getSource() != null) {
-				parser(unaryOP.getSource(), stmts);
+				parser(unaryOP.getSource(), stmts, consumers, parsed);
 			}
 			break;
 		case BinaryClass:
@@ -86,15 +119,60 @@ public class ExecutionPlanParser {
 			//binary operations have two sources
 			//parsing left source relational algebra operation
 			if (binaryOP.getLeftSource() != null) {
-				parser(binaryOP.getLeftSource(), stmts);
+				parser(binaryOP.getLeftSource(), stmts, consumers, parsed);
 			}
 			//parsing right source
 			if (binaryOP.getRightSource() != null) {
-				parser(binaryOP.getRightSource(), stmts);
+				parser(binaryOP.getRightSource(), stmts, consumers, parsed);
 			}
 			break;
 		default:
 			break;
 		}
+		//adding to the list the java source code with the stream operations
+		//associated with this relational algebra operation
+		String code = plan.perform();
+		// tables are streamed straight from their collections, buffering them
+		// would only copy the collection
+		if (consumers.getOrDefault(plan, 0) > 1 && !(plan instanceof TableAccess)) {
+			code = plan.buffer(code);
+		}
+		stmts.add(code);
+	}
+
+	/**
+	 * Count consumers. Every operation counts once for each of its consumers,
+	 * a right source streamed again for every left row counts as many.
+	 *
+	 * @param plan
+	 *            the plan
+	 * @param consumers
+	 *            the number of streams opened on every operation
+	 */
+	private void countConsumers(RelationalAlgebra plan, Map<RelationalAlgebra, Integer> consumers) {
+		if (plan instanceof UnaryOperation && ((UnaryOperation) plan).getSource() != null) {
+			addConsumer(((UnaryOperation) plan).getSource(), 1, consumers);
+		} else if (plan instanceof BinaryOperation) {
+			BinaryOperation binaryOP = (BinaryOperation) plan;
+			addConsumer(binaryOP.getLeftSource(), 1, consumers);
+			addConsumer(binaryOP.getRightSource(), binaryOP.isRightSourceRescanned() ? 2 : 1, consumers);
+		}
+	}
+
+	/**
+	 * Adds the consumer, the sources of an operation are counted the first
+	 * time it is found.
+	 *
+	 * @param source
+	 *            the source
+	 * @param streams
+	 *            the number of streams opened on the source
+	 * @param consumers
+	 *            the number of streams opened on every operation
+	 */
+	private void addConsumer(RelationalAlgebra source, int streams, Map<RelationalAlgebra, Integer> consumers) {
+		if (consumers.merge(source, streams, Integer::sum) == streams) {
+			countConsumers(source, consumers);
+		}
 	}
 }
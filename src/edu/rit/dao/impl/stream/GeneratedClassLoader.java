@@ -0,0 +1,61 @@
+package edu.rit.dao.impl.stream;
+
+import java.util.Map;
+
+/**
+ * The Class GeneratedClassLoader. Defines the classes compiled in memory,
+ * every other class is loaded by the parent. A class compiled again is
+ * defined by a new loader, so it replaces the previous version.
+ */
+public class GeneratedClassLoader extends ClassLoader {
+
+	/** The classes. Class files by class name. */
+	private Map<String, byte[]> classes;
+
+	/**
+	 * Instantiates a new generated class loader.
+	 *
+	 * @param parent the parent
+	 * @param classes the class files by class name
+	 */
+	public GeneratedClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+		super(parent);
+		this.classes = classes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.ClassLoader#loadClass(java.lang.String, boolean)
+	 */
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		synchronized (getClassLoadingLock(name)) {
+			Class<?> c = findLoadedClass(name);
+			if (c == null && classes.containsKey(name)) {
+				// the generated classes are never delegated, the parent may
+				// have an older version on its class path
+				c = findClass(name);
+			}
+			if (c == null) {
+				return super.loadClass(name, resolve);
+			}
+			if (resolve) {
+				resolveClass(c);
+			}
+			return c;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.ClassLoader#findClass(java.lang.String)
+	 */
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		byte[] bytes = classes.get(name);
+		if (bytes == null) {
+			throw new ClassNotFoundException(name);
+		}
+		return defineClass(name, bytes, 0, bytes.length);
+	}
+}
@@ -0,0 +1,92 @@
+package edu.rit.dao.impl.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.squareup.javapoet.JavaFile;
+
+/**
+ * The Class InMemoryCompiler. Compiles generated classes with the system java
+ * compiler, the class files are kept in memory and defined by a
+ * GeneratedClassLoader when the class is used. The generated code is compiled
+ * against the class path of the running JVM.
+ */
+public class InMemoryCompiler {
+
+	/**
+	 * Compile.
+	 *
+	 * @param javaFile the java file
+	 * @return the compiled class
+	 */
+	public CompiledClass compile(JavaFile javaFile) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("No java compiler available, the JVM must be a JDK");
+		}
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Map<String, ByteArrayOutputStream> classFiles = new HashMap<>();
+		StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+		JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+			public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+					FileObject sibling) {
+				// nested classes, such as the row classes, have their own file
+				return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension),
+						kind) {
+					public OutputStream openOutputStream() {
+						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+						classFiles.put(className, bytes);
+						return bytes;
+					}
+				};
+			}
+		};
+		boolean compiled = compiler.getTask(null, fileManager, diagnostics, Collections.singletonList("-nowarn"),
+				null, Collections.singletonList(javaFile.toJavaFileObject())).call();
+		try {
+			fileManager.close();
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
+		if (!compiled) {
+			StringBuilder errors = new StringBuilder();
+			for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+				if (d.getKind() == Diagnostic.Kind.ERROR) {
+					errors.append("\n").append(d.getLineNumber()).append(": ").append(d.getMessage(null));
+				}
+			}
+			throw new IllegalStateException("Error compiling " + getClassName(javaFile) + errors);
+		}
+		HashMap<String, byte[]> classes = new HashMap<>();
+		classFiles.forEach((name, bytes) -> classes.put(name, bytes.toByteArray()));
+		return new CompiledClass(getClassName(javaFile), classes);
+	}
+
+	/**
+	 * Gets the class name.
+	 *
+	 * @param javaFile the java file
+	 * @return the fully qualified name of the class
+	 */
+	private String getClassName(JavaFile javaFile) {
+		return javaFile.packageName.isEmpty() ? javaFile.typeSpec.name
+				: javaFile.packageName + "." + javaFile.typeSpec.name;
+	}
+}
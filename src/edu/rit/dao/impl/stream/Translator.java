@@ -4,8 +4,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.Configuration;
@@ -14,16 +16,29 @@ import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.lang3.ClassUtils;
 
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
 
 import adipe.translate.TranslationException;
 import adipe.translate.ra.Schema;
 import edu.rit.dao.iapi.Database;
+import edu.rit.dao.iapi.relational.BinaryOperation;
 import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
 import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.cache.QueryCache;
+import edu.rit.dao.impl.optimizer.Optimizer;
+import edu.rit.dao.impl.relational.Aggregate;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.statistics.TableStatistics;
 import edu.rit.dao.impl.store.access.ClassDescriptor;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
 import edu.rit.dao.impl.store.access.MethodDescriptor;
+import edu.rit.dao.impl.store.access.Parameter;
+import edu.rit.dao.impl.store.access.Qualifier;
 import edu.rit.dao.impl.store.access.UserDTO;
 import edu.rit.utils.Utils;
 
@@ -38,9 +53,21 @@ public class Translator {
 	/** The parser. */
 	private static ExecutionPlanParser parser = new ExecutionPlanParser();
 	
+	/** The optimizer. */
+	private static Optimizer optimizer = new Optimizer();
+
+	/** The merge join optimizer. Joins of the methods with sort-merge joins. */
+	private static Optimizer mergeJoinOptimizer = new Optimizer(true);
+
 	/** The generator. */
 	private static CodeGenerator generator = new CodeGenerator();
 
+	/** The Constant DEFAULT_CACHE_SIZE. Compiled classes kept in memory. */
+	private static final int DEFAULT_CACHE_SIZE = 100;
+
+	/** The cache. Classes compiled in memory by class definition. */
+	private static QueryCache<CompiledClass> cache = new QueryCache<>(DEFAULT_CACHE_SIZE);
+
 	/** The Constant CLASSNAME. */
 	private static final String CLASSNAME = "class";
 	
@@ -59,6 +86,40 @@ public class Translator {
 	/** The Constant QUERY. */
 	private static final String QUERY = "query";
 
+	/**
+	 * The Constant ROWS. Optional key, the row representation of the pipelines
+	 * of every method.
+	 */
+	private static final String ROWS = "rows";
+
+	/** The Constant TYPED_ROWS. Pipelines use generated row classes. */
+	private static final String TYPED_ROWS = "typed";
+
+	/**
+	 * The Constant TYPED_ROWS_METHODS. Optional key, true or the names of the
+	 * methods whose pipelines use generated row classes.
+	 */
+	private static final String TYPED_ROWS_METHODS = "typedRows";
+
+	/**
+	 * The Constant PARALLEL. Optional key, true or the names of the methods
+	 * whose pipelines run on parallel streams.
+	 */
+	private static final String PARALLEL = "parallel";
+
+	/**
+	 * The Constant MERGE_JOIN. Optional key, true or the names of the methods
+	 * whose joins are sort-merge joins instead of hash joins.
+	 */
+	private static final String MERGE_JOIN = "mergeJoin";
+
+	/**
+	 * The Constant CARDINALITY. Optional key, the expected row count of the
+	 * tables as table:rows pairs, the joins of every method are ordered with
+	 * them.
+	 */
+	private static final String CARDINALITY = "cardinality";
+
 	/**
 	 * Read file.
 	 *
@@ -88,6 +149,32 @@ public class Translator {
 					classDescriptor = new ClassDescriptor();
 					// setting absolute class name
 					classDescriptor.setAbsoluteName(config.getString(CLASSNAME));
+					// maps are the default row representation
+					classDescriptor.setTypedRows(TYPED_ROWS.equalsIgnoreCase(config.getString(ROWS, "").trim()));
+					// pipelines are sequential by default
+					List<String> parallel = new ArrayList<>();
+					for (String name : config.getString(PARALLEL, "").split(",")) {
+						parallel.add(name.trim());
+					}
+					// only the methods listed use typed rows, unlike rows=typed for the whole class
+					List<String> typedRows = new ArrayList<>();
+					for (String name : config.getString(TYPED_ROWS_METHODS, "").split(",")) {
+						typedRows.add(name.trim());
+					}
+					// hash joins by default
+					List<String> mergeJoin = new ArrayList<>();
+					for (String name : config.getString(MERGE_JOIN, "").split(",")) {
+						mergeJoin.add(name.trim());
+					}
+					// the joins are kept in the order of the query by default
+					Map<String, TableStatistics> statistics = new HashMap<>();
+					for (String table : config.getString(CARDINALITY, "").split(",")) {
+						String[] pair = table.split(":");
+						if (pair.length == 2) {
+							statistics.put(pair[0].trim(), new TableStatistics(Long.parseLong(pair[1].trim())));
+						}
+					}
+					classDescriptor.setStatistics(statistics);
 					// getting method keys
 					List<Object> methodList = config.getList(METHOD);
 					for (Object m : methodList) {
@@ -105,6 +192,9 @@ public class Translator {
 						methodDesc.setOutputParam((String) config.getList(RETURN).get(counter));
 						// setting query
 						methodDesc.setQuery((String) config.getList(QUERY).get(counter));
+						methodDesc.setParallel(parallel.contains(Boolean.TRUE.toString()) || parallel.contains(m));
+						methodDesc.setMergeJoin(mergeJoin.contains(Boolean.TRUE.toString()) || mergeJoin.contains(m));
+						methodDesc.setTypedRows(typedRows.contains(Boolean.TRUE.toString()) || typedRows.contains(m));
 						methods.add(methodDesc);
 						counter++;
 					}
@@ -125,11 +215,114 @@ public class Translator {
 	 * @param fileName the file name
 	 */
 	public static void translate(String fileName) {
-		List<MethodSpec> methodsSpec = new ArrayList<>();
 		// reading the user file
 		ClassDescriptor classDefinition = readFile(fileName);
+		// row classes shared by all the methods of the class
+		TupleGenerator tuples = new TupleGenerator();
+		List<MethodSpec> methodsSpec = createMethods(classDefinition, tuples);
+		// creating the row classes of the typed pipelines
+		List<TypeSpec> typesSpec = new ArrayList<>();
+		tuples.getTuples().forEach(t -> typesSpec.add(generator.createTuple(t)));
+		// creating the class
+		try {
+			generator.createClass(getPackage(classDefinition), getSimpleName(classDefinition), methodsSpec,
+					typesSpec);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Compile. Translates the file and compiles the class in memory, without
+	 * writing its source, so new queries can run in a live JVM.
+	 *
+	 * @param fileName the file name
+	 * @return a new instance of the generated class
+	 * @throws Exception the exception
+	 */
+	public static Object compile(String fileName) throws Exception {
+		return compile(readFile(fileName));
+	}
+
+	/**
+	 * Compile. Translates the class definition and compiles the class in
+	 * memory, without writing its source. The compiled classes are cached, a
+	 * class definition with the same queries and input DTOs is not translated
+	 * again.
+	 *
+	 * @param classDefinition the class definition
+	 * @return a new instance of the generated class
+	 * @throws Exception the exception
+	 */
+	public static Object compile(ClassDescriptor classDefinition) throws Exception {
+		CompiledClass compiled = cache.get(getCacheKey(classDefinition), () -> {
+			// row classes shared by all the methods of the class
+			TupleGenerator tuples = new TupleGenerator();
+			List<MethodSpec> methodsSpec = createMethods(classDefinition, tuples);
+			// creating the row classes of the typed pipelines
+			List<TypeSpec> typesSpec = new ArrayList<>();
+			tuples.getTuples().forEach(t -> typesSpec.add(generator.createTuple(t)));
+			return generator.compileClass(getPackage(classDefinition), getSimpleName(classDefinition), methodsSpec,
+					typesSpec);
+		});
+		try {
+			return compiled.getLoadedClass().getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(
+					"The generated class " + classDefinition.getAbsoluteName() + " cannot be instantiated", e);
+		}
+	}
+
+	/**
+	 * Sets the cache of the compiled classes.
+	 *
+	 * @param cache the cache
+	 */
+	public static void setCache(QueryCache<CompiledClass> cache) {
+		Translator.cache = cache;
+	}
+
+	/**
+	 * Gets the cache key. The normalized queries of the class with the input
+	 * DTOs and the schema built with them.
+	 *
+	 * @param classDefinition the class definition
+	 * @return the cache key
+	 */
+	private static String getCacheKey(ClassDescriptor classDefinition) {
+		StringBuilder key = new StringBuilder(classDefinition.getAbsoluteName());
+		key.append(classDefinition.isTypedRows() ? " typed" : "");
+		key.append(classDefinition.getStatistics().isEmpty() ? ""
+				: " " + new TreeMap<>(classDefinition.getStatistics()));
+		for (MethodDescriptor method : classDefinition.getMethods()) {
+			key.append("\n").append(method.getMethodName()).append(method.isParallel() ? " parallel " : " ")
+					.append(method.isMergeJoin() ? "mergeJoin " : "")
+					.append(method.isTypedRows() ? "typed " : "")
+					.append(method.getInputParams())
+					.append(" ").append(method.getOutputParam().trim()).append(" ")
+					.append(QueryCache.normalize(method.getQuery()));
+			// the columns of every table sorted by name
+			Map<String, Map<String, String>> schema = Utils.schemaDescriptor(getInputParameters(method));
+			new TreeMap<>(schema)
+					.forEach((table, columns) -> key.append(" ").append(table).append(new TreeMap<>(columns)));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Creates the methods of the class, one per query.
+	 *
+	 * @param classDefinition the class definition
+	 * @param tuples the row classes shared by all the methods of the class
+	 * @return the methods
+	 */
+	private static List<MethodSpec> createMethods(ClassDescriptor classDefinition, TupleGenerator tuples) {
+		List<MethodSpec> methodsSpec = new ArrayList<>();
 		// iterate over every method
 		for (MethodDescriptor method : classDefinition.getMethods()) {
+			// invalid placeholders fail the translation, the method is not
+			// left out of the class
+			Parameter.getNames(method.getQuery());
 			try {
 				// getting the list of input parameters
 				List<UserDTO> params = getInputParameters(method);
@@ -141,6 +334,23 @@ public class Translator {
 				// query
 				RelationalAlgebra plan = db.getExecutionPlan(method.getQuery(), schema);
 				if (plan != null) {
+					// rewriting the plan before generating its code
+					if (classDefinition.getStatistics().isEmpty()) {
+						plan = (method.isMergeJoin() ? mergeJoinOptimizer : optimizer).optimize(plan);
+					} else {
+						plan = new Optimizer(method.isMergeJoin(), classDefinition.getStatistics()::get).optimize(plan);
+					}
+					// table scans stream the user DTOs of the input parameters
+					assignTables(plan, params);
+					if (method.isParallel()) {
+						setParallel(plan);
+					}
+					if (classDefinition.isTypedRows() || method.isTypedRows()) {
+						tuples.assign(plan);
+					}
+					// the placeholders of the query are arguments of the method,
+					// typed before the predicates are generated
+					List<Parameter> parameters = getParameters(plan, method.getQuery(), params);
 					// parsing the plan and getting the stream java code
 					// pipeline
 					// statements
@@ -151,7 +361,8 @@ public class Translator {
 					Object returnObj = c.newInstance();
 
 					// generating the stream java code for this method
-					MethodSpec ms = generator.createMethod(method.getMethodName(), stmts, params, returnObj);
+					MethodSpec ms = generator.createMethod(method.getMethodName(), stmts, params, parameters,
+							returnObj, method.isParallel());
 					// adding the method to the list
 					methodsSpec.add(ms);
 				} else {
@@ -163,23 +374,48 @@ public class Translator {
 				e.printStackTrace();
 			}
 		}
-		// creating list with all different input DTOs for this class
-		List<String> paramsTypes = new ArrayList<>();
-		for (MethodDescriptor m : classDefinition.getMethods()) {
-			m.getInputParams().forEach(i -> {
-				if (!paramsTypes.contains(i.trim())) {
-					paramsTypes.add(i.trim());
-				}
-			});
+		addMapConversions(classDefinition, methodsSpec);
+		if (classDefinition.getMethods().stream().anyMatch(MethodDescriptor::isParallel)) {
+			methodsSpec.add(generator.setForkJoinPool());
 		}
-		// creating a method that converst user DTO to Map<String, Object>
-		paramsTypes.forEach(p -> {
-			methodsSpec.add(generator.userDTOtoMap(p));
-		});
-		// creating list with all different input DTOs for this class
+		return methodsSpec;
+	}
+
+	/**
+	 * Gets the package.
+	 *
+	 * @param classDefinition the class definition
+	 * @return the package
+	 */
+	private static String getPackage(ClassDescriptor classDefinition) {
+		// extracting the package
+		int i = classDefinition.getAbsoluteName().lastIndexOf(".");
+		return classDefinition.getAbsoluteName().substring(0, i > -1 ? i : 0);
+	}
+
+	/**
+	 * Gets the simple name.
+	 *
+	 * @param classDefinition the class definition
+	 * @return the simple name
+	 */
+	private static String getSimpleName(ClassDescriptor classDefinition) {
+		return classDefinition.getAbsoluteName().substring(classDefinition.getAbsoluteName().lastIndexOf(".") + 1);
+	}
+
+	/**
+	 * Adds the methods that convert the maps to the user DTOs.
+	 *
+	 * @param classDefinition the class definition
+	 * @param methodsSpec the methods spec
+	 */
+	private static void addMapConversions(ClassDescriptor classDefinition, List<MethodSpec> methodsSpec) {
+		// creating list with all different input DTOs for this class, the
+		// methods with typed rows convert their rows without maps
 		List<String> returnTypes = new ArrayList<>();
 		classDefinition.getMethods().forEach(m -> {
-			if (!returnTypes.contains(m.getOutputParam().trim())) {
+			if (!classDefinition.isTypedRows() && !m.isTypedRows()
+					&& !returnTypes.contains(m.getOutputParam().trim())) {
 				returnTypes.add(m.getOutputParam().trim());
 			}
 		});
@@ -188,17 +424,141 @@ public class Translator {
 		returnTypes.forEach(p -> {
 			methodsSpec.add(generator.mapToUserDTO(p));
 		});
-		// extracting the package
-		int i = classDefinition.getAbsoluteName().lastIndexOf(".");
-		String pck = classDefinition.getAbsoluteName().substring(0, i > -1 ? i : 0);
+	}
 
-		String cls = classDefinition.getAbsoluteName()
-				.substring(classDefinition.getAbsoluteName().lastIndexOf(".") + 1);
-		// creating the class
-		try {
-			generator.createClass(pck, cls, methodsSpec);
-		} catch (IOException e) {
-			e.printStackTrace();
+	/**
+	 * Assign tables. Sets the user DTO class of every table access of the
+	 * plan, and the java type and nullability of the columns of every
+	 * operation from the properties of the DTOs.
+	 *
+	 * @param ra the relational algebra operation
+	 * @param params the input parameters of the method
+	 */
+	public static void assignTables(RelationalAlgebra ra, List<UserDTO> params) {
+		Map<String, Map<String, Class<?>>> types = new HashMap<>();
+		params.forEach(p -> types.put(p.getName(), Utils.propertyTypes(p.getDto().getClass())));
+		assignTables(ra, params, types);
+	}
+
+	/**
+	 * Assign tables.
+	 *
+	 * @param ra the relational algebra operation
+	 * @param params the input parameters of the method
+	 * @param types the property types of every table
+	 */
+	private static void assignTables(RelationalAlgebra ra, List<UserDTO> params,
+			Map<String, Map<String, Class<?>>> types) {
+		if (ra.getAttOrder() != null) {
+			// the operations share the descriptors of the columns they carry,
+			// the types are seen through the attOrder of all of them
+			for (ColumnDescriptor c : ra.getAttOrder().values()) {
+				Class<?> type = types.getOrDefault(c.getTableName(), Collections.emptyMap()).get(c.getName());
+				if (type != null) {
+					c.setJavaType(type);
+					c.setNullable(!type.isPrimitive());
+				}
+			}
+		}
+		if (ra instanceof TableAccess) {
+			TableAccess table = (TableAccess) ra;
+			params.stream().filter(p -> p.getName().equals(table.getTableName())).findFirst()
+					.ifPresent(p -> table.setDtoClass(p.getDto().getClass()));
+		} else if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			assignTables(((UnaryOperation) ra).getSource(), params, types);
+		} else if (ra instanceof BinaryOperation) {
+			assignTables(((BinaryOperation) ra).getLeftSource(), params, types);
+			assignTables(((BinaryOperation) ra).getRightSource(), params, types);
+		}
+		if (ra instanceof Aggregate) {
+			// the aggregates are typed after their arguments
+			((Aggregate) ra).assignTypes();
+		}
+	}
+
+	/**
+	 * Sets the parallel. Every operation of the plan generates code that runs
+	 * on parallel streams.
+	 *
+	 * @param ra the relational algebra operation
+	 */
+	private static void setParallel(RelationalAlgebra ra) {
+		ra.setParallel(true);
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			setParallel(((UnaryOperation) ra).getSource());
+		} else if (ra instanceof BinaryOperation) {
+			setParallel(((BinaryOperation) ra).getLeftSource());
+			setParallel(((BinaryOperation) ra).getRightSource());
+		}
+	}
+
+	/**
+	 * Gets the parameters. The placeholders of the query in order of first
+	 * appearance, typed as the columns they are compared with. The
+	 * placeholders in the predicates of the plan get the same types.
+	 *
+	 * @param plan the plan
+	 * @param query the query
+	 * @param params the input parameters of the method
+	 * @return the parameters
+	 */
+	public static List<Parameter> getParameters(RelationalAlgebra plan, String query, List<UserDTO> params) {
+		Map<String, Class<?>> types = new HashMap<>();
+		collectParameterTypes(plan, types);
+		setParameterTypes(plan, types);
+		return Parameter.getNames(query).stream().map(name -> {
+			Parameter parameter = new Parameter(name);
+			parameter.setType(types.getOrDefault(name, Object.class));
+			return parameter;
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Collect parameter types. A placeholder compared with columns of
+	 * different types is an Object.
+	 *
+	 * @param ra the relational algebra operation
+	 * @param types the types found by placeholder name
+	 */
+	private static void collectParameterTypes(RelationalAlgebra ra, Map<String, Class<?>> types) {
+		if (ra instanceof Select) {
+			for (Qualifier q : ((Select) ra).getQualifiers()) {
+				if (q.getParameterValue() instanceof Parameter) {
+					Class<?> type = q.getColumnData().getJavaType() == null ? Object.class
+							: ClassUtils.primitiveToWrapper(q.getColumnData().getJavaType());
+					types.merge(((Parameter) q.getParameterValue()).getName(), type,
+							(t1, t2) -> t1.equals(t2) ? t1 : Object.class);
+				}
+			}
+		}
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			collectParameterTypes(((UnaryOperation) ra).getSource(), types);
+		} else if (ra instanceof BinaryOperation) {
+			collectParameterTypes(((BinaryOperation) ra).getLeftSource(), types);
+			collectParameterTypes(((BinaryOperation) ra).getRightSource(), types);
+		}
+	}
+
+	/**
+	 * Sets the parameter types of the placeholders in the predicates.
+	 *
+	 * @param ra the relational algebra operation
+	 * @param types the types by placeholder name
+	 */
+	private static void setParameterTypes(RelationalAlgebra ra, Map<String, Class<?>> types) {
+		if (ra instanceof Select) {
+			for (Qualifier q : ((Select) ra).getQualifiers()) {
+				if (q.getParameterValue() instanceof Parameter) {
+					Parameter parameter = (Parameter) q.getParameterValue();
+					parameter.setType(types.getOrDefault(parameter.getName(), Object.class));
+				}
+			}
+		}
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			setParameterTypes(((UnaryOperation) ra).getSource(), types);
+		} else if (ra instanceof BinaryOperation) {
+			setParameterTypes(((BinaryOperation) ra).getLeftSource(), types);
+			setParameterTypes(((BinaryOperation) ra).getRightSource(), types);
 		}
 	}
 
@@ -280,16 +640,21 @@ public class Translator {
 	 */
 	private static List<String> getCode(RelationalAlgebra plan, String returnType) {
 		List<String> stmts = new ArrayList<>();
+		// the statements are added in execution order
 		parser.parser(plan, stmts);
-		// reversing the order of the statements
-		Collections.reverse(stmts);
 		// adding as a final statement the conversion from temporary maps to
 		// return type specified into the file
 		// extracting the package
 		int i = returnType.lastIndexOf(".");
 		String pck = returnType.substring(0, i > -1 ? i : 0);
 		String simpleName = returnType.substring(returnType.lastIndexOf(".") + 1).toLowerCase();
-		String returnStmt = "return mapTo" + simpleName + "(" +  plan.getReturnVar() + ".get())";
+		String returnStmt = "return mapTo" + simpleName + "(" +  plan.getRows() + ")";
+		if (plan.isUserDTORows() && plan.getRowType().equals(returnType.trim())) {
+			// the rows already are the user DTOs requested
+			returnStmt = "return " + plan.getReturnVar() + ".get().collect(java.util.stream.Collectors.toList())";
+		} else if (plan.getTuple() != null) {
+			returnStmt = generator.tupleToUserDTO(returnType.trim(), plan.getTuple(), plan.getRows());
+		}
 //		String returnStmt = "return " + plan.getReturnVar() + ".get().map(map -> {" + returnType + " bean = new "
 //				+ returnType + "(); try { org.apache.commons.beanutils.BeanUtils.copyProperties(bean, map); } "
 //				+ "catch (IllegalAccessException | java.lang.reflect.InvocationTargetException e) { e.printStackTrace(); return null; } return bean; })"
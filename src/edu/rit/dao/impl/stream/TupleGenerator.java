@@ -0,0 +1,64 @@
+package edu.rit.dao.impl.stream;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.relational.Union;
+import edu.rit.dao.impl.store.access.ColumnDescriptor;
+import edu.rit.dao.impl.store.access.TupleDescriptor;
+
+/**
+ * The Class TupleGenerator. Assigns a generated row class to every operation
+ * of an execution plan, the fields of the class are the columns of the
+ * operation typed as the properties of the user DTOs. Operations with the same
+ * output schema share the class.
+ */
+public class TupleGenerator {
+
+	/** The tuples. Generated row classes by signature. */
+	private Map<String, TupleDescriptor> tuples = new LinkedHashMap<>();
+
+	/**
+	 * Gets the tuples.
+	 *
+	 * @return the row classes assigned so far
+	 */
+	public List<TupleDescriptor> getTuples() {
+		return new ArrayList<>(tuples.values());
+	}
+
+	/**
+	 * Assign a row class to every operation of the plan, its columns are
+	 * typed by Translator.assignTables.
+	 *
+	 * @param ra the relational algebra operation
+	 */
+	public void assign(RelationalAlgebra ra) {
+		// sources first, the rows of some operations depend on them
+		if (ra instanceof UnaryOperation && ((UnaryOperation) ra).getSource() != null) {
+			assign(((UnaryOperation) ra).getSource());
+		} else if (ra instanceof BinaryOperation) {
+			assign(((BinaryOperation) ra).getLeftSource());
+			assign(((BinaryOperation) ra).getRightSource());
+		}
+		if (ra.getRowSource() != null) {
+			// operations that return the rows of their source share the class
+			ra.setTuple(ra.getRowSource().getTuple());
+		} else if (ra instanceof Union) {
+			// unions return rows of the left source class
+			ra.setTuple(((BinaryOperation) ra).getLeftSource().getTuple());
+		} else {
+			TupleDescriptor tuple = new TupleDescriptor(
+					Character.toUpperCase(ra.getReturnVar().charAt(0)) + ra.getReturnVar().substring(1) + "Row");
+			for (ColumnDescriptor c : ra.getAttOrder().values()) {
+				tuple.addColumn(c, c.getJavaType() != null ? c.getJavaType() : Object.class);
+			}
+			ra.setTuple(tuples.computeIfAbsent(tuple.getSignature(), s -> tuple));
+		}
+	}
+}
@@ -2,9 +2,9 @@ package edu.rit.test;
 
 import static org.junit.Assert.assertTrue;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,8 +33,8 @@ public class PerformanceTest {
 	 */
 	@Test
 	public void test() {
-		generateProfessors(100000);
-		generateSections(100000);
+		professors = DataSet.generateProfessors(100000);
+		sections = DataSet.generateSections(100000);
 		int[] limits = { /* 10, 50, 100, 5000, */ 100000 };
 		DataSet data = new DataSet();
 		UniversityStreams u = new UniversityStreams();
@@ -48,6 +48,7 @@ public class PerformanceTest {
 			//testSelect(u, l, limit);
 			//testUnion(u, l, data.getDepartments(), limit);
 			//testDifference(u, s, limit);
+			//testIntersect(u, s, limit);
 		}
 	}
 
@@ -172,6 +173,35 @@ public class PerformanceTest {
 		// uresult.forEach(System.out::println);
 	}
 
+	/**
+	 * Test intersect.
+	 *
+	 * @param u the u
+	 * @param s the s
+	 * @param limit the limit
+	 */
+	public void testIntersect(UniversityStreams u, List<Section> s, int limit) {
+		for (int i = 0; i <= 25; i++) {
+			// executing code generated for my solution
+			long startTime = System.nanoTime();
+			List<Section> result = u.testIntersect(s);
+			long duration = System.nanoTime() - startTime;
+			long estimatedTime = TimeUnit.MILLISECONDS.convert(duration, TimeUnit.NANOSECONDS);
+			// executing time of equivalent code
+			long ustartTime = System.nanoTime();
+			List<String> uresult = userIntersect(s);
+			long uduration = System.nanoTime() - ustartTime;
+			long uestimatedTime = TimeUnit.MILLISECONDS.convert(uduration, TimeUnit.NANOSECONDS);
+			System.out.println("testIntersect: Num of records: " + limit + " , SQLToStream time: " + estimatedTime
+					+ " , num of results:" + result.size() + ", User time: " + uestimatedTime + " , num of results: "
+					+ uresult.size());
+			assertTrue(result.size() > 0);
+			assertTrue(result.size() == uresult.size());
+			//CS620 is the only course of both semesters
+			result.forEach(sec -> assertTrue(sec.getCourseId().equals("CS620")));
+		}
+	}
+
 	/**
 	 * User join.
 	 *
@@ -229,45 +259,15 @@ public class PerformanceTest {
 	}
 
 	/**
-	 * Generate professors.
-	 *
-	 * @param limit the limit
-	 */
-	private void generateProfessors(int limit) {
-		professors = new ArrayList<>();
-		// int third = limit / 2;
-		for (int i = 0; i <= limit; i++) {
-			int salary = 75000;
-			int department = 2;
-			int count = i % 2;
-			int age = 60;
-			if (count == 0) {
-				salary = 98000;
-				department = 1;
-				age = 38;
-			}
-			professors.add(new Professor("name" + i, "lastName" + i, age, null, department, i, salary));
-		}
-	}
-
-	/**
-	 * Generate sections.
+	 * User intersect.
 	 *
-	 * @param limit the limit
+	 * @param section the section
+	 * @return the list
 	 */
-	private void generateSections(int limit) {
-		sections = new ArrayList<>();
-		// int third = limit / 2;
-		for (int i = 0; i <= limit; i++) {
-			int aux = i % 10;
-			if (aux == 0) {
-				sections.add(new Section("CS620", "Fall", 2009, "1"));
-				sections.add(new Section("CS620", "Spring", 2010, "1"));
-			} else if (aux == 1) {
-				sections.add(new Section("CS730", "Fall", 2009, "1"));
-			} else if (aux > 3) {
-				sections.add(new Section("CS62" + aux, "Fall", 2010, "1"));
-			}
-		}
+	public List<String> userIntersect(final Collection<Section> section) {
+		Set<String> spring = section.stream().filter(s -> s.getYear() == 2010 && s.getSemester().equals("Spring"))
+				.map(s -> s.getCourseId()).collect(Collectors.toSet());
+		return section.stream().filter(s -> s.getYear() == 2009 && s.getSemester().equals("Fall"))
+				.map(s -> s.getCourseId()).filter(spring::contains).distinct().collect(Collectors.toList());
 	}
 }
@@ -0,0 +1,313 @@
+package edu.rit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.junit.Test;
+
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.cache.QueryCache;
+import edu.rit.dao.impl.engine.QueryEngine;
+import edu.rit.dao.impl.optimizer.Optimizer;
+import edu.rit.dao.impl.relational.Join;
+import edu.rit.dao.impl.relational.Projection;
+import edu.rit.dao.impl.relational.Select;
+import edu.rit.dao.impl.relational.TableAccess;
+import edu.rit.dao.impl.store.access.UserDTO;
+import edu.rit.test.data.DataSet;
+import edu.rit.test.data.Department;
+import edu.rit.test.data.DeptSummary;
+import edu.rit.test.data.Professor;
+import edu.rit.test.data.Section;
+import edu.rit.test.result.FilterStream;
+import edu.rit.test.result.SubqueryStream;
+import edu.rit.test.result.UniversityStreams;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class QueryEngineTest. The queries executed by the engine return the
+ * same rows than the generated code.
+ */
+public class QueryEngineTest {
+
+	/** The data. */
+	private DataSet data = new DataSet();
+
+	/** The engine. */
+	private QueryEngine engine = new QueryEngine();
+
+	/**
+	 * Test.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void test() throws Exception {
+		UniversityStreams us = new UniversityStreams();
+		assertSame(us.testJoin(data.getProfessors(), data.getDepartments()),
+				"select p.name, p.lastName, p.dept from professor p inner join department d on d.id = p.dept and deptName='Computer Science'",
+				Professor.class);
+		assertSame(us.testSelect(data.getProfessors()), "select * from professor where salary > 95000",
+				Professor.class);
+		assertSame(us.testUnion(data.getProfessors()),
+				"select * from professor p where dept= 1 union select * from professor p1 where dept=2",
+				Professor.class);
+		assertSame(us.testDifference(data.sections),
+				"select courseId from section where semester='Fall' and year=2009 except select courseId from section where semester='Spring' and year = 2010",
+				Section.class);
+		FilterStream fs = new FilterStream();
+		assertSame(fs.salaryNull1(data.getProfessors()),
+				"select p.name, p.lastName from professor p where salary is null", Professor.class);
+		assertSame(fs.salaryNotNull1(data.getProfessors()), "select * from professor p where salary is not null",
+				Professor.class);
+		assertSame(fs.deptBand(data.getProfessors(), data.getDepartments()),
+				"select p.name, p.lastName from professor p, department d where d.id >= p.dept and d.id < p.id",
+				Professor.class);
+		assertSame(fs.deptSummary(data.getProfessors()),
+				"select dept, count(name), count(distinct gender), sum(salary), avg(age), min(age), max(salary) from professor group by dept",
+				DeptSummary.class);
+		assertSame(fs.topSalaries(data.getProfessors()),
+				"select name, lastName, salary from professor order by salary desc, lastName fetch first 3 rows only",
+				Professor.class);
+		assertSame(fs.salaryPage(data.getProfessors()),
+				"select name, lastName, salary from professor order by salary desc, lastName offset 2 rows fetch next 3 rows only",
+				Professor.class);
+		SubqueryStream ss = new SubqueryStream();
+		assertSame(ss.subqueryFrom(data.getProfessors(), data.getDepartments()),
+				"select * from professor p, (select id from department where code='CSCI') d where d.id= p.dept",
+				Professor.class);
+	}
+
+	/**
+	 * Test maps. The rows only have the projected columns.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testMaps() throws Exception {
+		List<Map<String, Object>> rows = engine.execute("select name from professor where dept = 1",
+				getTables());
+		assertTrue(rows.size() > 0);
+		rows.forEach(r -> assertEquals(1, r.size()));
+		rows.forEach(r -> assertTrue(r.containsKey("name")));
+	}
+
+	/**
+	 * Test empty tables. The DTO classes given by table name describe the
+	 * tables without rows.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testEmptyTables() throws Exception {
+		Map<String, Collection<?>> tables = getTables();
+		tables.put("department", Collections.emptyList());
+		Map<String, Class<?>> dtoClasses = new HashMap<>();
+		dtoClasses.put("department", Department.class);
+		assertTrue(engine.execute("select p.name from professor p, department d where d.id = p.dept", tables,
+				dtoClasses, Collections.emptyMap(), Professor.class).isEmpty());
+		assertEquals(data.getProfessors().size(), engine
+				.execute("select name from professor", tables, dtoClasses, Collections.emptyMap()).size());
+	}
+
+	/**
+	 * Test prepared. The values bound to the placeholders return the same rows
+	 * than the literals, and the plan is shared by all of them.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPrepared() throws Exception {
+		QueryCache<RelationalAlgebra> plans = new QueryCache<>(10);
+		QueryEngine prepared = new QueryEngine(plans);
+		String query = "select name from professor p where dept = :dept and salary > ?";
+		for (int dept = 1; dept <= 3; dept++) {
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("dept", dept);
+			parameters.put("param1", 50000);
+			assertEquals(engine.execute("select name from professor p where dept = " + dept + " and salary > 50000",
+					getTables()), prepared.execute(query, getTables(), parameters));
+		}
+		assertEquals(1, plans.size());
+	}
+
+	/**
+	 * Test cache. The least recently used plan is evicted from memory and read
+	 * back from disk, the queries that only differ in white space share the
+	 * plan.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCache() throws Exception {
+		File directory = Files.createTempDirectory("plans").toFile();
+		QueryCache<RelationalAlgebra> plans = new QueryCache<>(1, directory);
+		QueryEngine cached = new QueryEngine(plans);
+		String query = "select name from professor where dept = 1";
+		List<Map<String, Object>> expected = engine.execute(query, getTables());
+		assertEquals(expected, cached.execute(query, getTables()));
+		assertEquals(expected, cached.execute("select  name\n from professor where dept = 1;", getTables()));
+		cached.execute("select name from professor where dept = 2", getTables());
+		assertEquals(1, plans.size());
+		assertEquals(2, directory.list().length);
+		// a new cache over the same directory reads the plans written to disk
+		QueryCache<RelationalAlgebra> stored = new QueryCache<>(1, directory);
+		assertEquals(expected, new QueryEngine(stored).execute(query, getTables()));
+		assertEquals(1, stored.size());
+		plans.clear();
+		assertEquals(0, directory.list().length);
+		directory.delete();
+	}
+
+	/**
+	 * Test cache filter. A file of the disk tier with classes other than the
+	 * artifacts is not deserialized, it is a cache miss.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCacheFilter() throws Exception {
+		File directory = Files.createTempDirectory("plans").toFile();
+		QueryCache<String> cache = new QueryCache<>(1, directory);
+		cache.put("key", "value");
+		File file = directory.listFiles()[0];
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeObject("key");
+			out.writeObject(new File("value"));
+		}
+		QueryCache<String> stored = new QueryCache<>(1, directory);
+		assertNull(stored.get("key"));
+		assertEquals("translated", stored.get("key", () -> "translated"));
+		assertEquals("translated", new QueryCache<String>(1, directory).get("key"));
+		stored.clear();
+		directory.delete();
+	}
+
+	/**
+	 * Test join ordering. The joins reordered with the statistics of the
+	 * tables return as many rows as the nested loops over the tables.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testJoinOrdering() throws Exception {
+		List<Map<String, Object>> rows = engine.execute(
+				"select p.name, p2.lastName from professor p, professor p2, department d where p.dept = d.id and p2.dept = d.id",
+				getTables());
+		long expected = data.getProfessors().stream()
+				.mapToLong(p -> data.getProfessors().stream()
+						.filter(p2 -> data.getDepartments().stream()
+								.anyMatch(d -> p.getDept() == d.getId() && p2.getDept() == d.getId()))
+						.count())
+				.sum();
+		assertTrue(expected > 0);
+		assertEquals(expected, rows.size());
+		// the departments are the smallest input, the filtered professors
+		// the smallest join
+		Map<String, Collection<?>> tables = new HashMap<>();
+		tables.put("professor", DataSet.generateProfessors(1000));
+		tables.put("department", data.getDepartments());
+		DatabaseImpl db = new DatabaseImpl();
+		List<UserDTO> dtos = Arrays.asList(new UserDTO("professor", new Professor()),
+				new UserDTO("department", new Department()));
+		RelationalAlgebra plan = db.getExecutionPlan("select p.name, d.deptName from department d, professor p, "
+				+ "professor p2 where d.id = p.dept and p.id = p2.id and p2.age < 40",
+				db.createSchema(Utils.schemaDescriptor(dtos)));
+		plan = new Optimizer(false, name -> engine.getStatistics().get(tables.get(name))).optimize(plan);
+		Join top = getJoin(plan);
+		assertEquals("department", getTableName(top.getRightSource()));
+		Join bottom = getJoin(top.getLeftSource());
+		assertEquals("professor", getTableName(bottom.getLeftSource()));
+		assertTrue(getSource(bottom.getRightSource()) instanceof Select);
+		assertEquals("professor", getTableName(bottom.getRightSource()));
+	}
+
+	/**
+	 * Gets the topmost join of a plan.
+	 *
+	 * @param plan the plan
+	 * @return the join
+	 */
+	private static Join getJoin(RelationalAlgebra plan) {
+		RelationalAlgebra source = getSource(plan);
+		assertTrue(source instanceof Join);
+		return (Join) source;
+	}
+
+	/**
+	 * Gets the source of a plan, below its projections.
+	 *
+	 * @param plan the plan
+	 * @return the source
+	 */
+	private static RelationalAlgebra getSource(RelationalAlgebra plan) {
+		return plan instanceof Projection ? getSource(((Projection) plan).getSource()) : plan;
+	}
+
+	/**
+	 * Gets the name of the table read by a plan without joins.
+	 *
+	 * @param plan the plan
+	 * @return the table name
+	 */
+	private static String getTableName(RelationalAlgebra plan) {
+		return plan instanceof TableAccess ? ((TableAccess) plan).getTableName()
+				: getTableName(((UnaryOperation) plan).getSource());
+	}
+
+	/**
+	 * Assert same rows.
+	 *
+	 * @param <T> the generic type
+	 * @param expected the rows returned by the generated code
+	 * @param query the query
+	 * @param returnType the return type
+	 * @throws Exception the exception
+	 */
+	private <T> void assertSame(List<T> expected, String query, Class<T> returnType) throws Exception {
+		List<T> actual = engine.execute(query, getTables(), returnType);
+		assertEquals(toStrings(expected), toStrings(actual));
+	}
+
+	/**
+	 * Gets the tables.
+	 *
+	 * @return the tables
+	 */
+	private Map<String, Collection<?>> getTables() {
+		Map<String, Collection<?>> tables = new HashMap<>();
+		tables.put("professor", data.getProfessors());
+		tables.put("department", data.getDepartments());
+		tables.put("section", data.sections);
+		return tables;
+	}
+
+	/**
+	 * To strings. The rows as sorted strings, the DTOs do not implement
+	 * equals.
+	 *
+	 * @param rows the rows
+	 * @return the list
+	 */
+	private List<String> toStrings(List<?> rows) {
+		return rows.stream().map(r -> ToStringBuilder.reflectionToString(r, ToStringStyle.SHORT_PREFIX_STYLE))
+				.sorted().collect(Collectors.toList());
+	}
+}
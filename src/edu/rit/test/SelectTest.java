@@ -1,14 +1,38 @@
 package edu.rit.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
 import org.junit.Test;
 
+import edu.rit.dao.iapi.relational.BinaryOperation;
+import edu.rit.dao.iapi.relational.RelationalAlgebra;
+import edu.rit.dao.iapi.relational.UnaryOperation;
+import edu.rit.dao.impl.DatabaseImpl;
+import edu.rit.dao.impl.optimizer.Optimizer;
+import edu.rit.dao.impl.relational.Distinct;
+import edu.rit.dao.impl.store.access.UserDTO;
+import edu.rit.test.data.Course;
 import edu.rit.test.data.DataSet;
+import edu.rit.test.data.Department;
+import edu.rit.test.data.DeptSummary;
 import edu.rit.test.data.Professor;
 import edu.rit.test.result.FilterStream;
+import edu.rit.utils.Utils;
 
 /**
  * The Class FilterTest.
@@ -45,6 +69,260 @@ public class SelectTest {
 //		p4.forEach(System.out::println);
 	}
 	
+	/**
+	 * Test prepared. The same method serves every value of the placeholder.
+	 */
+	@Test
+	public void testPrepared() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<Professor> p1 = fs.salaryAbove(data.getProfessors(), 50000);
+		assertTrue(p1.size() > 0);
+		p1.forEach(p -> assertTrue(p.getSalary() > 50000));
+		List<Professor> p2 = fs.salaryAbove(data.getProfessors(), 0);
+		assertTrue(p2.size() > p1.size());
+		p2.forEach(p -> assertTrue(p.getSalary() > 0));
+	}
+
+	/**
+	 * Test range join. The band between both tables returns the same pairs as
+	 * comparing every professor with every department.
+	 */
+	@Test
+	public void testRangeJoin() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<Professor> p1 = fs.deptBand(data.getProfessors(), data.getDepartments());
+		long expected = data.getProfessors().stream()
+				.mapToLong(p -> data.getDepartments().stream()
+						.filter(d -> d.getId() >= p.getDept() && d.getId() < p.getId()).count())
+				.sum();
+		assertTrue(expected > 0);
+		assertEquals(expected, p1.size());
+	}
+
+	/**
+	 * Test aggregate. Every department has the counts, sums and extremes of
+	 * its professors, the nulls are ignored.
+	 */
+	@Test
+	public void testAggregate() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<DeptSummary> summaries = fs.deptSummary(data.getProfessors());
+		Map<Integer, List<Professor>> depts = data.getProfessors().stream()
+				.collect(Collectors.groupingBy(Professor::getDept));
+		assertEquals(depts.size(), summaries.size());
+		for (DeptSummary s : summaries) {
+			List<Professor> professors = depts.get(s.getDept());
+			List<Integer> salaries = professors.stream().map(Professor::getSalary).filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			assertEquals(professors.size(), s.getCountName());
+			assertEquals(professors.stream().map(Professor::getGender).distinct().count(), s.getCountDistinctGender());
+			assertEquals(salaries.stream().mapToLong(Integer::longValue).sum(), s.getSumSalary().longValue());
+			assertEquals(professors.stream().mapToInt(Professor::getAge).average().getAsDouble(), s.getAvgAge(), 1e-9);
+			assertEquals(professors.stream().mapToInt(Professor::getAge).min().getAsInt(), s.getMinAge().intValue());
+			assertEquals(Collections.max(salaries), s.getMaxSalary());
+		}
+		// a single row, even without professors
+		assertEquals(data.getProfessors().stream().map(Professor::getSalary).filter(Objects::nonNull)
+				.max(Integer::compare).get(), fs.topSalary(data.getProfessors()).get(0).getMaxSalary());
+		List<DeptSummary> none = fs.topSalary(Collections.emptyList());
+		assertEquals(1, none.size());
+		assertNull(none.get(0).getMaxSalary());
+	}
+
+	/**
+	 * Test sort. The professors are ordered by the keys of the query, nulls
+	 * first in ascending order and last in descending order; with a limit only
+	 * the top rows are returned.
+	 */
+	@Test
+	public void testSort() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<String> lastNames = fs.sorting(data.getProfessors()).stream().map(Professor::getLastName)
+				.collect(Collectors.toList());
+		assertEquals(data.getProfessors().stream().map(Professor::getLastName)
+				.sorted(Comparator.nullsFirst(Comparator.naturalOrder())).collect(Collectors.toList()), lastNames);
+		Comparator<Professor> order = Comparator
+				.comparing(Professor::getSalary, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+				.thenComparing(Professor::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()));
+		List<String> expected = data.getProfessors().stream().sorted(order).limit(3)
+				.map(p -> p.getSalary() + " " + p.getLastName()).collect(Collectors.toList());
+		List<String> top = fs.topSalaries(data.getProfessors()).stream()
+				.map(p -> p.getSalary() + " " + p.getLastName()).collect(Collectors.toList());
+		assertEquals(expected, top);
+		assertTrue(fs.topSalaries(Collections.emptyList()).isEmpty());
+	}
+
+	/**
+	 * Test limit. The offset rows are skipped, and the product stops reading
+	 * the professors once the rows are returned.
+	 */
+	@Test
+	public void testLimit() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<String> names = data.getProfessors().stream().skip(2).limit(3).map(Professor::getLastName)
+				.collect(Collectors.toList());
+		assertEquals(names, fs.page(data.getProfessors()).stream().map(Professor::getLastName)
+				.collect(Collectors.toList()));
+		Comparator<Professor> order = Comparator
+				.comparing(Professor::getSalary, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+				.thenComparing(Professor::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()));
+		List<String> expected = data.getProfessors().stream().sorted(order).skip(2).limit(3)
+				.map(p -> p.getSalary() + " " + p.getLastName()).collect(Collectors.toList());
+		assertEquals(expected, fs.salaryPage(data.getProfessors()).stream()
+				.map(p -> p.getSalary() + " " + p.getLastName()).collect(Collectors.toList()));
+		int[] read = { 0 };
+		List<Professor> professors = new ArrayList<Professor>(data.getProfessors()) {
+			private static final long serialVersionUID = 1L;
+
+			public Stream<Professor> stream() {
+				return super.stream().peek(p -> read[0]++);
+			}
+		};
+		assertEquals(3, fs.firstPairs(professors, data.getDepartments()).size());
+		assertTrue(read[0] <= 3);
+		// a single professor streams the departments once, they are not
+		// buffered and only the first one is read
+		int[] departmentsRead = { 0 };
+		List<Department> departments = new ArrayList<Department>(data.getDepartments()) {
+			private static final long serialVersionUID = 1L;
+
+			public Stream<Department> stream() {
+				return super.stream().peek(d -> departmentsRead[0]++);
+			}
+		};
+		assertEquals(1, fs.firstPair(data.getProfessors(), departments).size());
+		assertEquals(1, departmentsRead[0]);
+	}
+
+	/**
+	 * Test merge join. The sort-merge join returns the same rows as the hash
+	 * join with duplicate keys on both sides and a range between them, also
+	 * when its left source is already ordered by another merge join.
+	 */
+	@Test
+	public void testMergeJoin() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<Department> departments = new ArrayList<>(data.getDepartments());
+		departments.add(new Department(1, "MATH", "Mathematics"));
+		departments.add(new Department(2, "SWEN", "Software Engineering"));
+		List<Course> courses = new ArrayList<>(data.getCourses());
+		courses.add(new Course(1, "730", "CSCI", 3));
+		long expected = data.getProfessors().stream()
+				.mapToLong(p -> departments.stream().filter(d -> d.getId() == p.getDept() && p.getId() > d.getId())
+						.count())
+				.sum();
+		assertTrue(expected > 0);
+		List<String> hash = names(fs.deptPeers(data.getProfessors(), departments));
+		assertEquals(expected, hash.size());
+		assertEquals(hash, names(fs.deptPeersMerge(data.getProfessors(), departments)));
+		hash = names(fs.deptCourses(data.getProfessors(), departments, courses));
+		assertTrue(hash.size() > expected);
+		assertEquals(hash, names(fs.deptCoursesMerge(data.getProfessors(), departments, courses)));
+	}
+
+	/**
+	 * Test sorted distinct. The rows of a merge join are sorted by the join
+	 * columns, the duplicates of these columns are removed by comparing every
+	 * row with the previous one.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSortedDistinct() throws Exception {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<Department> departments = new ArrayList<>(data.getDepartments());
+		departments.add(new Department(1, "MATH", "Mathematics"));
+		assertEquals(Arrays.asList(1, 2), fs.joinedDepts(data.getProfessors(), departments).stream()
+				.map(Professor::getDept).collect(Collectors.toList()));
+		String query = "select distinct p.dept from professor p, department d where p.dept = d.id";
+		assertTrue(getDistinct(new Optimizer(true).optimize(getExecutionPlan(query))).isSorted());
+		assertFalse(getDistinct(new Optimizer(false).optimize(getExecutionPlan(query))).isSorted());
+	}
+
+	/**
+	 * Gets the execution plan of a query over professors and departments.
+	 *
+	 * @param query the query
+	 * @return the plan
+	 * @throws Exception the exception
+	 */
+	private static RelationalAlgebra getExecutionPlan(String query) throws Exception {
+		DatabaseImpl db = new DatabaseImpl();
+		List<UserDTO> tables = Arrays.asList(new UserDTO("professor", new Professor()),
+				new UserDTO("department", new Department()));
+		return db.getExecutionPlan(query, db.createSchema(Utils.schemaDescriptor(tables)));
+	}
+
+	/**
+	 * Gets the first distinct of a plan.
+	 *
+	 * @param plan the plan
+	 * @return the distinct, null if there is none
+	 */
+	private static Distinct getDistinct(RelationalAlgebra plan) {
+		if (plan instanceof Distinct) {
+			return (Distinct) plan;
+		}
+		if (plan instanceof UnaryOperation) {
+			return getDistinct(((UnaryOperation) plan).getSource());
+		}
+		if (plan instanceof BinaryOperation) {
+			Distinct distinct = getDistinct(((BinaryOperation) plan).getLeftSource());
+			return distinct != null ? distinct : getDistinct(((BinaryOperation) plan).getRightSource());
+		}
+		return null;
+	}
+
+	/**
+	 * Test typed rows. The pipelines with generated row classes return the
+	 * same rows as the pipelines with maps.
+	 */
+	@Test
+	public void testTypedRows() {
+		DataSet data = new DataSet();
+		FilterStream fs = new FilterStream();
+		List<Professor> professors = data.getProfessors();
+		assertEquals(names(fs.deptPeers(professors, data.getDepartments())),
+				names(fs.deptPeersTyped(professors, data.getDepartments())));
+		assertEquals(names(fs.names(professors)), names(fs.namesTyped(professors)));
+		assertEquals(toStrings(fs.genders(professors)), toStrings(fs.gendersTyped(professors)));
+		assertEquals(toStrings(fs.deptSummary(professors)), toStrings(fs.deptSummaryTyped(professors)));
+		// the rows of the sort are compared in order
+		assertEquals(fs.topSalaries(professors).stream().map(p -> p.getSalary() + " " + p.getLastName())
+				.collect(Collectors.toList()), fs.topSalariesTyped(professors).stream()
+						.map(p -> p.getSalary() + " " + p.getLastName()).collect(Collectors.toList()));
+	}
+
+	/**
+	 * To strings. The rows as sorted strings, the DTOs do not implement
+	 * equals.
+	 *
+	 * @param rows the rows
+	 * @return the list
+	 */
+	private static List<String> toStrings(List<?> rows) {
+		return rows.stream().map(r -> ToStringBuilder.reflectionToString(r, ToStringStyle.SHORT_PREFIX_STYLE))
+				.sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * Names. The sorted full names of the professors.
+	 *
+	 * @param professors the professors
+	 * @return the names
+	 */
+	private static List<String> names(List<Professor> professors) {
+		return professors.stream().map(p -> p.getName() + " " + p.getLastName()).sorted()
+				.collect(Collectors.toList());
+	}
+
 	/**
 	 * Test error.
 	 */
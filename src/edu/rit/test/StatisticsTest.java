@@ -0,0 +1,117 @@
+package edu.rit.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import edu.rit.dao.impl.statistics.ColumnStatistics;
+import edu.rit.dao.impl.statistics.HyperLogLog;
+import edu.rit.dao.impl.statistics.StatisticsCollector;
+import edu.rit.dao.impl.statistics.TableStatistics;
+import edu.rit.test.data.DataSet;
+import edu.rit.test.data.Professor;
+
+/**
+ * The Class StatisticsTest.
+ */
+public class StatisticsTest {
+
+	/** The data. */
+	private DataSet data = new DataSet();
+
+	/**
+	 * Test sketch. The estimate is within a few standard errors of the distinct
+	 * count, and the merged sketches count the union of their values.
+	 */
+	@Test
+	public void testSketch() {
+		HyperLogLog evens = new HyperLogLog();
+		HyperLogLog odds = new HyperLogLog();
+		for (int i = 0; i < 100000; i++) {
+			// duplicates are counted once
+			evens.add(2 * i);
+			evens.add(2 * i);
+			odds.add(2 * i + 1);
+		}
+		assertEquals(100000, evens.estimate(), 5000);
+		evens.merge(odds);
+		assertEquals(200000, evens.estimate(), 10000);
+		HyperLogLog few = new HyperLogLog();
+		Arrays.asList("CSCI", "CPET", "CSCI").forEach(few::add);
+		assertEquals(2, few.estimate());
+	}
+
+	/**
+	 * Test columns. The statistics of every property of the DTOs.
+	 */
+	@Test
+	public void testColumns() {
+		List<Professor> professors = data.getProfessors();
+		TableStatistics table = TableStatistics.of(professors);
+		assertEquals(professors.size(), table.getRowCount());
+		ColumnStatistics salary = table.getColumn("salary");
+		long nulls = professors.stream().filter(p -> p.getSalary() == null).count();
+		assertTrue(nulls > 0);
+		assertEquals((double) nulls / professors.size(), salary.getNullFraction(), 0);
+		ColumnStatistics age = table.getColumn("age");
+		assertEquals(professors.stream().mapToInt(Professor::getAge).min().getAsInt(), age.getMin());
+		assertEquals(professors.stream().mapToInt(Professor::getAge).max().getAsInt(), age.getMax());
+		assertEquals(professors.stream().map(Professor::getDept).distinct().count(),
+				table.getColumn("dept").getDistinctCount());
+	}
+
+	/**
+	 * Test collector. The statistics are kept by collection identity and
+	 * updated with the rows added.
+	 */
+	@Test
+	public void testCollector() {
+		StatisticsCollector collector = new StatisticsCollector();
+		List<Professor> professors = new ArrayList<>(data.getProfessors());
+		TableStatistics table = collector.get(professors);
+		assertSame(table, collector.get(professors));
+		assertNotSame(table, collector.get(new ArrayList<>(professors)));
+		List<Professor> added = data.getProfessors().stream()
+				.map(p -> new Professor(p.getName(), p.getLastName(), 99, p.getGender(), 3, p.getId(), null))
+				.collect(Collectors.toList());
+		professors.addAll(added);
+		assertSame(table, collector.update(professors, added));
+		assertEquals(professors.size(), table.getRowCount());
+		assertEquals(99, table.getColumn("age").getMax());
+		assertEquals(3, table.getColumn("dept").getDistinctCount());
+		// the size changed without an update
+		professors.remove(0);
+		assertEquals(professors.size(), collector.get(professors).getRowCount());
+	}
+
+	/**
+	 * Test some columns. Only the columns requested are computed, the columns
+	 * requested later are added to the same statistics.
+	 */
+	@Test
+	public void testSomeColumns() {
+		StatisticsCollector collector = new StatisticsCollector();
+		List<Professor> professors = data.getProfessors();
+		TableStatistics table = collector.get(professors, Arrays.asList("dept"));
+		assertEquals(professors.size(), table.getRowCount());
+		assertEquals(professors.stream().map(Professor::getDept).distinct().count(),
+				table.getColumn("dept").getDistinctCount());
+		assertNull(table.getColumn("age"));
+		assertSame(table, collector.get(professors, Arrays.asList("age")));
+		assertEquals(professors.stream().mapToInt(Professor::getAge).max().getAsInt(), table.getColumn("age").getMax());
+		assertEquals(professors.size(), table.getColumn("age").getRowCount());
+		assertNull(table.getColumn("salary"));
+		// every column
+		assertSame(table, collector.get(professors));
+		assertEquals(professors.size(), table.getColumn("salary").getRowCount());
+	}
+}
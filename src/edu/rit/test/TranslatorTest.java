@@ -1,8 +1,21 @@
 package edu.rit.test;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.Test;
 
+import edu.rit.dao.impl.store.access.ClassDescriptor;
+import edu.rit.dao.impl.store.access.MethodDescriptor;
 import edu.rit.dao.impl.stream.Translator;
+import edu.rit.test.data.DataSet;
+import edu.rit.test.data.Professor;
+import edu.rit.test.result.FilterStream;
 
 public class TranslatorTest {
 
@@ -14,4 +27,104 @@ public class TranslatorTest {
 		Translator.translate("C:\\workspace\\Streams\\src\\edu\\rit\\test\\unsupportedDMF.txt");
 	}
 
+	/**
+	 * Test compile. The class compiled in memory returns the same rows than
+	 * the generated source.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCompile() throws Exception {
+		DataSet data = new DataSet();
+		Object filters = Translator.compile("src/edu/rit/test/selectDMF.txt");
+		@SuppressWarnings("unchecked")
+		List<Professor> p1 = (List<Professor>) filters.getClass().getMethod("salaryNull1", Collection.class)
+				.invoke(filters, data.getProfessors());
+		List<Professor> p2 = new FilterStream().salaryNull1(data.getProfessors());
+		assertEquals(p2.toString(), p1.toString());
+	}
+
+	/**
+	 * Test parallel. The parallel pipelines run in the pool given and return
+	 * the same rows than the sequential ones.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testParallel() throws Exception {
+		DataSet data = new DataSet();
+		ClassDescriptor classDefinition = Translator.readFile("src/edu/rit/test/selectDMF.txt");
+		classDefinition.getMethods().forEach(m -> m.setParallel(true));
+		Object filters = Translator.compile(classDefinition);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		filters.getClass().getMethod("setForkJoinPool", ForkJoinPool.class).invoke(filters, pool);
+		@SuppressWarnings("unchecked")
+		List<Professor> p1 = (List<Professor>) filters.getClass().getMethod("salaryNotNull1", Collection.class)
+				.invoke(filters, data.getProfessors());
+		List<Professor> p2 = new FilterStream().salaryNotNull1(data.getProfessors());
+		assertEquals(p2.toString(), p1.toString());
+		pool.shutdown();
+	}
+
+	/**
+	 * Test placeholder names. The arguments of the placeholders do not clash
+	 * with the variables of the generated code.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPlaceholderNames() throws Exception {
+		DataSet data = new DataSet();
+		Object filters = Translator.compile(getClassDefinition("PlaceholderStream",
+				"select * from professor where dept = :bean and salary > :key"));
+		@SuppressWarnings("unchecked")
+		List<Professor> p1 = (List<Professor>) filters.getClass()
+				.getMethod("query", Collection.class, Integer.class, Integer.class)
+				.invoke(filters, data.getProfessors(), 1, 40000);
+		List<Professor> p2 = data.getProfessors().stream()
+				.filter(p -> p.getDept() == 1 && p.getSalary() != null && p.getSalary() > 40000)
+				.collect(Collectors.toList());
+		assertEquals(p2.toString(), p1.toString());
+	}
+
+	/**
+	 * Test invalid placeholder name. A Java keyword is not a valid argument.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPlaceholderName() throws Exception {
+		Translator.compile(getClassDefinition("KeywordStream", "select * from professor where dept = :class"));
+	}
+
+	/**
+	 * Test placeholder clash. A named placeholder may not have the name of a
+	 * positional one.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPlaceholderClash() throws Exception {
+		Translator.compile(
+				getClassDefinition("ClashStream", "select * from professor where dept = :param1 and salary > ?"));
+	}
+
+	/**
+	 * Gets the class definition of a single query over the professors.
+	 *
+	 * @param name the simple name of the class
+	 * @param query the query
+	 * @return the class definition
+	 */
+	private ClassDescriptor getClassDefinition(String name, String query) {
+		MethodDescriptor method = new MethodDescriptor();
+		method.setMethodName("query");
+		method.setInputParams(Arrays.asList(Professor.class.getName()));
+		method.setOutputParam(Professor.class.getName());
+		method.setQuery(query);
+		ClassDescriptor classDefinition = new ClassDescriptor();
+		classDefinition.setAbsoluteName("edu.rit.test.result." + name);
+		classDefinition.setMethods(Arrays.asList(method));
+		return classDefinition;
+	}
 }
@@ -0,0 +1,240 @@
+package edu.rit.test.benchmark;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.rit.dao.impl.engine.QueryEngine;
+import edu.rit.test.PerformanceTest;
+import edu.rit.test.data.DataSet;
+import edu.rit.test.data.Department;
+import edu.rit.test.data.Professor;
+import edu.rit.test.data.Section;
+import edu.rit.test.result.UniversityStreams;
+import edu.rit.utils.Utils;
+
+/**
+ * The Class UniversityBenchmark. Compares the code generated for the queries
+ * of performanceDMF.txt with the equivalent hand-written streams of
+ * PerformanceTest, measures the queries interpreted by the QueryEngine and,
+ * separately, the conversions of user DTOs to and from maps. Each query has a
+ * generated and a user benchmark, the rows are generated by DataSet.
+ * <p>
+ * Usage: <code>java edu.rit.test.benchmark.UniversityBenchmark [JMH
+ * options]</code>, e.g. <code>-p rows=1000,10000000 -f 2 join select</code>.
+ * 10M rows need a larger heap, e.g. <code>-jvmArgs -Xmx8g</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class UniversityBenchmark {
+
+	/** The Constant QUERY. Query interpreted by the engine. */
+	private static final String QUERY = "select name, lastName, salary from professor";
+
+	/** The rows. Professors and sections generated. */
+	@Param({ "1000", "10000", "100000", "1000000" })
+	private int rows;
+
+	/** The professors. */
+	private List<Professor> professors;
+
+	/** The sections. */
+	private List<Section> sections;
+
+	/** The departments. */
+	private List<Department> departments;
+
+	/** The maps. The professors as maps, converted back to user DTOs. */
+	private List<Map<String, Object>> maps;
+
+	/** The tables. Tables of the engine by name. */
+	private Map<String, Collection<?>> tables;
+
+	/** The generated code. */
+	private UniversityStreams generated;
+
+	/** The hand-written code. */
+	private PerformanceTest user;
+
+	/** The engine. Its plan is cached by the first call. */
+	private QueryEngine engine;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the JMH options, the benchmarks run are selected by regular
+	 *            expressions of their names
+	 * @throws Exception the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		Main.main(args);
+	}
+
+	/**
+	 * Set up the data of the row count.
+	 */
+	@Setup
+	public void setUp() {
+		professors = DataSet.generateProfessors(rows);
+		sections = DataSet.generateSections(rows);
+		departments = new DataSet().getDepartments();
+		maps = Utils.objectToMaps(professors);
+		tables = new HashMap<>();
+		tables.put("professor", professors);
+		generated = new UniversityStreams();
+		user = new PerformanceTest();
+		engine = new QueryEngine();
+	}
+
+	/**
+	 * Select generated.
+	 *
+	 * @return the professors
+	 */
+	@Benchmark
+	public List<Professor> selectGenerated() {
+		return generated.testSelect(professors);
+	}
+
+	/**
+	 * Select user.
+	 *
+	 * @return the professors
+	 */
+	@Benchmark
+	public List<Professor> selectUser() {
+		return user.userSelect(professors);
+	}
+
+	/**
+	 * Join generated.
+	 *
+	 * @return the professors
+	 */
+	@Benchmark
+	public List<Professor> joinGenerated() {
+		return generated.testJoin(professors, departments);
+	}
+
+	/**
+	 * Join user.
+	 *
+	 * @return the names
+	 */
+	@Benchmark
+	public List<String> joinUser() {
+		return user.userJoin(professors, departments);
+	}
+
+	/**
+	 * Union generated.
+	 *
+	 * @return the professors
+	 */
+	@Benchmark
+	public List<Professor> unionGenerated() {
+		return generated.testUnion(professors);
+	}
+
+	/**
+	 * Union user.
+	 *
+	 * @return the names
+	 */
+	@Benchmark
+	public List<String> unionUser() {
+		return user.userUnion(professors, departments);
+	}
+
+	/**
+	 * Difference generated.
+	 *
+	 * @return the sections
+	 */
+	@Benchmark
+	public List<Section> differenceGenerated() {
+		return generated.testDifference(sections);
+	}
+
+	/**
+	 * Difference user.
+	 *
+	 * @return the names
+	 */
+	@Benchmark
+	public List<String> differenceUser() {
+		return user.userDifference(sections);
+	}
+
+	/**
+	 * Intersect generated.
+	 *
+	 * @return the sections
+	 */
+	@Benchmark
+	public List<Section> intersectGenerated() {
+		return generated.testIntersect(sections);
+	}
+
+	/**
+	 * Intersect user.
+	 *
+	 * @return the names
+	 */
+	@Benchmark
+	public List<String> intersectUser() {
+		return user.userIntersect(sections);
+	}
+
+	/**
+	 * Engine. The interpreted query, its rows are maps.
+	 *
+	 * @return the rows
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public List<Map<String, Object>> engine() throws Exception {
+		return engine.execute(QUERY, tables);
+	}
+
+	/**
+	 * To maps. The conversion of the user DTOs to maps.
+	 *
+	 * @return the maps
+	 */
+	@Benchmark
+	public List<Map<String, Object>> toMaps() {
+		return Utils.objectToMaps(professors);
+	}
+
+	/**
+	 * From maps. The conversion of maps to user DTOs, as the engine returns
+	 * its rows as user DTOs.
+	 *
+	 * @return the professors
+	 */
+	@Benchmark
+	public List<Professor> fromMaps() {
+		return maps.stream().map(Utils.mapToObject(Professor.class)).collect(Collectors.toList());
+	}
+}
@@ -99,5 +99,53 @@ public class DataSet {
 	public List<Course> getCourses() {
 		return courses;
 	}
+
+	/**
+	 * Generate professors. Even ids are in department 1, aged 38 with a
+	 * salary of 98000, odd ids in department 2, aged 60 with a salary of
+	 * 75000.
+	 *
+	 * @param limit the limit
+	 * @return the professors, limit + 1 of them
+	 */
+	public static List<Professor> generateProfessors(int limit) {
+		List<Professor> professors = new ArrayList<>();
+		for (int i = 0; i <= limit; i++) {
+			int salary = 75000;
+			int department = 2;
+			int count = i % 2;
+			int age = 60;
+			if (count == 0) {
+				salary = 98000;
+				department = 1;
+				age = 38;
+			}
+			professors.add(new Professor("name" + i, "lastName" + i, age, null, department, i, salary));
+		}
+		return professors;
+	}
+
+	/**
+	 * Generate sections. CS620 is given in Fall 2009 and Spring 2010, CS730
+	 * in Fall 2009 only and the other courses in Fall 2010.
+	 *
+	 * @param limit the limit
+	 * @return the sections
+	 */
+	public static List<Section> generateSections(int limit) {
+		List<Section> sections = new ArrayList<>();
+		for (int i = 0; i <= limit; i++) {
+			int aux = i % 10;
+			if (aux == 0) {
+				sections.add(new Section("CS620", "Fall", 2009, "1"));
+				sections.add(new Section("CS620", "Spring", 2010, "1"));
+			} else if (aux == 1) {
+				sections.add(new Section("CS730", "Fall", 2009, "1"));
+			} else if (aux > 3) {
+				sections.add(new Section("CS62" + aux, "Fall", 2010, "1"));
+			}
+		}
+		return sections;
+	}
 	
 }
@@ -0,0 +1,163 @@
+package edu.rit.test.data;
+
+/**
+ * The Class DeptSummary. Aggregates of the professors of a department, the
+ * properties are named after the columns of the aggregates.
+ */
+public class DeptSummary {
+
+	/** The dept. */
+	private int dept;
+
+	/** The count name. */
+	private long countName;
+
+	/** The count distinct gender. */
+	private long countDistinctGender;
+
+	/** The sum salary. */
+	private Long sumSalary;
+
+	/** The avg age. */
+	private Double avgAge;
+
+	/** The min age. */
+	private Integer minAge;
+
+	/** The max salary. */
+	private Integer maxSalary;
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "dept: " + dept + ", professors: " + countName + ", genders: " + countDistinctGender + ", salaries: "
+				+ sumSalary + ", average age: " + avgAge + ", youngest: " + minAge + ", top salary: " + maxSalary;
+	}
+
+	/**
+	 * Gets the dept.
+	 *
+	 * @return the dept
+	 */
+	public int getDept() {
+		return dept;
+	}
+
+	/**
+	 * Sets the dept.
+	 *
+	 * @param dept the dept to set
+	 */
+	public void setDept(int dept) {
+		this.dept = dept;
+	}
+
+	/**
+	 * Gets the count name.
+	 *
+	 * @return the countName
+	 */
+	public long getCountName() {
+		return countName;
+	}
+
+	/**
+	 * Sets the count name.
+	 *
+	 * @param countName the countName to set
+	 */
+	public void setCountName(long countName) {
+		this.countName = countName;
+	}
+
+	/**
+	 * Gets the count distinct gender.
+	 *
+	 * @return the countDistinctGender
+	 */
+	public long getCountDistinctGender() {
+		return countDistinctGender;
+	}
+
+	/**
+	 * Sets the count distinct gender.
+	 *
+	 * @param countDistinctGender the countDistinctGender to set
+	 */
+	public void setCountDistinctGender(long countDistinctGender) {
+		this.countDistinctGender = countDistinctGender;
+	}
+
+	/**
+	 * Gets the sum salary.
+	 *
+	 * @return the sumSalary
+	 */
+	public Long getSumSalary() {
+		return sumSalary;
+	}
+
+	/**
+	 * Sets the sum salary.
+	 *
+	 * @param sumSalary the sumSalary to set
+	 */
+	public void setSumSalary(Long sumSalary) {
+		this.sumSalary = sumSalary;
+	}
+
+	/**
+	 * Gets the avg age.
+	 *
+	 * @return the avgAge
+	 */
+	public Double getAvgAge() {
+		return avgAge;
+	}
+
+	/**
+	 * Sets the avg age.
+	 *
+	 * @param avgAge the avgAge to set
+	 */
+	public void setAvgAge(Double avgAge) {
+		this.avgAge = avgAge;
+	}
+
+	/**
+	 * Gets the min age.
+	 *
+	 * @return the minAge
+	 */
+	public Integer getMinAge() {
+		return minAge;
+	}
+
+	/**
+	 * Sets the min age.
+	 *
+	 * @param minAge the minAge to set
+	 */
+	public void setMinAge(Integer minAge) {
+		this.minAge = minAge;
+	}
+
+	/**
+	 * Gets the max salary.
+	 *
+	 * @return the maxSalary
+	 */
+	public Integer getMaxSalary() {
+		return maxSalary;
+	}
+
+	/**
+	 * Sets the max salary.
+	 *
+	 * @param maxSalary the maxSalary to set
+	 */
+	public void setMaxSalary(Integer maxSalary) {
+		this.maxSalary = maxSalary;
+	}
+}
@@ -1,5 +1,8 @@
 package edu.rit.test.result;
 
+import edu.rit.test.data.Course;
+import edu.rit.test.data.Department;
+import edu.rit.test.data.DeptSummary;
 import edu.rit.test.data.Professor;
 import java.util.Collection;
 import java.util.List;
@@ -8,52 +11,589 @@ import java.util.stream.Stream;
 
 public class FilterStream {
   public List<Professor> salaryNull1(final Collection<Professor> professor) {
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> professor9J4BF = () -> professorToMap(professor).stream();
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> selectZREFRC3C = () ->professor9J4BF.get().filter(bean -> bean.get("salary")==null);
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionXYWLSDPXE = () ->selectZREFRC3C.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
-    return mapToprofessor(projectionXYWLSDPXE.get());
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorO6EL1DDI = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectOU4PTI = () ->professorO6EL1DDI.get().filter(bean -> bean.getSalary()==null);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionVJZSCV = () ->selectOU4PTI.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.getName());tmp.put("lastName", bean.getLastName());return tmp; });
+    return mapToprofessor(projectionVJZSCV.get());
   }
 
   public List<Professor> salaryNull2(final Collection<Professor> professor) {
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> professor8KJ7IW = () -> professorToMap(professor).stream();
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select46S8OA = () ->professor8KJ7IW.get().filter(bean -> bean.get("salary")==null);
-    return mapToprofessor(select46S8OA.get());
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorTENYX619R = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectHWRP42Q2C = () ->professorTENYX619R.get().filter(bean -> bean.getSalary()==null);
+    return selectHWRP42Q2C.get().collect(java.util.stream.Collectors.toList());
   }
 
   public List<Professor> salaryNotNull1(final Collection<Professor> professor) {
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> professorP7SBQ = () -> professorToMap(professor).stream();
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select60OIB = () ->professorP7SBQ.get().filter(bean -> !(bean.get("salary")==null));
-    return mapToprofessor(select60OIB.get());
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorE7O14SZ5 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectBE8QXM = () ->professorE7O14SZ5.get().filter(bean -> !(bean.getSalary()==null));
+    return selectBE8QXM.get().collect(java.util.stream.Collectors.toList());
   }
 
   public List<Professor> wildcards(final Collection<Professor> professor) {
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> professorK9233ADEH = () -> professorToMap(professor).stream();
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select9OA7YDV = () ->professorK9233ADEH.get().filter(bean -> org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("name"),(Comparable)"R%")==0);
-    return mapToprofessor(select9OA7YDV.get());
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor53RTAY9 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectSTKAOUK = () ->professor53RTAY9.get().filter(bean -> org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.getName(),(Comparable)"R%")==0);
+    return selectSTKAOUK.get().collect(java.util.stream.Collectors.toList());
   }
 
   public List<Professor> salaryTypeError(final Collection<Professor> professor) {
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> professor2TL97TT3 = () -> professorToMap(professor).stream();
-    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select3GKB43 = () ->professor2TL97TT3.get().filter(bean -> org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("salary"),(Comparable)"12")>0);
-    return mapToprofessor(select3GKB43.get());
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorQHBYXAP8 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectHUNB1 = () ->professorQHBYXAP8.get().filter(bean -> org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.getSalary(),(Comparable)"12")>0);
+    return selectHUNB1.get().collect(java.util.stream.Collectors.toList());
   }
 
-  private List<Map<String, Object>> professorToMap(final Collection<Professor> professor) {
-    List<Map<String, Object>> tableData = new java.util.ArrayList<>();
-    professor.forEach(bean -> { Map<String, Object> m = new java.util.HashMap();
-    m.put("age", bean.getAge());
-    m.put("dept", bean.getDept());
-    m.put("gender", bean.getGender());
-    m.put("id", bean.getId());
-    m.put("lastName", bean.getLastName());
-    m.put("name", bean.getName());
-    m.put("salary", bean.getSalary());
-    tableData.add(m); }); return tableData;
+  public List<Professor> salaryAbove(final Collection<Professor> professor,
+      final Integer $p_param1) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor8R9QL = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectD3LU40LX = () ->professor8R9QL.get().filter(bean -> (bean.getSalary() == null || $p_param1 == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.getSalary(),(Comparable)$p_param1)>0 : bean.getSalary().intValue() > $p_param1.intValue()));
+    return selectD3LU40LX.get().collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> deptBand(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorRUUAWJ7 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> departmentN9IOY5RS = () -> department.stream();
+    List<edu.rit.test.data.Department> rightjoinQDDSZ33UA = departmentN9IOY5RS.get().sorted((bean2, other) -> Long.compare(bean2.getId(), other.getId())).collect(java.util.stream.Collectors.toList());long[] keysjoinQDDSZ33UA = rightjoinQDDSZ33UA.stream().mapToLong(bean2 -> bean2.getId()).toArray();java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinQDDSZ33UA = () ->professorRUUAWJ7.get().flatMap(bean1 -> {int from = 0, to = rightjoinQDDSZ33UA.size();{long x = bean1.getDept();int lo = 0, hi = rightjoinQDDSZ33UA.size();while (lo < hi) { int mid = (lo + hi) >>> 1; if (keysjoinQDDSZ33UA[mid] < x) { lo = mid + 1; } else { hi = mid; } }from = Math.max(from, lo);}{long x = bean1.getId();int lo = 0, hi = rightjoinQDDSZ33UA.size();while (lo < hi) { int mid = (lo + hi) >>> 1; if (keysjoinQDDSZ33UA[mid] < x) { lo = mid + 1; } else { hi = mid; } }to = Math.min(to, lo);}return from < to ? rightjoinQDDSZ33UA.subList(from, to).stream().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());return tmp; }) : java.util.stream.Stream.<Map<String, Object>>empty();});
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionC3FLX = () ->joinQDDSZ33UA.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionC3FLX.get());
+  }
+
+  public List<DeptSummary> deptSummary(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorBVNS5R = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> aggregateL0LHX = () -> professorBVNS5R.get().collect(java.util.stream.Collector.of(java.util.HashMap<Object, Object[]>::new, (groups, bean) -> {Object[] acc = groups.computeIfAbsent(bean.getDept(), key -> new Object[]{new long[9], new double[0], new Object[]{}, new java.util.Set<?>[]{new java.util.HashSet<Object>()}, key});long[] longs = (long[]) acc[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets = (java.util.Set<Object>[]) acc[3];java.lang.String v0 = bean.getName();java.lang.String v1 = bean.getGender();java.lang.Integer v2 = bean.getSalary();int v3 = bean.getAge();if (v0 != null) {longs[0]++;}if (v1 != null) {sets[0].add(v1);}if (v2 != null) {longs[2] += v2; longs[1]++;}longs[4] += v3; longs[3]++;if (longs[5]++ == 0 || v3 < longs[6]) {longs[6] = v3; }if (v2 != null) {if (longs[7]++ == 0 || v2 > longs[8]) {longs[8] = v2; }}}, (groups, groups2) -> { groups2.forEach((key, acc2) -> groups.merge(key, acc2, (acc, other) -> {long[] longs = (long[]) acc[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets = (java.util.Set<Object>[]) acc[3];long[] longs2 = (long[]) acc2[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets2 = (java.util.Set<Object>[]) acc2[3];longs[0] += longs2[0];sets[0].addAll(sets2[0]);longs[2] += longs2[2];longs[1] += longs2[1];longs[4] += longs2[4];longs[3] += longs2[3];if (longs2[5] > 0 && (longs[5] == 0 || longs2[6] < longs[6])) {longs[6] = longs2[6]; }longs[5] += longs2[5];if (longs2[7] > 0 && (longs[7] == 0 || longs2[8] > longs[8])) {longs[8] = longs2[8]; }longs[7] += longs2[7];return acc; })); return groups; })).values().stream().map(acc -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("dept", acc[4]);tmp.put("countName", ((long[]) acc[0])[0]);tmp.put("countDistinctGender", (long) ((java.util.Set<?>[]) acc[3])[0].size());tmp.put("sumSalary", (((long[]) acc[0])[1] == 0 ? null : java.lang.Long.valueOf(((long[]) acc[0])[2])));tmp.put("avgAge", (((long[]) acc[0])[3] == 0 ? null : java.lang.Double.valueOf(((long[]) acc[0])[4] / (double) ((long[]) acc[0])[3])));tmp.put("minAge", (((long[]) acc[0])[5] == 0 ? null : java.lang.Integer.valueOf((int) ((long[]) acc[0])[6])));tmp.put("maxSalary", (((long[]) acc[0])[7] == 0 ? null : java.lang.Integer.valueOf((int) ((long[]) acc[0])[8])));return tmp; });
+    return mapTodeptsummary(aggregateL0LHX.get());
+  }
+
+  public List<DeptSummary> topSalary(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorC4J705B = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> aggregateH6S4F = () -> java.util.stream.Stream.<Object[]>of(professorC4J705B.get().collect(java.util.stream.Collector.of(() -> new Object[]{new long[2], new double[0], new Object[]{}, new java.util.Set<?>[]{}, null}, (acc, bean) -> {long[] longs = (long[]) acc[0];java.lang.Integer v0 = bean.getSalary();if (v0 != null) {if (longs[0]++ == 0 || v0 > longs[1]) {longs[1] = v0; }}}, (acc, acc2) -> {long[] longs = (long[]) acc[0];long[] longs2 = (long[]) acc2[0];if (longs2[0] > 0 && (longs[0] == 0 || longs2[1] > longs[1])) {longs[1] = longs2[1]; }longs[0] += longs2[0];return acc; }))).map(acc -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("maxSalary", (((long[]) acc[0])[0] == 0 ? null : java.lang.Integer.valueOf((int) ((long[]) acc[0])[1])));return tmp; });
+    return mapTodeptsummary(aggregateH6S4F.get());
+  }
+
+  public List<Professor> sorting(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorJ4WF2YJB = () -> professor.stream();
+    java.util.Comparator<edu.rit.test.data.Professor> ordersortTEZHMBMA8 = java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getLastName(), java.util.Comparator.nullsFirst(java.util.Comparator.<java.lang.String>naturalOrder()));java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> sortTEZHMBMA8 = () -> professorJ4WF2YJB.get().sorted(ordersortTEZHMBMA8);
+    return sortTEZHMBMA8.get().collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> topSalaries(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorODHWAI = () -> professor.stream();
+    java.util.Comparator<edu.rit.test.data.Professor> ordersortJ13AM = java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getSalary(), java.util.Comparator.nullsLast(java.util.Comparator.<java.lang.Integer>reverseOrder())).thenComparing(java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getLastName(), java.util.Comparator.nullsFirst(java.util.Comparator.<java.lang.String>naturalOrder())));java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> sortJ13AM = () -> professorODHWAI.get().collect(java.util.stream.Collector.of(() -> new java.util.PriorityQueue<edu.rit.test.data.Professor>(4, ordersortJ13AM.reversed()), (heap, bean) -> {if (heap.size() < 3L) { heap.offer(bean); } else if (ordersortJ13AM.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}, (heap, heap2) -> { heap2.forEach(bean -> {if (heap.size() < 3L) { heap.offer(bean); } else if (ordersortJ13AM.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}); return heap; })).stream().sorted(ordersortJ13AM);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionIKOVS = () ->sortJ13AM.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.getName());tmp.put("lastName", bean.getLastName());tmp.put("salary", bean.getSalary());return tmp; });
+    return mapToprofessor(projectionIKOVS.get());
+  }
+
+  public List<Professor> page(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor34P8UX = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> limitUN4CSK9 = () -> professor34P8UX.get().skip(2L).limit(3L);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projection4QW9L = () ->limitUN4CSK9.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.getName());tmp.put("lastName", bean.getLastName());return tmp; });
+    return mapToprofessor(projection4QW9L.get());
+  }
+
+  public List<Professor> salaryPage(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorRT3DD640 = () -> professor.stream();
+    java.util.Comparator<edu.rit.test.data.Professor> ordersortISKADH0 = java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getSalary(), java.util.Comparator.nullsLast(java.util.Comparator.<java.lang.Integer>reverseOrder())).thenComparing(java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getLastName(), java.util.Comparator.nullsFirst(java.util.Comparator.<java.lang.String>naturalOrder())));java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> sortISKADH0 = () -> professorRT3DD640.get().collect(java.util.stream.Collector.of(() -> new java.util.PriorityQueue<edu.rit.test.data.Professor>(6, ordersortISKADH0.reversed()), (heap, bean) -> {if (heap.size() < 5L) { heap.offer(bean); } else if (ordersortISKADH0.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}, (heap, heap2) -> { heap2.forEach(bean -> {if (heap.size() < 5L) { heap.offer(bean); } else if (ordersortISKADH0.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}); return heap; })).stream().sorted(ordersortISKADH0);
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> limitDIPW2 = () -> sortISKADH0.get().skip(2L).limit(3L);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionU7AIIL = () ->limitDIPW2.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.getName());tmp.put("lastName", bean.getLastName());tmp.put("salary", bean.getSalary());return tmp; });
+    return mapToprofessor(projectionU7AIIL.get());
+  }
+
+  public List<Professor> firstPairs(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorA3WAYSPQ = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> limitPCGGX5 = () -> professorA3WAYSPQ.get().limit(3L);
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> departmentVQOWAUG = () -> department.stream();
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> cartprodI07V6 = () ->limitPCGGX5.get().flatMap(bean1 -> departmentVQOWAUG.get().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());return tmp; }));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> limitMMSDNRU2J = () -> cartprodI07V6.get().limit(3L);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionTB6CK6V = () ->limitMMSDNRU2J.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionTB6CK6V.get());
+  }
+
+  public List<Professor> firstPair(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor2YS5VKF0 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> limitQLTBTXR5J = () -> professor2YS5VKF0.get().limit(1L);
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> department64FCB = () -> department.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> selectIK5AU40X = () ->department64FCB.get().filter(bean -> !(bean.getDeptName()==null));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> cartprodH78JLC = () ->limitQLTBTXR5J.get().flatMap(bean1 -> selectIK5AU40X.get().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());return tmp; }));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> limit4HKWX = () -> cartprodH78JLC.get().limit(1L);
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionHW0R8FJK = () ->limit4HKWX.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionHW0R8FJK.get());
+  }
+
+  public List<Professor> deptPeers(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorR1WQBP = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> department0BD5X = () -> department.stream();
+    java.util.Map<Object, List<edu.rit.test.data.Department>> hashjoin8Z2R4KQM = department0BD5X.get().collect(java.util.stream.Collectors.groupingBy(bean2 -> bean2.getId()));java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> join8Z2R4KQM = () ->professorR1WQBP.get().flatMap(bean1 -> hashjoin8Z2R4KQM.getOrDefault(bean1.getDept(), java.util.Collections.emptyList()).stream().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());tmp.put("professor_id", bean1.getId());tmp.put("department_id", bean2.getId());return tmp; }));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select4E57VT4 = () ->join8Z2R4KQM.get().filter(bean -> (bean.get("professor_id") == null || bean.get("department_id") == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("professor_id"),(Comparable)bean.get("department_id"))>0 : ((java.lang.Integer) bean.get("professor_id")).intValue() > ((java.lang.Integer) bean.get("department_id")).intValue()));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionDWMO7I938 = () ->select4E57VT4.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionDWMO7I938.get());
+  }
+
+  public List<Professor> deptPeersMerge(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor6QJZ31 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> department8034EJZN = () -> department.stream();
+    java.util.function.ToIntBiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department> comparejoinWU40H4 = (bean1, bean2) -> {int c;if ((c = Long.compare(bean1.getDept(), bean2.getId())) != 0) { return c; }return 0;};java.util.function.BiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department, Map<String, Object>> joinedjoinWU40H4 = (bean1, bean2) -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());tmp.put("professor_id", bean1.getId());tmp.put("department_id", bean2.getId());return tmp; };java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinWU40H4 = () -> {java.util.Iterator<edu.rit.test.data.Professor> leftjoinWU40H4 = professor6QJZ31.get().sorted((bean1, other) -> {int c;if ((c = Long.compare(bean1.getDept(), other.getDept())) != 0) { return c; }return 0;}).iterator();java.util.Iterator<edu.rit.test.data.Department> rightjoinWU40H4 = department8034EJZN.get().sorted((bean2, other) -> {int c;if ((c = Long.compare(bean2.getId(), other.getId())) != 0) { return c; }return 0;}).iterator();return java.util.stream.StreamSupport.stream(new java.util.Spliterators.AbstractSpliterator<Map<String, Object>>(Long.MAX_VALUE, java.util.Spliterator.ORDERED) {edu.rit.test.data.Professor bean1 = leftjoinWU40H4.hasNext() ? leftjoinWU40H4.next() : null;edu.rit.test.data.Department next2 = rightjoinWU40H4.hasNext() ? rightjoinWU40H4.next() : null;List<edu.rit.test.data.Department> run = new java.util.ArrayList<>();int index;public boolean tryAdvance(java.util.function.Consumer<? super Map<String, Object>> action) {while (bean1 != null) {if (!run.isEmpty()) {int c = comparejoinWU40H4.applyAsInt(bean1, run.get(0));if (c == 0 && index < run.size()) { action.accept(joinedjoinWU40H4.apply(bean1, run.get(index++))); return true; }if (c <= 0) { bean1 = leftjoinWU40H4.hasNext() ? leftjoinWU40H4.next() : null; index = 0; continue; }run.clear(); }while (next2 != null && comparejoinWU40H4.applyAsInt(bean1, next2) > 0) { next2 = rightjoinWU40H4.hasNext() ? rightjoinWU40H4.next() : null; }if (next2 == null) { return false; }if (comparejoinWU40H4.applyAsInt(bean1, next2) < 0) { bean1 = leftjoinWU40H4.hasNext() ? leftjoinWU40H4.next() : null; continue; }do { run.add(next2); next2 = rightjoinWU40H4.hasNext() ? rightjoinWU40H4.next() : null; } while (next2 != null && comparejoinWU40H4.applyAsInt(bean1, next2) == 0);} return false; } }, false);};
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> selectFVSAESE0I = () ->joinWU40H4.get().filter(bean -> (bean.get("professor_id") == null || bean.get("department_id") == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("professor_id"),(Comparable)bean.get("department_id"))>0 : ((java.lang.Integer) bean.get("professor_id")).intValue() > ((java.lang.Integer) bean.get("department_id")).intValue()));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionPFJYWJUUY = () ->selectFVSAESE0I.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionPFJYWJUUY.get());
+  }
+
+  public List<Professor> deptCourses(final Collection<Professor> professor,
+      final Collection<Department> department, final Collection<Course> course) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorPNAE1B = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> department5DBZAK4L1 = () -> department.stream();
+    java.util.Map<Object, List<edu.rit.test.data.Department>> hashjoinJQ2L8L197 = department5DBZAK4L1.get().collect(java.util.stream.Collectors.groupingBy(bean2 -> bean2.getId()));java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinJQ2L8L197 = () ->professorPNAE1B.get().flatMap(bean1 -> hashjoinJQ2L8L197.getOrDefault(bean1.getDept(), java.util.Collections.emptyList()).stream().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());tmp.put("dept", bean1.getDept());tmp.put("professor_id", bean1.getId());tmp.put("department_id", bean2.getId());return tmp; }));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> select44EQS0T = () ->joinJQ2L8L197.get().filter(bean -> (bean.get("professor_id") == null || bean.get("department_id") == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("professor_id"),(Comparable)bean.get("department_id"))>0 : ((java.lang.Integer) bean.get("professor_id")).intValue() > ((java.lang.Integer) bean.get("department_id")).intValue()));
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Course>> courseSHRC7 = () -> course.stream();
+    java.util.Map<Object, List<edu.rit.test.data.Course>> hashjoin5434CE = courseSHRC7.get().collect(java.util.stream.Collectors.groupingBy(bean2 -> bean2.getId()));java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> join5434CE = () ->select44EQS0T.get().flatMap(bean1 -> hashjoin5434CE.getOrDefault(bean1.get("dept"), java.util.Collections.emptyList()).stream().map(bean2 -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.get("lastName"));tmp.put("name", bean1.get("name"));return tmp; }));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionI6VOVQDL = () ->join5434CE.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionI6VOVQDL.get());
+  }
+
+  public List<Professor> deptCoursesMerge(final Collection<Professor> professor,
+      final Collection<Department> department, final Collection<Course> course) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorYU5LCQFN6 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> departmentWA7BC35 = () -> department.stream();
+    java.util.function.ToIntBiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department> comparejoinS14HVZJ = (bean1, bean2) -> {int c;if ((c = Long.compare(bean1.getDept(), bean2.getId())) != 0) { return c; }return 0;};java.util.function.BiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department, Map<String, Object>> joinedjoinS14HVZJ = (bean1, bean2) -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.getLastName());tmp.put("name", bean1.getName());tmp.put("dept", bean1.getDept());tmp.put("professor_id", bean1.getId());tmp.put("department_id", bean2.getId());return tmp; };java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinS14HVZJ = () -> {java.util.Iterator<edu.rit.test.data.Professor> leftjoinS14HVZJ = professorYU5LCQFN6.get().sorted((bean1, other) -> {int c;if ((c = Long.compare(bean1.getDept(), other.getDept())) != 0) { return c; }return 0;}).iterator();java.util.Iterator<edu.rit.test.data.Department> rightjoinS14HVZJ = departmentWA7BC35.get().sorted((bean2, other) -> {int c;if ((c = Long.compare(bean2.getId(), other.getId())) != 0) { return c; }return 0;}).iterator();return java.util.stream.StreamSupport.stream(new java.util.Spliterators.AbstractSpliterator<Map<String, Object>>(Long.MAX_VALUE, java.util.Spliterator.ORDERED) {edu.rit.test.data.Professor bean1 = leftjoinS14HVZJ.hasNext() ? leftjoinS14HVZJ.next() : null;edu.rit.test.data.Department next2 = rightjoinS14HVZJ.hasNext() ? rightjoinS14HVZJ.next() : null;List<edu.rit.test.data.Department> run = new java.util.ArrayList<>();int index;public boolean tryAdvance(java.util.function.Consumer<? super Map<String, Object>> action) {while (bean1 != null) {if (!run.isEmpty()) {int c = comparejoinS14HVZJ.applyAsInt(bean1, run.get(0));if (c == 0 && index < run.size()) { action.accept(joinedjoinS14HVZJ.apply(bean1, run.get(index++))); return true; }if (c <= 0) { bean1 = leftjoinS14HVZJ.hasNext() ? leftjoinS14HVZJ.next() : null; index = 0; continue; }run.clear(); }while (next2 != null && comparejoinS14HVZJ.applyAsInt(bean1, next2) > 0) { next2 = rightjoinS14HVZJ.hasNext() ? rightjoinS14HVZJ.next() : null; }if (next2 == null) { return false; }if (comparejoinS14HVZJ.applyAsInt(bean1, next2) < 0) { bean1 = leftjoinS14HVZJ.hasNext() ? leftjoinS14HVZJ.next() : null; continue; }do { run.add(next2); next2 = rightjoinS14HVZJ.hasNext() ? rightjoinS14HVZJ.next() : null; } while (next2 != null && comparejoinS14HVZJ.applyAsInt(bean1, next2) == 0);} return false; } }, false);};
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> selectUVCFSLP2 = () ->joinS14HVZJ.get().filter(bean -> (bean.get("professor_id") == null || bean.get("department_id") == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.get("professor_id"),(Comparable)bean.get("department_id"))>0 : ((java.lang.Integer) bean.get("professor_id")).intValue() > ((java.lang.Integer) bean.get("department_id")).intValue()));
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Course>> courseYTM39R = () -> course.stream();
+    java.util.function.ToIntBiFunction<Map<String, Object>, edu.rit.test.data.Course> comparejoinZ08MBZXD = (bean1, bean2) -> {int c;if ((c = Long.compare(((java.lang.Integer) bean1.get("dept")), bean2.getId())) != 0) { return c; }return 0;};java.util.function.BiFunction<Map<String, Object>, edu.rit.test.data.Course, Map<String, Object>> joinedjoinZ08MBZXD = (bean1, bean2) -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("lastName", bean1.get("lastName"));tmp.put("name", bean1.get("name"));return tmp; };java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinZ08MBZXD = () -> {java.util.Iterator<Map<String, Object>> leftjoinZ08MBZXD = selectUVCFSLP2.get().iterator();java.util.Iterator<edu.rit.test.data.Course> rightjoinZ08MBZXD = courseYTM39R.get().sorted((bean2, other) -> {int c;if ((c = Long.compare(bean2.getId(), other.getId())) != 0) { return c; }return 0;}).iterator();return java.util.stream.StreamSupport.stream(new java.util.Spliterators.AbstractSpliterator<Map<String, Object>>(Long.MAX_VALUE, java.util.Spliterator.ORDERED) {Map<String, Object> bean1 = leftjoinZ08MBZXD.hasNext() ? leftjoinZ08MBZXD.next() : null;edu.rit.test.data.Course next2 = rightjoinZ08MBZXD.hasNext() ? rightjoinZ08MBZXD.next() : null;List<edu.rit.test.data.Course> run = new java.util.ArrayList<>();int index;public boolean tryAdvance(java.util.function.Consumer<? super Map<String, Object>> action) {while (bean1 != null) {if (!run.isEmpty()) {int c = comparejoinZ08MBZXD.applyAsInt(bean1, run.get(0));if (c == 0 && index < run.size()) { action.accept(joinedjoinZ08MBZXD.apply(bean1, run.get(index++))); return true; }if (c <= 0) { bean1 = leftjoinZ08MBZXD.hasNext() ? leftjoinZ08MBZXD.next() : null; index = 0; continue; }run.clear(); }while (next2 != null && comparejoinZ08MBZXD.applyAsInt(bean1, next2) > 0) { next2 = rightjoinZ08MBZXD.hasNext() ? rightjoinZ08MBZXD.next() : null; }if (next2 == null) { return false; }if (comparejoinZ08MBZXD.applyAsInt(bean1, next2) < 0) { bean1 = leftjoinZ08MBZXD.hasNext() ? leftjoinZ08MBZXD.next() : null; continue; }do { run.add(next2); next2 = rightjoinZ08MBZXD.hasNext() ? rightjoinZ08MBZXD.next() : null; } while (next2 != null && comparejoinZ08MBZXD.applyAsInt(bean1, next2) == 0);} return false; } }, false);};
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionQXV8NZAH = () ->joinZ08MBZXD.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.get("name"));tmp.put("lastName", bean.get("lastName"));return tmp; });
+    return mapToprofessor(projectionQXV8NZAH.get());
+  }
+
+  public List<Professor> deptPeersTyped(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor66YNJJ = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> department9TXVN9UWU = () -> department.stream();
+    java.util.Map<Object, List<edu.rit.test.data.Department>> hashjoin0TJ6OX9 = department9TXVN9UWU.get().collect(java.util.stream.Collectors.groupingBy(bean2 -> bean2.getId()));java.util.function.Supplier<java.util.stream.Stream<Join0TJ6OX9Row>> join0TJ6OX9 = () ->professor66YNJJ.get().flatMap(bean1 -> hashjoin0TJ6OX9.getOrDefault(bean1.getDept(), java.util.Collections.emptyList()).stream().map(bean2 -> new Join0TJ6OX9Row(bean1.getLastName(), bean1.getName(), bean1.getId(), bean2.getId())));
+    java.util.function.Supplier<java.util.stream.Stream<Join0TJ6OX9Row>> select8OLSDL = () ->join0TJ6OX9.get().filter(bean -> bean.professor_id > bean.department_id);
+    java.util.function.Supplier<java.util.stream.Stream<ProjectionXM8X2Row>> projectionXM8X2 = () ->select8OLSDL.get().map(bean -> new ProjectionXM8X2Row(bean.name, bean.lastName));
+    return projectionXM8X2.get().map(bean -> { edu.rit.test.data.Professor dto = new edu.rit.test.data.Professor(); dto.setLastName(bean.lastName); dto.setName(bean.name); return dto; }).collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> names(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorJQYHSFD2 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> select0M43JXHE = () ->professorJQYHSFD2.get().filter(bean -> (bean.getDept() == 1 || (bean.getSalary() == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.getSalary(),(Comparable)60000)>0 : bean.getSalary().intValue() > 60000)));
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionK3NS31 = () ->select0M43JXHE.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("name", bean.getName());tmp.put("lastName", bean.getLastName());return tmp; });
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> distinct873TWHO0U = () -> {java.util.Set<Object> seen = new java.util.HashSet<>();return projectionK3NS31.get().filter(bean -> seen.add(java.util.Arrays.asList(bean.get("name"), bean.get("lastName")))); };
+    return mapToprofessor(distinct873TWHO0U.get());
+  }
+
+  public List<Professor> namesTyped(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorRHWV50 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> selectAPF8ANDVV = () ->professorRHWV50.get().filter(bean -> (bean.getDept() == 1 || (bean.getSalary() == null ? org.apache.commons.lang3.ObjectUtils.compare((Comparable)bean.getSalary(),(Comparable)60000)>0 : bean.getSalary().intValue() > 60000)));
+    java.util.function.Supplier<java.util.stream.Stream<ProjectionXM8X2Row>> projectionP6F22 = () ->selectAPF8ANDVV.get().map(bean -> new ProjectionXM8X2Row(bean.getName(), bean.getLastName()));
+    java.util.function.Supplier<java.util.stream.Stream<ProjectionXM8X2Row>> distinct9O4J2Y = () -> {java.util.Set<Object> seen = new java.util.HashSet<>();return projectionP6F22.get().filter(bean -> seen.add(java.util.Arrays.asList(bean.name, bean.lastName))); };
+    return distinct9O4J2Y.get().map(bean -> { edu.rit.test.data.Professor dto = new edu.rit.test.data.Professor(); dto.setLastName(bean.lastName); dto.setName(bean.name); return dto; }).collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> genders(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professor07GBWGBL = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionOA8RV = () ->professor07GBWGBL.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("dept", bean.getDept());tmp.put("gender", bean.getGender());return tmp; });
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> distinctUDFSRW = () -> {java.util.Set<Object> seen = new java.util.HashSet<>();return projectionOA8RV.get().filter(bean -> seen.add(java.util.Arrays.asList(bean.get("dept"), bean.get("gender")))); };
+    return mapToprofessor(distinctUDFSRW.get());
+  }
+
+  public List<Professor> gendersTyped(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorWAY1QZO = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<ProjectionFW6KX2Row>> projectionFW6KX2 = () ->professorWAY1QZO.get().map(bean -> new ProjectionFW6KX2Row(bean.getDept(), bean.getGender()));
+    java.util.function.Supplier<java.util.stream.Stream<ProjectionFW6KX2Row>> distinctD2OU7PPXW = () -> {java.util.Set<Object> seen = new java.util.HashSet<>();return projectionFW6KX2.get().filter(bean -> seen.add(java.util.Arrays.asList(bean.dept, bean.gender))); };
+    return distinctD2OU7PPXW.get().map(bean -> { edu.rit.test.data.Professor dto = new edu.rit.test.data.Professor(); dto.setDept(bean.dept); dto.setGender(bean.gender); return dto; }).collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<DeptSummary> deptSummaryTyped(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorSNK0XDL4 = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<Aggregate34JNUL3CRow>> aggregate34JNUL3C = () -> professorSNK0XDL4.get().collect(java.util.stream.Collector.of(java.util.HashMap<Object, Object[]>::new, (groups, bean) -> {Object[] acc = groups.computeIfAbsent(bean.getDept(), key -> new Object[]{new long[9], new double[0], new Object[]{}, new java.util.Set<?>[]{new java.util.HashSet<Object>()}, key});long[] longs = (long[]) acc[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets = (java.util.Set<Object>[]) acc[3];java.lang.String v0 = bean.getName();java.lang.String v1 = bean.getGender();java.lang.Integer v2 = bean.getSalary();int v3 = bean.getAge();if (v0 != null) {longs[0]++;}if (v1 != null) {sets[0].add(v1);}if (v2 != null) {longs[2] += v2; longs[1]++;}longs[4] += v3; longs[3]++;if (longs[5]++ == 0 || v3 < longs[6]) {longs[6] = v3; }if (v2 != null) {if (longs[7]++ == 0 || v2 > longs[8]) {longs[8] = v2; }}}, (groups, groups2) -> { groups2.forEach((key, acc2) -> groups.merge(key, acc2, (acc, other) -> {long[] longs = (long[]) acc[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets = (java.util.Set<Object>[]) acc[3];long[] longs2 = (long[]) acc2[0];@SuppressWarnings("unchecked") java.util.Set<Object>[] sets2 = (java.util.Set<Object>[]) acc2[3];longs[0] += longs2[0];sets[0].addAll(sets2[0]);longs[2] += longs2[2];longs[1] += longs2[1];longs[4] += longs2[4];longs[3] += longs2[3];if (longs2[5] > 0 && (longs[5] == 0 || longs2[6] < longs[6])) {longs[6] = longs2[6]; }longs[5] += longs2[5];if (longs2[7] > 0 && (longs[7] == 0 || longs2[8] > longs[8])) {longs[8] = longs2[8]; }longs[7] += longs2[7];return acc; })); return groups; })).values().stream().map(acc -> new Aggregate34JNUL3CRow(((java.lang.Integer) acc[4]), ((long[]) acc[0])[0], (long) ((java.util.Set<?>[]) acc[3])[0].size(), (((long[]) acc[0])[1] == 0 ? null : java.lang.Long.valueOf(((long[]) acc[0])[2])), (((long[]) acc[0])[3] == 0 ? null : java.lang.Double.valueOf(((long[]) acc[0])[4] / (double) ((long[]) acc[0])[3])), (((long[]) acc[0])[5] == 0 ? null : java.lang.Integer.valueOf((int) ((long[]) acc[0])[6])), (((long[]) acc[0])[7] == 0 ? null : java.lang.Integer.valueOf((int) ((long[]) acc[0])[8]))));
+    return aggregate34JNUL3C.get().map(bean -> { edu.rit.test.data.DeptSummary dto = new edu.rit.test.data.DeptSummary(); dto.setAvgAge(bean.avgAge); dto.setCountDistinctGender(bean.countDistinctGender); dto.setCountName(bean.countName); dto.setDept(bean.dept); dto.setMaxSalary(bean.maxSalary); dto.setMinAge(bean.minAge); dto.setSumSalary(bean.sumSalary); return dto; }).collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> topSalariesTyped(final Collection<Professor> professor) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorOUV6FEEOC = () -> professor.stream();
+    java.util.Comparator<edu.rit.test.data.Professor> ordersortR295W = java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getSalary(), java.util.Comparator.nullsLast(java.util.Comparator.<java.lang.Integer>reverseOrder())).thenComparing(java.util.Comparator.comparing((edu.rit.test.data.Professor bean) -> bean.getLastName(), java.util.Comparator.nullsFirst(java.util.Comparator.<java.lang.String>naturalOrder())));java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> sortR295W = () -> professorOUV6FEEOC.get().collect(java.util.stream.Collector.of(() -> new java.util.PriorityQueue<edu.rit.test.data.Professor>(4, ordersortR295W.reversed()), (heap, bean) -> {if (heap.size() < 3L) { heap.offer(bean); } else if (ordersortR295W.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}, (heap, heap2) -> { heap2.forEach(bean -> {if (heap.size() < 3L) { heap.offer(bean); } else if (ordersortR295W.compare(bean, heap.peek()) < 0) { heap.poll(); heap.offer(bean); }}); return heap; })).stream().sorted(ordersortR295W);
+    java.util.function.Supplier<java.util.stream.Stream<Projection9I9ONOKRARow>> projection9I9ONOKRA = () ->sortR295W.get().map(bean -> new Projection9I9ONOKRARow(bean.getName(), bean.getLastName(), bean.getSalary()));
+    return projection9I9ONOKRA.get().map(bean -> { edu.rit.test.data.Professor dto = new edu.rit.test.data.Professor(); dto.setLastName(bean.lastName); dto.setName(bean.name); dto.setSalary(bean.salary); return dto; }).collect(java.util.stream.Collectors.toList());
+  }
+
+  public List<Professor> joinedDepts(final Collection<Professor> professor,
+      final Collection<Department> department) {
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Professor>> professorODAEXR = () -> professor.stream();
+    java.util.function.Supplier<java.util.stream.Stream<edu.rit.test.data.Department>> departmentR1JVRAFAV = () -> department.stream();
+    java.util.function.ToIntBiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department> comparejoinH7Q66 = (bean1, bean2) -> {int c;if ((c = Long.compare(bean1.getDept(), bean2.getId())) != 0) { return c; }return 0;};java.util.function.BiFunction<edu.rit.test.data.Professor, edu.rit.test.data.Department, Map<String, Object>> joinedjoinH7Q66 = (bean1, bean2) -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("dept", bean1.getDept());return tmp; };java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> joinH7Q66 = () -> {java.util.Iterator<edu.rit.test.data.Professor> leftjoinH7Q66 = professorODAEXR.get().sorted((bean1, other) -> {int c;if ((c = Long.compare(bean1.getDept(), other.getDept())) != 0) { return c; }return 0;}).iterator();java.util.Iterator<edu.rit.test.data.Department> rightjoinH7Q66 = departmentR1JVRAFAV.get().sorted((bean2, other) -> {int c;if ((c = Long.compare(bean2.getId(), other.getId())) != 0) { return c; }return 0;}).iterator();return java.util.stream.StreamSupport.stream(new java.util.Spliterators.AbstractSpliterator<Map<String, Object>>(Long.MAX_VALUE, java.util.Spliterator.ORDERED) {edu.rit.test.data.Professor bean1 = leftjoinH7Q66.hasNext() ? leftjoinH7Q66.next() : null;edu.rit.test.data.Department next2 = rightjoinH7Q66.hasNext() ? rightjoinH7Q66.next() : null;List<edu.rit.test.data.Department> run = new java.util.ArrayList<>();int index;public boolean tryAdvance(java.util.function.Consumer<? super Map<String, Object>> action) {while (bean1 != null) {if (!run.isEmpty()) {int c = comparejoinH7Q66.applyAsInt(bean1, run.get(0));if (c == 0 && index < run.size()) { action.accept(joinedjoinH7Q66.apply(bean1, run.get(index++))); return true; }if (c <= 0) { bean1 = leftjoinH7Q66.hasNext() ? leftjoinH7Q66.next() : null; index = 0; continue; }run.clear(); }while (next2 != null && comparejoinH7Q66.applyAsInt(bean1, next2) > 0) { next2 = rightjoinH7Q66.hasNext() ? rightjoinH7Q66.next() : null; }if (next2 == null) { return false; }if (comparejoinH7Q66.applyAsInt(bean1, next2) < 0) { bean1 = leftjoinH7Q66.hasNext() ? leftjoinH7Q66.next() : null; continue; }do { run.add(next2); next2 = rightjoinH7Q66.hasNext() ? rightjoinH7Q66.next() : null; } while (next2 != null && comparejoinH7Q66.applyAsInt(bean1, next2) == 0);} return false; } }, false);};
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> projectionNQVYEJC = () ->joinH7Q66.get().map(bean -> {Map<String, Object> tmp = new java.util.HashMap<>();tmp.put("dept", bean.get("dept"));return tmp; });
+    java.util.function.Supplier<java.util.stream.Stream<Map<String, Object>>> distinctTWFIW3GOR = () -> {Object[] last = {new Object()};return projectionNQVYEJC.get().filter(bean -> {Object key = bean.get("dept");boolean first = !java.util.Objects.equals(last[0], key); last[0] = key; return first; }); };
+    return mapToprofessor(distinctTWFIW3GOR.get());
   }
 
   private List<Professor> mapToprofessor(final Stream<Map<String, Object>> professor) {
     List<edu.rit.test.data.Professor> userData = new java.util.ArrayList<>();
-    professor.forEach(m -> { edu.rit.test.data.Professor bean = new edu.rit.test.data.Professor();
+    professor.forEachOrdered(m -> { edu.rit.test.data.Professor bean = new edu.rit.test.data.Professor();
     if (m.containsKey("age")) { bean.setAge((int) m.get("age"));}if (m.containsKey("dept")) { bean.setDept((int) m.get("dept"));}if (m.containsKey("gender")) { bean.setGender((String) m.get("gender"));}if (m.containsKey("id")) { bean.setId((int) m.get("id"));}if (m.containsKey("lastName")) { bean.setLastName((String) m.get("lastName"));}if (m.containsKey("name")) { bean.setName((String) m.get("name"));}if (m.containsKey("salary")) { bean.setSalary((Integer) m.get("salary"));} userData.add(bean); }); return userData;
   }
+
+  private List<DeptSummary> mapTodeptsummary(final Stream<Map<String, Object>> deptsummary) {
+    List<edu.rit.test.data.DeptSummary> userData = new java.util.ArrayList<>();
+    deptsummary.forEachOrdered(m -> { edu.rit.test.data.DeptSummary bean = new edu.rit.test.data.DeptSummary();
+    if (m.containsKey("avgAge")) { bean.setAvgAge((Double) m.get("avgAge"));}if (m.containsKey("countDistinctGender")) { bean.setCountDistinctGender((long) m.get("countDistinctGender"));}if (m.containsKey("countName")) { bean.setCountName((long) m.get("countName"));}if (m.containsKey("dept")) { bean.setDept((int) m.get("dept"));}if (m.containsKey("maxSalary")) { bean.setMaxSalary((Integer) m.get("maxSalary"));}if (m.containsKey("minAge")) { bean.setMinAge((Integer) m.get("minAge"));}if (m.containsKey("sumSalary")) { bean.setSumSalary((Long) m.get("sumSalary"));} userData.add(bean); }); return userData;
+  }
+
+  private static final class Professor66YNJJRow {
+    final String lastName;
+
+    final String name;
+
+    final int dept;
+
+    final int professor_id;
+
+    Professor66YNJJRow(String lastName, String name, int dept, int professor_id) {
+      this.lastName = lastName;
+      this.name = name;
+      this.dept = dept;
+      this.professor_id = professor_id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Professor66YNJJRow)) return false;
+      Professor66YNJJRow other = (Professor66YNJJRow) obj;
+      return java.util.Objects.equals(lastName, other.lastName) && java.util.Objects.equals(name, other.name) && dept == other.dept && professor_id == other.professor_id;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + Integer.hashCode(dept);
+      h = 31 * h + Integer.hashCode(professor_id);
+      return h;
+    }
+  }
+
+  private static final class Department9TXVN9UWURow {
+    final int department_id;
+
+    Department9TXVN9UWURow(int department_id) {
+      this.department_id = department_id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Department9TXVN9UWURow)) return false;
+      Department9TXVN9UWURow other = (Department9TXVN9UWURow) obj;
+      return department_id == other.department_id;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + Integer.hashCode(department_id);
+      return h;
+    }
+  }
+
+  private static final class Join0TJ6OX9Row {
+    final String lastName;
+
+    final String name;
+
+    final int professor_id;
+
+    final int department_id;
+
+    Join0TJ6OX9Row(String lastName, String name, int professor_id, int department_id) {
+      this.lastName = lastName;
+      this.name = name;
+      this.professor_id = professor_id;
+      this.department_id = department_id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Join0TJ6OX9Row)) return false;
+      Join0TJ6OX9Row other = (Join0TJ6OX9Row) obj;
+      return java.util.Objects.equals(lastName, other.lastName) && java.util.Objects.equals(name, other.name) && professor_id == other.professor_id && department_id == other.department_id;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + Integer.hashCode(professor_id);
+      h = 31 * h + Integer.hashCode(department_id);
+      return h;
+    }
+  }
+
+  private static final class ProjectionXM8X2Row {
+    final String name;
+
+    final String lastName;
+
+    ProjectionXM8X2Row(String name, String lastName) {
+      this.name = name;
+      this.lastName = lastName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProjectionXM8X2Row)) return false;
+      ProjectionXM8X2Row other = (ProjectionXM8X2Row) obj;
+      return java.util.Objects.equals(name, other.name) && java.util.Objects.equals(lastName, other.lastName);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      return h;
+    }
+  }
+
+  private static final class ProfessorRHWV50Row {
+    final String lastName;
+
+    final String name;
+
+    final int dept;
+
+    final Integer salary;
+
+    ProfessorRHWV50Row(String lastName, String name, int dept, Integer salary) {
+      this.lastName = lastName;
+      this.name = name;
+      this.dept = dept;
+      this.salary = salary;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProfessorRHWV50Row)) return false;
+      ProfessorRHWV50Row other = (ProfessorRHWV50Row) obj;
+      return java.util.Objects.equals(lastName, other.lastName) && java.util.Objects.equals(name, other.name) && dept == other.dept && java.util.Objects.equals(salary, other.salary);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + Integer.hashCode(dept);
+      h = 31 * h + java.util.Objects.hashCode(salary);
+      return h;
+    }
+  }
+
+  private static final class ProfessorWAY1QZORow {
+    final String gender;
+
+    final int dept;
+
+    ProfessorWAY1QZORow(String gender, int dept) {
+      this.gender = gender;
+      this.dept = dept;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProfessorWAY1QZORow)) return false;
+      ProfessorWAY1QZORow other = (ProfessorWAY1QZORow) obj;
+      return java.util.Objects.equals(gender, other.gender) && dept == other.dept;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(gender);
+      h = 31 * h + Integer.hashCode(dept);
+      return h;
+    }
+  }
+
+  private static final class ProjectionFW6KX2Row {
+    final int dept;
+
+    final String gender;
+
+    ProjectionFW6KX2Row(int dept, String gender) {
+      this.dept = dept;
+      this.gender = gender;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProjectionFW6KX2Row)) return false;
+      ProjectionFW6KX2Row other = (ProjectionFW6KX2Row) obj;
+      return dept == other.dept && java.util.Objects.equals(gender, other.gender);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + Integer.hashCode(dept);
+      h = 31 * h + java.util.Objects.hashCode(gender);
+      return h;
+    }
+  }
+
+  private static final class ProfessorSNK0XDL4Row {
+    final String gender;
+
+    final String name;
+
+    final int dept;
+
+    final Integer salary;
+
+    final int age;
+
+    ProfessorSNK0XDL4Row(String gender, String name, int dept, Integer salary, int age) {
+      this.gender = gender;
+      this.name = name;
+      this.dept = dept;
+      this.salary = salary;
+      this.age = age;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProfessorSNK0XDL4Row)) return false;
+      ProfessorSNK0XDL4Row other = (ProfessorSNK0XDL4Row) obj;
+      return java.util.Objects.equals(gender, other.gender) && java.util.Objects.equals(name, other.name) && dept == other.dept && java.util.Objects.equals(salary, other.salary) && age == other.age;
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(gender);
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + Integer.hashCode(dept);
+      h = 31 * h + java.util.Objects.hashCode(salary);
+      h = 31 * h + Integer.hashCode(age);
+      return h;
+    }
+  }
+
+  private static final class Aggregate34JNUL3CRow {
+    final int dept;
+
+    final long countName;
+
+    final long countDistinctGender;
+
+    final Long sumSalary;
+
+    final Double avgAge;
+
+    final Integer minAge;
+
+    final Integer maxSalary;
+
+    Aggregate34JNUL3CRow(int dept, long countName, long countDistinctGender, Long sumSalary,
+        Double avgAge, Integer minAge, Integer maxSalary) {
+      this.dept = dept;
+      this.countName = countName;
+      this.countDistinctGender = countDistinctGender;
+      this.sumSalary = sumSalary;
+      this.avgAge = avgAge;
+      this.minAge = minAge;
+      this.maxSalary = maxSalary;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Aggregate34JNUL3CRow)) return false;
+      Aggregate34JNUL3CRow other = (Aggregate34JNUL3CRow) obj;
+      return dept == other.dept && countName == other.countName && countDistinctGender == other.countDistinctGender && java.util.Objects.equals(sumSalary, other.sumSalary) && java.util.Objects.equals(avgAge, other.avgAge) && java.util.Objects.equals(minAge, other.minAge) && java.util.Objects.equals(maxSalary, other.maxSalary);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + Integer.hashCode(dept);
+      h = 31 * h + Long.hashCode(countName);
+      h = 31 * h + Long.hashCode(countDistinctGender);
+      h = 31 * h + java.util.Objects.hashCode(sumSalary);
+      h = 31 * h + java.util.Objects.hashCode(avgAge);
+      h = 31 * h + java.util.Objects.hashCode(minAge);
+      h = 31 * h + java.util.Objects.hashCode(maxSalary);
+      return h;
+    }
+  }
+
+  private static final class ProfessorOUV6FEEOCRow {
+    final String lastName;
+
+    final String name;
+
+    final Integer salary;
+
+    ProfessorOUV6FEEOCRow(String lastName, String name, Integer salary) {
+      this.lastName = lastName;
+      this.name = name;
+      this.salary = salary;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof ProfessorOUV6FEEOCRow)) return false;
+      ProfessorOUV6FEEOCRow other = (ProfessorOUV6FEEOCRow) obj;
+      return java.util.Objects.equals(lastName, other.lastName) && java.util.Objects.equals(name, other.name) && java.util.Objects.equals(salary, other.salary);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + java.util.Objects.hashCode(salary);
+      return h;
+    }
+  }
+
+  private static final class Projection9I9ONOKRARow {
+    final String name;
+
+    final String lastName;
+
+    final Integer salary;
+
+    Projection9I9ONOKRARow(String name, String lastName, Integer salary) {
+      this.name = name;
+      this.lastName = lastName;
+      this.salary = salary;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) return true;
+      if (!(obj instanceof Projection9I9ONOKRARow)) return false;
+      Projection9I9ONOKRARow other = (Projection9I9ONOKRARow) obj;
+      return java.util.Objects.equals(name, other.name) && java.util.Objects.equals(lastName, other.lastName) && java.util.Objects.equals(salary, other.salary);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = 1;
+      h = 31 * h + java.util.Objects.hashCode(name);
+      h = 31 * h + java.util.Objects.hashCode(lastName);
+      h = 31 * h + java.util.Objects.hashCode(salary);
+      return h;
+    }
+  }
 }
@@ -2,7 +2,10 @@ package edu.rit.utils;
 
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -12,6 +15,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.ClassUtils;
 
 import edu.rit.dao.impl.store.access.UserDTO;
 
@@ -23,6 +30,12 @@ public class Utils {
 	/** The Constant lexicon. */
 	final static String lexicon = "ABCDEFGHIJKLMNOPQRSTUVWXYZ12345674890";
 
+	/** The Constant DECIMAL_PRECISION. Digits of the columns of decimal properties. */
+	private static final int DECIMAL_PRECISION = 38;
+
+	/** The Constant DECIMAL_SCALE. Fractional digits of the columns of decimal properties. */
+	private static final int DECIMAL_SCALE = 10;
+
 	/** The Constant rand. */
 	final static java.util.Random rand = new java.util.Random();
 
@@ -60,6 +73,44 @@ public class Utils {
 		return schema;
 	}
 
+	/**
+	 * Map to object. The function that transforms a Map<String, Object> into
+	 * a new user DTO, the properties with a setter are set with the values of
+	 * the same keys.
+	 *
+	 * @param <T> the generic type
+	 * @param dtoClass the DTO class
+	 * @return the function
+	 */
+	public static <T> Function<Map<String, Object>, T> mapToObject(Class<T> dtoClass) {
+		List<PropertyDescriptor> properties = new ArrayList<>();
+		Constructor<T> constructor;
+		try {
+			for (PropertyDescriptor pd : Introspector.getBeanInfo(dtoClass, Object.class).getPropertyDescriptors()) {
+				// filter out properties with getters only
+				if (pd.getWriteMethod() != null) {
+					properties.add(pd);
+				}
+			}
+			constructor = dtoClass.getDeclaredConstructor();
+		} catch (IntrospectionException | NoSuchMethodException e) {
+			throw new IllegalArgumentException(e);
+		}
+		return m -> {
+			try {
+				T bean = constructor.newInstance();
+				for (PropertyDescriptor pd : properties) {
+					if (m.containsKey(pd.getName())) {
+						pd.getWriteMethod().invoke(bean, m.get(pd.getName()));
+					}
+				}
+				return bean;
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+	}
+
 	/**
 	 * Schema descriptor.
 	 *
@@ -87,61 +138,94 @@ public class Utils {
 	 * @return the map
 	 */
 	public static Map<String, Object> beanProperties(Object bean) {
-		try {
-			Map<String, Object> map = new HashMap<>();
-			Arrays.asList(Introspector.getBeanInfo(bean.getClass(), Object.class).getPropertyDescriptors()).stream()
-					// filter out properties with setters only
-					.filter(pd -> Objects.nonNull(pd.getReadMethod())).forEach(pd -> {
-						try {
-							Object value = pd.getReadMethod().invoke(bean);
-							map.put(pd.getName(), value);
-						} catch (Exception e) {
-							e.printStackTrace();
-						}
-					});
-			return map;
-		} catch (IntrospectionException e) {
-			e.printStackTrace();
-			return Collections.emptyMap();
-		}
+		Map<String, Object> map = new HashMap<>();
+		readableProperties(bean.getClass()).forEach(pd -> {
+			try {
+				Object value = pd.getReadMethod().invoke(bean);
+				map.put(pd.getName(), value);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		});
+		return map;
 	}
 
 	/**
 	 * Table descriptor.
-	 * Build DDL statement for creating a database relation with the bean structure
+	 * Build DDL statement for creating a database relation with the bean structure,
+	 * the SQL type of every column is given by the type of its property, the
+	 * values of the bean are not read: integral types are integers, long
+	 * integers have 19 digits, floating-point types are double precision and
+	 * decimals have the widest precision and scale. The RA library does not
+	 * accept bigint nor double.
 	 *
 	 * @param bean the bean
 	 * @return the map
 	 */
 	public static Map<String, String> tableDescriptor(Object bean) {
+		Map<String, String> map = new HashMap<>();
+		propertyTypes(bean.getClass()).forEach((name, type) -> map.put(name, sqlType(type)));
+		return map;
+	}
+
+	/**
+	 * SQL type of a property type.
+	 *
+	 * @param type the property type, primitive or not
+	 * @return the SQL type
+	 */
+	private static String sqlType(Class<?> type) {
+		Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+		if (wrapper == Integer.class || wrapper == Short.class || wrapper == Byte.class) {
+			return "integer";
+		}
+		if (wrapper == Long.class) {
+			return "numeric(19)";
+		}
+		if (wrapper == Double.class || wrapper == Float.class) {
+			return "double precision";
+		}
+		if (wrapper == BigDecimal.class) {
+			return "numeric(" + DECIMAL_PRECISION + "," + DECIMAL_SCALE + ")";
+		}
+		if (Number.class.isAssignableFrom(wrapper)) {
+			// e.g. BigInteger
+			return "numeric";
+		}
+		return "varchar(100)";
+	}
+
+	/**
+	 * Property types. The java type of every readable property of a user DTO
+	 * class, primitive properties keep their primitive type.
+	 *
+	 * @param dtoClass the DTO class
+	 * @return the types by property name
+	 */
+	public static Map<String, Class<?>> propertyTypes(Class<?> dtoClass) {
+		Map<String, Class<?>> map = new HashMap<>();
+		readableProperties(dtoClass).forEach(pd -> map.put(pd.getName(), pd.getPropertyType()));
+		return map;
+	}
+
+	/**
+	 * Readable properties. The properties of a DTO class with a getter, the
+	 * columns of its table.
+	 *
+	 * @param dtoClass the DTO class
+	 * @return the property descriptors
+	 */
+	public static List<PropertyDescriptor> readableProperties(Class<?> dtoClass) {
 		try {
-			Map<String, String> map = new HashMap<>();
-			Arrays.asList(Introspector.getBeanInfo(bean.getClass(), Object.class).getPropertyDescriptors()).stream()
+			return Arrays.asList(Introspector.getBeanInfo(dtoClass, Object.class).getPropertyDescriptors()).stream()
 					// filter out properties with setters only
-					.filter(pd -> Objects.nonNull(pd.getReadMethod())).forEach(pd -> {
-						try {
-							Object value = pd.getReadMethod().invoke(bean);
-							String typeVar = "varchar(100)";
-							//TODO MJCG Include date type?
-							//TODO MJCG Error when data type is BigDecimal
-							//TODO MJCG All numeric data cannot be defined as int, they must float or double
-							if (Number.class.isInstance(value)) {
-								typeVar = "numeric";
-							}
-//							value instanceof java.math.BigDecimal
-//							typeVar = "numeric";
-							map.put(pd.getName(), typeVar);
-						} catch (Exception e) {
-							e.printStackTrace();
-						}
-					});
-			return map;
+					.filter(pd -> Objects.nonNull(pd.getReadMethod())).collect(Collectors.toList());
 		} catch (IntrospectionException e) {
 			e.printStackTrace();
-			return Collections.emptyMap();
+			return Collections.emptyList();
 		}
 	}
-	
+
 	/**
 	 * Gets the field.
 	 *